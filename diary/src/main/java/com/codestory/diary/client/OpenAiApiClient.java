@@ -0,0 +1,183 @@
+package com.codestory.diary.client;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.codestory.diary.client.dto.ChatCompletionRequest;
+import com.codestory.diary.client.dto.ChatCompletionResponse;
+import com.codestory.diary.client.dto.EmbeddingRequest;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * OpenAI REST API 공용 클라이언트
+ *
+ * - Chat Completions (일반 / 스트리밍)
+ * - Embeddings (여러 텍스트 일괄 요청 지원)
+ *
+ * 공유 커넥션 풀 + 타임아웃이 설정된 openAiRestTemplate 사용 (HttpClientConfig)
+ */
+@Component
+public class OpenAiApiClient {
+
+    private static final String CHAT_COMPLETIONS_URL = "https://api.openai.com/v1/chat/completions";
+    private static final String EMBEDDINGS_URL = "https://api.openai.com/v1/embeddings";
+    private static final int EXPECTED_EMBEDDING_DIMENSION = 1536; // text-embedding-3-small (다르면 자동 확장/축소)
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${openai.api.key}")
+    private String apiKey;
+
+    public OpenAiApiClient(@Qualifier("openAiRestTemplate") RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Chat Completions 호출
+     */
+    public ChatCompletionResponse chatCompletion(ChatCompletionRequest request) {
+        return restTemplate.postForObject(CHAT_COMPLETIONS_URL,
+                new HttpEntity<>(request, jsonHeaders()), ChatCompletionResponse.class);
+    }
+
+    /**
+     * Chat Completions 스트리밍 호출 (stream=true)
+     * SSE 응답의 "data: {...}" 라인을 읽어 delta.content 토큰을 순서대로 전달
+     */
+    public void streamChatCompletion(ChatCompletionRequest request, Consumer<String> onToken) {
+        request.setStream(true);
+
+        restTemplate.execute(CHAT_COMPLETIONS_URL, HttpMethod.POST, httpRequest -> {
+            httpRequest.getHeaders().putAll(jsonHeaders());
+            objectMapper.writeValue(httpRequest.getBody(), request);
+        }, response -> {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String data = line.substring(5).trim();
+                if ("[DONE]".equals(data)) {
+                    break;
+                }
+                String token = objectMapper.readValue(data, ChatCompletionResponse.class).firstDeltaContent();
+                if (token != null && !token.isEmpty()) {
+                    onToken.accept(token);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Embeddings 호출
+     *
+     * 응답을 Jackson 스트리밍 파서로 읽어 float[]에 바로 채움
+     * (Map/List<Double>/List<Float> 중간 객체 없음 → 1536차원 기준 임베딩당 박싱 객체 수천 개 절감)
+     *
+     * @return 입력 순서와 동일한 순서의 임베딩 벡터 리스트
+     */
+    public List<float[]> embeddings(String model, List<String> inputs) {
+        EmbeddingRequest request = EmbeddingRequest.builder()
+                .model(model)
+                .input(inputs)
+                .build();
+
+        float[][] vectors = restTemplate.execute(EMBEDDINGS_URL, HttpMethod.POST, httpRequest -> {
+            httpRequest.getHeaders().putAll(jsonHeaders());
+            objectMapper.writeValue(httpRequest.getBody(), request);
+        }, response -> parseEmbeddings(response.getBody(), inputs.size()));
+
+        if (vectors == null) {
+            throw new IllegalStateException("Failed to get embedding from OpenAI");
+        }
+        for (float[] vector : vectors) {
+            if (vector == null) {
+                throw new IllegalStateException("Failed to get embedding from OpenAI: missing vector in response");
+            }
+        }
+        return Arrays.asList(vectors);
+    }
+
+    /**
+     * {"data": [{"index": 0, "embedding": [...]}, ...], ...} → index 위치에 float[] 저장
+     */
+    private float[][] parseEmbeddings(InputStream body, int expectedCount) throws IOException {
+        float[][] vectors = new float[expectedCount][];
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Unexpected embeddings response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("data".equals(field)) {
+                    parseEmbeddingItems(parser, vectors);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return vectors;
+    }
+
+    private void parseEmbeddingItems(JsonParser parser, float[][] vectors) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            int index = -1;
+            float[] embedding = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "index" -> index = parser.getIntValue();
+                    case "embedding" -> embedding = readFloatArray(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (index < 0 || index >= vectors.length || embedding == null) {
+                throw new IllegalStateException("Unexpected embedding item (index=" + index + ")");
+            }
+            vectors[index] = embedding;
+        }
+    }
+
+    private static float[] readFloatArray(JsonParser parser) throws IOException {
+        float[] buffer = new float[EXPECTED_EMBEDDING_DIMENSION];
+        int size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = parser.getFloatValue();
+        }
+        return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+    }
+
+    private HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(apiKey);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+}
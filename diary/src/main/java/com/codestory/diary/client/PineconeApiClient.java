@@ -0,0 +1,123 @@
+package com.codestory.diary.client;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.codestory.diary.client.dto.PineconeDeleteRequest;
+import com.codestory.diary.client.dto.PineconeFetchResponse;
+import com.codestory.diary.client.dto.PineconeListResponse;
+import com.codestory.diary.client.dto.PineconeQueryRequest;
+import com.codestory.diary.client.dto.PineconeQueryResponse;
+import com.codestory.diary.client.dto.PineconeUpsertRequest;
+import com.codestory.diary.client.dto.PineconeVector;
+import com.codestory.diary.config.VectorConfig;
+
+/**
+ * Pinecone Data Plane REST API 공용 클라이언트
+ *
+ * 공유 커넥션 풀 + 타임아웃이 설정된 pineconeRestTemplate 사용 (HttpClientConfig)
+ */
+@Component
+public class PineconeApiClient {
+
+    private final RestTemplate restTemplate;
+    private final VectorConfig vectorConfig;
+
+    private final String pineconeHost;
+
+    /**
+     * Pinecone 인덱스는 차원이 고정이므로 내장 임베딩(384차원) 사용 시 별도 인덱스(pinecone.local-host)로 연결
+     * - Pinecone 저장소(memory.store.type=pinecone)인데 local-host가 비어 있으면 부팅 시점에 실패
+     *   (빈 호스트로 시작하면 첫 저장/검색 때마다 상대 경로 요청 오류)
+     */
+    public PineconeApiClient(@Qualifier("pineconeRestTemplate") RestTemplate restTemplate, VectorConfig vectorConfig,
+                             @Value("${pinecone.host}") String host,
+                             @Value("${pinecone.local-host:}") String localHost,
+                             @Value("${ai.embedding.provider:openai}") String embeddingProvider,
+                             @Value("${memory.store.type:pinecone}") String memoryStoreType) {
+        this.restTemplate = restTemplate;
+        this.vectorConfig = vectorConfig;
+        boolean local = "local".equals(embeddingProvider);
+        if (local && "pinecone".equals(memoryStoreType) && localHost.isBlank()) {
+            throw new IllegalStateException(
+                    "pinecone.local-host must be set when ai.embedding.provider=local and memory.store.type=pinecone");
+        }
+        this.pineconeHost = local ? localHost : host;
+    }
+
+    /**
+     * 벡터 저장 (같은 ID는 덮어쓰기)
+     */
+    public void upsert(String namespace, List<PineconeVector> vectors) {
+        PineconeUpsertRequest request = PineconeUpsertRequest.builder()
+                .vectors(vectors)
+                .namespace(namespace)
+                .build();
+
+        restTemplate.postForEntity(pineconeHost + "/vectors/upsert",
+                new HttpEntity<>(request, headers()), Void.class);
+    }
+
+    /**
+     * 유사 벡터 검색
+     */
+    public PineconeQueryResponse query(PineconeQueryRequest request) {
+        return restTemplate.postForObject(pineconeHost + "/query",
+                new HttpEntity<>(request, headers()), PineconeQueryResponse.class);
+    }
+
+    /**
+     * ID 접두사로 벡터 ID 목록 조회 (서버리스 인덱스 전용, 페이지 단위)
+     */
+    public PineconeListResponse listIds(String namespace, String prefix, String paginationToken, int limit) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(pineconeHost + "/vectors/list")
+                .queryParam("namespace", namespace)
+                .queryParam("prefix", prefix)
+                .queryParam("limit", limit);
+        if (paginationToken != null) {
+            uri.queryParam("paginationToken", paginationToken);
+        }
+        return restTemplate.exchange(uri.encode().build().toUri(), HttpMethod.GET,
+                new HttpEntity<>(headers()), PineconeListResponse.class).getBody();
+    }
+
+    /**
+     * ID로 벡터 조회 (값 + 메타데이터)
+     */
+    public PineconeFetchResponse fetch(String namespace, List<String> ids) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(pineconeHost + "/vectors/fetch")
+                .queryParam("namespace", namespace);
+        ids.forEach(id -> uri.queryParam("ids", id));
+        return restTemplate.exchange(uri.encode().build().toUri(), HttpMethod.GET,
+                new HttpEntity<>(headers()), PineconeFetchResponse.class).getBody();
+    }
+
+    /**
+     * ID로 벡터 삭제
+     */
+    public void delete(String namespace, List<String> ids) {
+        PineconeDeleteRequest request = PineconeDeleteRequest.builder()
+                .ids(ids)
+                .namespace(namespace)
+                .build();
+
+        restTemplate.postForEntity(pineconeHost + "/vectors/delete",
+                new HttpEntity<>(request, headers()), Void.class);
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Api-Key", vectorConfig.getPineconeApiKey());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+}
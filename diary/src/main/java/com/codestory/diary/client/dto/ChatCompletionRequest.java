@@ -0,0 +1,32 @@
+package com.codestory.diary.client.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OpenAI Chat Completions 요청
+ * - messages: 텍스트/멀티모달(content 배열) 모두 지원하도록 Map 형태 유지
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatCompletionRequest {
+    private String model;
+    private List<Map<String, Object>> messages;
+
+    @JsonProperty("max_tokens")
+    private Integer maxTokens;
+
+    private Double temperature;
+    private Boolean stream;
+}
@@ -0,0 +1,56 @@
+package com.codestory.diary.client.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OpenAI Chat Completions 응답 (일반 응답 + 스트리밍 청크 공용)
+ * - 일반 응답: choices[].message.content
+ * - 스트리밍 청크: choices[].delta.content
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChatCompletionResponse {
+    private List<Choice> choices;
+
+    /**
+     * 첫 번째 선택지의 응답 본문 (없으면 null)
+     */
+    public String firstContent() {
+        if (choices == null || choices.isEmpty() || choices.get(0).getMessage() == null) {
+            return null;
+        }
+        return choices.get(0).getMessage().getContent();
+    }
+
+    /**
+     * 스트리밍 청크의 토큰 (없으면 null)
+     */
+    public String firstDeltaContent() {
+        if (choices == null || choices.isEmpty() || choices.get(0).getDelta() == null) {
+            return null;
+        }
+        return choices.get(0).getDelta().getContent();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Choice {
+        private Message message;
+        private Message delta;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Message {
+        private String role;
+        private String content;
+    }
+}
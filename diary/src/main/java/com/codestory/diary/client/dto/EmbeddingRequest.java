@@ -0,0 +1,20 @@
+package com.codestory.diary.client.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OpenAI Embeddings 요청 (input 배열 → 한 번에 여러 텍스트 임베딩 가능)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbeddingRequest {
+    private String model;
+    private List<String> input;
+}
@@ -0,0 +1,20 @@
+package com.codestory.diary.client.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pinecone /vectors/delete 요청
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PineconeDeleteRequest {
+    private List<String> ids;
+    private String namespace;
+}
@@ -0,0 +1,18 @@
+package com.codestory.diary.client.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pinecone /vectors/fetch 응답 (ID → 벡터)
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PineconeFetchResponse {
+    private Map<String, PineconeVector> vectors;
+}
@@ -0,0 +1,40 @@
+package com.codestory.diary.client.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pinecone /vectors/list 응답 (ID 접두사 기반 목록, 페이지 단위)
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PineconeListResponse {
+    private List<Item> vectors;
+    private Pagination pagination;
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        private String id;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Pagination {
+        private String next;
+    }
+
+    /**
+     * 다음 페이지 토큰 (마지막 페이지면 null)
+     */
+    public String nextToken() {
+        return pagination != null ? pagination.getNext() : null;
+    }
+}
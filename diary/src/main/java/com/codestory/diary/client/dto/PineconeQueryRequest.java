@@ -0,0 +1,27 @@
+package com.codestory.diary.client.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pinecone /query 요청
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PineconeQueryRequest {
+    private float[] vector;
+    private int topK;
+    private boolean includeMetadata;
+    private boolean includeValues;
+    private Map<String, Object> filter;
+    private String namespace;
+}
@@ -0,0 +1,28 @@
+package com.codestory.diary.client.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pinecone /query 응답
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PineconeQueryResponse {
+    private List<Match> matches;
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Match {
+        private String id;
+        private Double score;
+        private Map<String, Object> metadata;
+    }
+}
@@ -0,0 +1,20 @@
+package com.codestory.diary.client.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pinecone /vectors/upsert 요청
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PineconeUpsertRequest {
+    private List<PineconeVector> vectors;
+    private String namespace;
+}
@@ -2,13 +2,17 @@ package com.codestory.diary.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * 비동기 처리 설정 (성능 최적화)
@@ -16,6 +20,11 @@ import java.util.concurrent.Executor;
  * [스레드 풀 구조]
  * - embeddingAsyncExecutor: 임베딩 생성 전용 (neo4j 벡터 작업)
  * - chatAsyncExecutor:      Chat/Graph 저장 전용 (Pinecone + Neo4j 그래프 저장)
+ * - chatStreamExecutor:     채팅 SSE 스트리밍 전용 (가상 스레드)
+ * - chatContextExecutor:    채팅 컨텍스트 병렬 수집 전용 (가상 스레드)
+ * - localEmbeddingExecutor: 내장 임베딩 모델 CPU 연산 전용 (ai.embedding.provider=local)
+ * - lexicalIndexExecutor:   BM25 어휘 색인 백그라운드 구성 전용
+ * - maintenanceExecutor:    야간 일괄 작업 전용 (Kingpin 재집계 / 기억 압축, 스케줄러 스레드에서 분리)
  *
  * [호출 흐름]
  * 사용자 메시지 → AI 응답 생성 → 즉시 반환
@@ -44,9 +53,9 @@ public class AsyncConfig implements AsyncConfigurer {
     }
 
     /**
-     * Chat/Graph 저장 전용 Executor
+     * Chat 저장 전용 Executor
      * - ChatService: Pinecone 벡터 저장 (saveMemoryAsync)
-     * - GraphService: Neo4j 그래프 저장 (saveDiaryToGraphAsync)
+     * (일기 → 그래프 저장은 GraphIngestionQueue 전용 파이프라인 사용)
      */
     @Bean
     public Executor chatAsyncExecutor() {
@@ -60,6 +69,31 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    /**
+     * 채팅 스트리밍 전용 Executor (가상 스레드)
+     * - ChatService: SSE 토큰 스트리밍 (chatStream)
+     * - 응답 생성 내내 OpenAI 연결을 붙잡고 있으므로 플랫폼 스레드 풀 대신 가상 스레드 사용
+     */
+    @Bean
+    public Executor chatStreamExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("Async-Stream-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(200);
+        log.info("✅ Chat Stream Executor 초기화 (Virtual Threads, Limit: 200)");
+        return executor;
+    }
+
+    /**
+     * 채팅 컨텍스트 병렬 수집 전용 Executor (가상 스레드)
+     * - ChatService: 히스토리 로드 / RAG 기억 검색 / PII 마스킹 Fan-out
+     * - 작업 대부분이 DB·네트워크 대기이므로 작업당 가상 스레드 1개
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService chatContextExecutor() {
+        log.info("✅ Chat Context Executor 초기화 (Virtual Thread per Task)");
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Chat-Context-", 0).factory());
+    }
+
     /**
      * 임베딩 생성 전용 Executor
      * - EmbeddingService: Neo4j 노드 벡터화
@@ -76,6 +110,59 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    /**
+     * BM25 어휘 색인 구성 전용 Executor
+     * - LexicalMemoryIndex: 사용자 첫 검색/저장 시 기억 전체 + 일기 목록 조회 후 색인 구성
+     * - 요청 경로에서 분리 → 구성 중에는 벡터 검색 결과만 사용
+     */
+    @Bean
+    public Executor lexicalIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("Lexical-Index-");
+        executor.initialize();
+        log.info("✅ Lexical Index Executor 초기화 (Threads: 2, Queue: 500)");
+        return executor;
+    }
+
+    /**
+     * 야간 일괄 작업 전용 Executor (단일 스레드 → 작업끼리 순서대로 실행)
+     * - CauseStatService: 전체 사용자 Kingpin 재집계
+     * - MemoryCompactionService: 전체 사용자 기억 압축 (cron / 관리자 API)
+     * - 스케줄러 스레드는 작업을 넘기기만 하고 바로 반환 → PineconeWriteBuffer flush가 밀리지 않음
+     */
+    @Bean
+    public ThreadPoolTaskExecutor maintenanceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("Maintenance-");
+        executor.initialize();
+        log.info("✅ Maintenance Executor 초기화 (Threads: 1, Queue: 10)");
+        return executor;
+    }
+
+    /**
+     * 내장 임베딩 모델(ONNX) 연산 전용 Executor (ai.embedding.provider=local 일 때만 생성)
+     * - CPU 바운드 작업이므로 가상 스레드 대신 코어 수만큼의 고정 플랫폼 스레드
+     */
+    @Bean
+    @ConditionalOnProperty(name = "ai.embedding.provider", havingValue = "local")
+    public ThreadPoolTaskExecutor localEmbeddingExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("Local-Embedding-");
+        executor.initialize();
+        log.info("✅ Local Embedding Executor 초기화 (Threads: {}, Queue: 1000)", cores);
+        return executor;
+    }
+
     /**
      * 비동기 작업 중 발생한 예외 처리
      */
@@ -0,0 +1,50 @@
+package com.codestory.diary.config;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.codestory.diary.service.EmbeddingBackfillService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 임베딩 백필 관리 Actuator 엔드포인트
+ *
+ * - GET    /actuator/embeddingbackfill                 진행 상황 (처리 수, 처리량, ETA)
+ * - POST   /actuator/embeddingbackfill                 시작 (체크포인트부터 이어서)
+ * - POST   /actuator/embeddingbackfill {"restart":true} 처음부터 다시 (실패 노드 재처리)
+ * - DELETE /actuator/embeddingbackfill                 현재 페이지 처리 후 중단
+ *
+ * ⚠️ 누구나 호출하면 OpenAI 비용이 발생 → 기본 노출 목록에서 제외, 관리 포트(management.server.port)에서만 노출
+ */
+@Component
+@Endpoint(id = "embeddingbackfill")
+@RequiredArgsConstructor
+public class EmbeddingBackfillEndpoint {
+
+    private final EmbeddingBackfillService backfillService;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return backfillService.getStatus();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable Boolean restart) {
+        boolean started = backfillService.start(Boolean.TRUE.equals(restart));
+        Map<String, Object> status = backfillService.getStatus();
+        return started ? status : Map.of("message", "이미 백필이 실행 중입니다.", "status", status);
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        backfillService.stop();
+        return backfillService.getStatus();
+    }
+}
@@ -0,0 +1,75 @@
+package com.codestory.diary.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * 외부 API(OpenAI / Pinecone) 공용 HTTP 클라이언트 설정
+ *
+ * [구조]
+ * - outboundHttpClient:    JDK HttpClient 1개 공유 (HTTP/2 우선, Keep-Alive 커넥션 풀 재사용)
+ * - openAiRestTemplate:    OpenAI 전용 (LLM 생성 시간을 고려한 긴 read timeout)
+ * - pineconeRestTemplate:  Pinecone 전용 (짧은 read timeout)
+ *
+ * [이전 문제]
+ * - 서비스마다 new RestTemplate() → 타임아웃 없음, 매 요청 TLS 핸드셰이크
+ * - OpenAI 소켓이 멈추면 요청 스레드가 무한 대기
+ */
+@Slf4j
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${http.client.openai.read-timeout-ms:30000}")
+    private long openAiReadTimeoutMs;
+
+    @Value("${http.client.pinecone.read-timeout-ms:5000}")
+    private long pineconeReadTimeoutMs;
+
+    /**
+     * 공유 JDK HttpClient
+     * - 커넥션 풀과 TLS 세션을 모든 외부 호출이 재사용
+     * - HTTP/2 지원 서버(OpenAI 등)는 하나의 커넥션으로 멀티플렉싱
+     */
+    @Bean(destroyMethod = "close")
+    public HttpClient outboundHttpClient() {
+        log.info("✅ Outbound HttpClient 초기화 (HTTP/2, Connect Timeout: {}ms)", connectTimeoutMs);
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate openAiRestTemplate(RestTemplateBuilder builder, HttpClient outboundHttpClient) {
+        log.info("✅ OpenAI RestTemplate 초기화 (Read Timeout: {}ms)", openAiReadTimeoutMs);
+        return builder
+                .requestFactory(() -> requestFactory(outboundHttpClient, openAiReadTimeoutMs))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate pineconeRestTemplate(RestTemplateBuilder builder, HttpClient outboundHttpClient) {
+        log.info("✅ Pinecone RestTemplate 초기화 (Read Timeout: {}ms)", pineconeReadTimeoutMs);
+        return builder
+                .requestFactory(() -> requestFactory(outboundHttpClient, pineconeReadTimeoutMs))
+                .build();
+    }
+
+    private JdkClientHttpRequestFactory requestFactory(HttpClient httpClient, long readTimeoutMs) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return factory;
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.stereotype.Component;
  * Neo4j 벡터 인덱스 자동 생성
  * - 애플리케이션 시작 시 한 번만 실행
  * - 이미 존재하면 스킵 (중복 생성 방지)
+ * - CauseStat(Kingpin 집계) 조회용 / 임베딩 백필 페이지 조회용(name) 일반 인덱스, CauseStat 유일 제약도 함께 생성
+ * - 제공자 전환 대비 OpenAI(1536) / 내장 모델(384) 인덱스를 모두 생성 (Neo4jVectorIndexes 참고)
  */
 @Slf4j
 @Component
@@ -23,10 +25,21 @@ public class Neo4jVectorIndexInitializer implements CommandLineRunner {
         try {
             log.info("🔍 Neo4j 벡터 인덱스 초기화 시작...");
 
-            // Event 노드에 벡터 인덱스 생성 (OpenAI text-embedding-3-small: 1536차원)
-            createVectorIndex("Event", "embedding", 1536);
-            createVectorIndex("Emotion", "embedding", 1536);
-            createVectorIndex("Action", "embedding", 1536);
+            for (String label : new String[] {"Event", "Emotion", "Action"}) {
+                // OpenAI text-embedding-3-small: 1536차원
+                createVectorIndex(label, Neo4jVectorIndexes.OPENAI_PROPERTY, Neo4jVectorIndexes.OPENAI_DIMENSION, false);
+                // 내장 all-MiniLM-L6-v2: 384차원
+                createVectorIndex(label, Neo4jVectorIndexes.LOCAL_PROPERTY, Neo4jVectorIndexes.LOCAL_DIMENSION, true);
+            }
+
+            // 임베딩 백필 keyset 페이지 조회용 name 범위 인덱스 (EmbeddingBackfillService)
+            for (String label : new String[] {"Event", "Emotion", "Action"}) {
+                runSchema("CREATE INDEX %s_name IF NOT EXISTS FOR (n:%s) ON (n.name)".formatted(label.toLowerCase(), label));
+            }
+
+            // Kingpin 집계 노드 조회용 인덱스 + (userId, name) 유일 제약 (CauseStatService)
+            runSchema("CREATE INDEX cause_stat_user_frequency IF NOT EXISTS FOR (s:CauseStat) ON (s.userId, s.frequency)");
+            createCauseStatConstraint();
 
             log.info("✅ Neo4j 벡터 인덱스 초기화 완료!");
 
@@ -35,9 +48,9 @@ public class Neo4jVectorIndexInitializer implements CommandLineRunner {
         }
     }
 
-    private void createVectorIndex(String nodeLabel, String propertyName, int dimensions) {
+    private void createVectorIndex(String nodeLabel, String propertyName, int dimensions, boolean local) {
         String cypherQuery = String.format("""
-            CREATE VECTOR INDEX %s_vector_index IF NOT EXISTS
+            CREATE VECTOR INDEX %s IF NOT EXISTS
             FOR (n:%s) ON (n.%s)
             OPTIONS {
               indexConfig: {
@@ -45,7 +58,7 @@ public class Neo4jVectorIndexInitializer implements CommandLineRunner {
                 `vector.similarity_function`: 'cosine'
               }
             }
-            """, nodeLabel.toLowerCase(), nodeLabel, propertyName, dimensions);
+            """, Neo4jVectorIndexes.indexName(nodeLabel, local), nodeLabel, propertyName, dimensions);
 
         try {
             neo4jClient.query(cypherQuery).run();
@@ -54,4 +67,31 @@ public class Neo4jVectorIndexInitializer implements CommandLineRunner {
             log.debug("  - 벡터 인덱스 이미 존재: {}:{}", nodeLabel, propertyName);
         }
     }
+
+    /**
+     * CauseStat (userId, name) 유일 제약
+     * - 같은 스키마의 일반 인덱스(이전 버전)가 있으면 제약을 만들 수 없으므로 먼저 삭제
+     * - 이미 생긴 중복 노드도 제약 생성을 막으므로 하나만 남기고 삭제 (빈도는 다음 재집계에서 보정)
+     */
+    private void createCauseStatConstraint() {
+        runSchema("DROP INDEX cause_stat_user_name IF EXISTS");
+        runSchema("""
+            MATCH (s:CauseStat)
+            WITH s.userId AS userId, s.name AS name, collect(s) AS stats
+            WHERE size(stats) > 1
+            UNWIND stats[1..] AS duplicate
+            DETACH DELETE duplicate
+            """);
+        runSchema("CREATE CONSTRAINT cause_stat_user_name_unique IF NOT EXISTS "
+                + "FOR (s:CauseStat) REQUIRE (s.userId, s.name) IS UNIQUE");
+    }
+
+    private void runSchema(String cypherQuery) {
+        try {
+            neo4jClient.query(cypherQuery).run();
+            log.info("  ✓ 인덱스 생성: {}", cypherQuery);
+        } catch (Exception e) {
+            log.debug("  - 인덱스 생성 생략: {}", e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package com.codestory.diary.config;
+
+import org.springframework.stereotype.Component;
+
+import com.codestory.diary.service.EmbeddingGateway;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 임베딩 제공자별 Neo4j 벡터 속성/인덱스 이름
+ *
+ * - openai: n.embedding       (1536차원) → {label}_vector_index
+ * - local:  n.embedding_local (384차원)  → {label}_local_vector_index
+ *
+ * 두 속성/인덱스가 공존하므로 제공자를 바꿔도 기존 벡터는 그대로 유지되고,
+ * 새 제공자 속성만 백필하면 됨 (POST /api/admin/migrate-embeddings)
+ */
+@Component
+@RequiredArgsConstructor
+public class Neo4jVectorIndexes {
+
+    public static final String OPENAI_PROPERTY = "embedding";
+    public static final String LOCAL_PROPERTY = "embedding_local";
+    public static final int OPENAI_DIMENSION = 1536;
+    public static final int LOCAL_DIMENSION = 384;
+
+    private final EmbeddingGateway embeddingGateway;
+
+    /**
+     * 현재 제공자의 벡터 속성 이름
+     */
+    public String property() {
+        return embeddingGateway.isLocal() ? LOCAL_PROPERTY : OPENAI_PROPERTY;
+    }
+
+    /**
+     * 현재 제공자의 벡터 인덱스 이름 (예: Event → event_vector_index / event_local_vector_index)
+     */
+    public String indexName(String nodeLabel) {
+        return indexName(nodeLabel, embeddingGateway.isLocal());
+    }
+
+    static String indexName(String nodeLabel, boolean local) {
+        return nodeLabel.toLowerCase() + (local ? "_local" : "") + "_vector_index";
+    }
+}
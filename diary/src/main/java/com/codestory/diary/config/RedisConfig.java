@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -11,8 +12,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -20,7 +23,8 @@ import java.time.Duration;
 /**
  * Redis 캐시 설정
  * - Phase 3: 성능 최적화 (응답 속도 개선 및 API 비용 절감)
- * - TTL: 1시간 (감정 데이터는 변하므로 너무 길면 안 됨)
+ * - 기본 TTL: 1시간 (감정 데이터는 변하므로 너무 길면 안 됨)
+ * - graphRag: 그래프 버전이 키에 포함되어 새 일기 저장 시 즉시 무효화되므로 긴 TTL (cache.graph-rag.ttl-hours)
  */
 @Configuration
 @EnableCaching
@@ -31,10 +35,11 @@ public class RedisConfig {
      * Redis 캐시 매니저 설정
      * - Key: String (userId:questionHash)
      * - Value: JSON (GraphRagService 응답)
-     * - TTL: 1시간 (3600초)
+     * - TTL: 1시간 (3600초), graphRag만 cache.graph-rag.ttl-hours
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     @Value("${cache.graph-rag.ttl-hours:168}") long graphRagTtlHours) {
         // ObjectMapper 커스터마이징 (LocalDateTime 등 직렬화 지원)
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -55,6 +60,21 @@ public class RedisConfig {
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                .withCacheConfiguration("graphRag", config.entryTtl(Duration.ofHours(graphRagTtlHours)))
                 .build();
     }
+
+    /**
+     * 임베딩 L2 캐시용 RedisTemplate (EmbeddingGateway)
+     * - Key: String ("emb:{model}:{sha256}")
+     * - Value: float32 바이트 배열 (JSON 대비 약 1/3 크기, 파싱 비용 없음)
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> embeddingRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
 }
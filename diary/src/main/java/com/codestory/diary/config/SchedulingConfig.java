@@ -0,0 +1,20 @@
+package com.codestory.diary.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 주기 작업 설정
+ *
+ * [작업 목록]
+ * - PineconeWriteBuffer: 버퍼링된 벡터 주기적 flush
+ * - MemoryCompactionService: 기억 압축 (memory.compaction.cron)
+ * - CauseStatService: Kingpin 빈도 집계 재계산 (graph.kingpin.reconcile-cron)
+ *
+ * 스케줄러 스레드는 하나뿐이므로 오래 걸리는 일괄 작업은 maintenanceExecutor로 넘기고 바로 반환
+ * (스케줄러 스레드에서 직접 돌리면 그동안 PineconeWriteBuffer flush가 멈춤)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,6 +2,7 @@ package com.codestory.diary.config;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -33,6 +34,12 @@ public class SecurityConfig {
     private final CustomOAuth2UserService customOAuth2UserService;
     private final OAuth2SuccessHandler oAuth2SuccessHandler;
 
+    /**
+     * Actuator 관리 포트 (미설정 시 -1 → 관리 포트 요청 없음)
+     */
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -45,7 +52,10 @@ public class SecurityConfig {
                 .requestMatchers("/*.js", "/*.css", "/*.html", "/*.json", "/*.txt").permitAll()
                 // API 엔드포인트 허용
                 .requestMatchers("/api/**").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                // Actuator: 공개 포트에는 상태 확인만, 지표/임베딩 백필 관리는 관리 포트에서만
+                .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                .requestMatchers(request -> request.getLocalPort() == managementPort).permitAll()
+                .requestMatchers("/actuator/**").denyAll()
                 .requestMatchers("/images/**").permitAll() // 업로드된 이미지 경로
                 // OAuth2 경로 허용
                 .requestMatchers("/login/oauth2/**", "/oauth2/**").permitAll()
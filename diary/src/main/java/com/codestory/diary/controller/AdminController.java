@@ -0,0 +1,77 @@
+package com.codestory.diary.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codestory.diary.service.EmbeddingService;
+import com.codestory.diary.service.MemoryCompactionService;
+import com.codestory.diary.service.PineconeNamespaceMigrationService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 운영용 관리 API (데이터 이전 등 1회성 작업)
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final PineconeNamespaceMigrationService namespaceMigrationService;
+    private final MemoryCompactionService memoryCompactionService;
+    private final EmbeddingService embeddingService;
+
+    /**
+     * Pinecone 기본 네임스페이스 → 사용자별 네임스페이스 이전
+     * - userId 지정: 해당 사용자만 즉시 이전
+     * - 미지정: 전체 사용자 백그라운드 이전 (진행 상황은 GET으로 조회)
+     */
+    @PostMapping("/pinecone/migrate-namespaces")
+    public ResponseEntity<?> migrateNamespaces(@RequestParam(required = false) Long userId) {
+        if (userId != null) {
+            int migrated = namespaceMigrationService.migrateUser(userId);
+            return ResponseEntity.ok(Map.of("userId", userId, "migratedVectors", migrated));
+        }
+
+        if (!namespaceMigrationService.startMigrateAll()) {
+            return ResponseEntity.status(409).body(Map.of("message", "이미 이전 작업이 실행 중입니다."));
+        }
+        namespaceMigrationService.migrateAllAsync();
+        return ResponseEntity.accepted().body(namespaceMigrationService.getStatus());
+    }
+
+    @GetMapping("/pinecone/migrate-namespaces")
+    public ResponseEntity<Map<String, Object>> namespaceMigrationStatus() {
+        return ResponseEntity.ok(namespaceMigrationService.getStatus());
+    }
+
+    /**
+     * 기억 압축 (유사 기억 요약 병합 + 오래된 AI 응답 삭제)
+     * - userId 지정: 해당 사용자만 즉시 실행 후 결과 반환
+     * - 미지정: 전체 사용자 백그라운드 실행
+     */
+    @PostMapping("/memory/compact")
+    public ResponseEntity<?> compactMemories(@RequestParam(required = false) Long userId) {
+        if (userId != null) {
+            return ResponseEntity.ok(memoryCompactionService.compactUser(String.valueOf(userId)));
+        }
+        memoryCompactionService.compactAllAsync();
+        return ResponseEntity.accepted().body(Map.of("message", "기억 압축 작업을 시작했습니다."));
+    }
+
+    /**
+     * 그래프 노드 임베딩 백필 (현재 ai.embedding.provider 속성이 없는 노드만)
+     * - 제공자 전환 시 새 속성(embedding / embedding_local)만 채우고 기존 인덱스는 그대로 유지
+     */
+    @PostMapping("/migrate-embeddings")
+    public ResponseEntity<?> migrateEmbeddings(@RequestParam Long userId) {
+        embeddingService.migrateExistingDataToVectors(userId);
+        return ResponseEntity.ok(Map.of("userId", userId, "message", "임베딩 백필을 완료했습니다."));
+    }
+}
@@ -1,5 +1,7 @@
 package com.codestory.diary.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -15,15 +17,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.codestory.diary.dto.AuthRequest;
+import com.codestory.diary.dto.ChatHistoryPageDto;
 import com.codestory.diary.dto.ChatRequestDto;
 import com.codestory.diary.dto.ChatResponseDto;
 import com.codestory.diary.dto.CommentDto;
 import com.codestory.diary.dto.DiaryDto;
 import com.codestory.diary.dto.DiaryRequestDto;
 import com.codestory.diary.dto.FeedbackRequest;
-import com.codestory.diary.entity.ChatMessage;
 import com.codestory.diary.entity.Diary;
 import com.codestory.diary.entity.Feedback;
 import com.codestory.diary.entity.Member;
@@ -37,6 +41,7 @@ import com.codestory.diary.service.ChatService;
 import com.codestory.diary.service.DiaryService;
 import com.codestory.diary.service.FeedbackService;
 import com.codestory.diary.service.PetService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -56,6 +61,11 @@ public class ApiController {
     private final LikesRepository likesRepository;
     private final CommentRepository commentRepository;
 
+    private final ObjectMapper objectMapper;
+
+    private static final long CHAT_STREAM_TIMEOUT_MS = 60_000L; // 스트리밍 응답 최대 대기 시간
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 30;    // 히스토리 기본 페이지 크기
+
     // --- 인증 API ---
     @PostMapping("/auth/signup")
     public ResponseEntity<?> signup(@RequestBody AuthRequest request) {
@@ -179,22 +189,75 @@ public class ApiController {
     }
 
     /**
-     * 특정 사용자의 전체 채팅 히스토리 조회
-     * GET /api/chat/history?userId={id}
+     * ✨ 토큰 스트리밍 채팅 (Server-Sent Events)
+     * POST /api/chat/stream
+     * - token 이벤트로 생성 중인 답변을 즉시 전달하고, done 이벤트로 최종 응답/감정을 전달
+     * - done.response가 최종 텍스트 (클라이언트는 token으로 그린 텍스트를 교체)
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> chatStream(@RequestBody ChatRequestDto request) {
+        if (request.getUserId() == null || request.getMessage() == null || request.getMessage().trim().isEmpty()) {
+            return ResponseEntity.badRequest().build(); // userId와 message는 필수
+        }
+
+        SseEmitter emitter = new SseEmitter(CHAT_STREAM_TIMEOUT_MS);
+        chatService.chatStream(request.getUserId(), request.getMessage(), emitter);
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * 특정 사용자의 채팅 히스토리 조회
+     * GET /api/chat/history?userId={id}                          → 가장 최근 페이지만 (기존 형식: 배열, 전체 조회 없음)
+     * GET /api/chat/history?userId={id}&limit=30                 → 가장 최근 페이지 (커서 기반)
+     * GET /api/chat/history?userId={id}&limit=30&before={cursor} → 커서 이전(더 오래된) 페이지
      */
     @GetMapping("/chat/history")
-    public ResponseEntity<?> getChatHistory(@RequestParam Long userId) {
-        List<ChatMessage> messages = chatService.getChatHistory(userId);
+    public ResponseEntity<?> getChatHistory(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (before == null && limit == null) {
+            // 파라미터 없는 기존 호출: 첫 Keyset 페이지를 배열 형식 그대로 반환 (더 오래된 기록은 limit/before로 조회)
+            return ResponseEntity.ok(chatService.getChatHistoryPage(userId, null, DEFAULT_HISTORY_PAGE_SIZE).getMessages());
+        }
 
-        List<ChatResponseDto> dtos = messages.stream()
-                .map(msg -> ChatResponseDto.builder()
-                        .role(msg.getRole())
-                        .content(msg.getContent())
-                        .timestamp(msg.getCreatedAt())
-                        .build())
-                .collect(Collectors.toList());
+        try {
+            ChatHistoryPageDto page = chatService.getChatHistoryPage(
+                    userId, before, limit != null ? limit : DEFAULT_HISTORY_PAGE_SIZE);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
-        return ResponseEntity.ok(dtos);
+    /**
+     * ✨ 채팅 히스토리 전체 내보내기 (NDJSON 스트리밍, 상수 메모리)
+     * GET /api/chat/history/export?userId={id}
+     * - 한 줄에 메시지 하나 (application/x-ndjson), 시간순
+     */
+    @GetMapping(value = "/chat/history/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportChatHistory(@RequestParam Long userId) {
+        StreamingResponseBody body = outputStream -> {
+            chatService.exportChatHistory(userId, dto -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(dto));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, () -> {
+                try {
+                    outputStream.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     // --- Pet (다마고치) API ---
@@ -19,7 +19,7 @@ import org.springframework.web.multipart.MultipartFile;
 import com.codestory.diary.dto.DiaryDto;
 import com.codestory.diary.dto.DiaryRequestDto;
 import com.codestory.diary.neo4j.CounselingService;
-import com.codestory.diary.neo4j.GraphService;
+import com.codestory.diary.neo4j.GraphIngestionQueue;
 import com.codestory.diary.service.DiaryService;
 
 import lombok.RequiredArgsConstructor;
@@ -64,7 +64,7 @@ public class DiaryController {
         return diaryService.getPublicFeed();
     }
     @Autowired
-    private GraphService graphService;
+    private GraphIngestionQueue graphIngestionQueue;
 
     @Autowired
     private CounselingService counselingService;
@@ -74,7 +74,8 @@ public class DiaryController {
     public String saveDiary(@RequestBody Map<String, Object> request) {
         Long userId = Long.valueOf(request.get("userId").toString());
         String content = request.get("content").toString();
-        graphService.saveDiaryToGraphAsync(userId, content);
+        // 대기열이 가득 차면 이 요청에서 바로 저장 (일기 유실 방지)
+        graphIngestionQueue.submitOrIngest(userId, content);
         return "일기가 마음의 지도에 저장되었습니다.";
     }
 
@@ -9,7 +9,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.codestory.diary.service.GraphRagService;
-import com.codestory.diary.neo4j.GraphService;
+import com.codestory.diary.neo4j.GraphIngestionQueue;
 
 @RestController
 @RequestMapping("/api")
@@ -19,14 +19,14 @@ public class GraphRagController {
     private GraphRagService graphRagService;
 
     @Autowired
-    private GraphService graphService;
+    private GraphIngestionQueue graphIngestionQueue;
 
     // 테스트 URL 1: 데이터 저장
     // POST /api/test/save?userId=7&content=어제 치킨을 먹었어
     @PostMapping(value = "/test/save", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<String> saveTestData(@RequestParam Long userId, @RequestParam String content) {
         try {
-            graphService.saveDiaryToGraphAsync(userId, content);
+            graphIngestionQueue.submitOrIngest(userId, content);
             String jsonResponse = """
                 {
                     "status": "success",
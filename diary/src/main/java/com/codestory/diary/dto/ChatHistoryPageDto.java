@@ -0,0 +1,23 @@
+package com.codestory.diary.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 채팅 히스토리 페이지 (커서 기반)
+ * - messages: 시간순 (페이지 안에서 오래된 메시지 → 최신 메시지)
+ * - nextCursor: 더 오래된 메시지를 불러올 때 before 파라미터로 전달 (없으면 null)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryPageDto {
+    private List<ChatResponseDto> messages;
+    private String nextCursor;
+    private boolean hasMore;
+}
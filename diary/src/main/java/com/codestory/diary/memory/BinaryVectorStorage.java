@@ -0,0 +1,67 @@
+package com.codestory.diary.memory;
+
+import java.util.Arrays;
+
+/**
+ * 1-bit 이진 양자화 저장 (차원별 부호 비트, long 단위로 묶음)
+ *
+ * - 노드 간: 1 - 2 * hamming / dim (부호가 같은 비율 기반 코사인 근사)
+ * - 쿼리-노드: float32 쿼리와 ±1 코드의 내적 / sqrt(dim)
+ * 근사 정확도가 낮으므로 후보를 넉넉히 뽑아 원본으로 재정렬하는 용도
+ */
+final class BinaryVectorStorage implements VectorStorage {
+
+    private final int dimension;
+    private final int words;
+    private final float inverseSqrtDimension;
+    private long[] bits;
+    private int size;
+
+    BinaryVectorStorage(int dimension) {
+        this.dimension = dimension;
+        this.words = (dimension + Long.SIZE - 1) / Long.SIZE;
+        this.inverseSqrtDimension = (float) (1.0 / Math.sqrt(dimension));
+        this.bits = new long[words * 16];
+    }
+
+    @Override
+    public void add(float[] normalized) {
+        if ((size + 1) * words > bits.length) {
+            bits = Arrays.copyOf(bits, Math.max((size + 1) * words, bits.length + (bits.length >> 1)));
+        }
+        int offset = size * words;
+        for (int i = 0; i < dimension; i++) {
+            if (normalized[i] > 0f) {
+                bits[offset + i / Long.SIZE] |= 1L << (i % Long.SIZE);
+            }
+        }
+        size++;
+    }
+
+    @Override
+    public float similarity(float[] query, int node) {
+        int offset = node * words;
+        float sum = 0f;
+        for (int i = 0; i < dimension; i++) {
+            boolean positive = (bits[offset + i / Long.SIZE] & (1L << (i % Long.SIZE))) != 0;
+            sum += positive ? query[i] : -query[i];
+        }
+        return sum * inverseSqrtDimension;
+    }
+
+    @Override
+    public float similarity(int a, int b) {
+        int offsetA = a * words;
+        int offsetB = b * words;
+        int hamming = 0;
+        for (int w = 0; w < words; w++) {
+            hamming += Long.bitCount(bits[offsetA + w] ^ bits[offsetB + w]);
+        }
+        return 1f - 2f * hamming / dimension;
+    }
+
+    @Override
+    public long bytesUsed() {
+        return (long) size * words * Long.BYTES;
+    }
+}
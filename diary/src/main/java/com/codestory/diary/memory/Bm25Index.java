@@ -0,0 +1,124 @@
+package com.codestory.diary.memory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BM25 역색인 (사용자 1명 분량, 쓰레드 안전하지 않음 → 호출자가 동기화)
+ *
+ * [토큰화] 한글/한자 등 공백으로 나뉜 어절 → 문자 bigram ("팀장님께" → 팀장, 장님, 님께)
+ *          조사가 붙어도 "팀장님" 질의와 토큰이 겹침 / 영문·숫자 → 소문자 단어 그대로
+ * [점수]   BM25 (k1=1.2, b=0.75), 문서 추가/삭제 시 통계를 바로 갱신 → 재색인 없이 증분 유지
+ */
+public class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Document> documents = new HashMap<>();
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>(); // term → (문서 id → 빈도)
+    private long totalLength;
+
+    private record Document(String text, Map<String, Integer> termFrequencies, int length) {
+    }
+
+    /**
+     * 문서 추가 (같은 id는 교체)
+     */
+    public void add(String id, String text) {
+        remove(id);
+        List<String> tokens = tokenize(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(id, entry.getValue());
+        }
+        documents.put(id, new Document(text, frequencies, tokens.size()));
+        totalLength += tokens.size();
+    }
+
+    public void remove(String id) {
+        Document removed = documents.remove(id);
+        if (removed == null) {
+            return;
+        }
+        for (String term : removed.termFrequencies().keySet()) {
+            Map<String, Integer> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= removed.length();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * BM25 점수 상위 topK개 (점수 내림차순, 겹치는 토큰이 없는 문서는 제외)
+     */
+    public List<MemoryMatch> search(String query, int topK) {
+        if (documents.isEmpty() || topK <= 0) {
+            return List.of();
+        }
+        double averageLength = Math.max(1.0, (double) totalLength / documents.size());
+        Map<String, Double> scores = new HashMap<>();
+        for (String term : new HashSet<>(tokenize(query))) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documents.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+            for (Map.Entry<String, Integer> entry : posting.entrySet()) {
+                int tf = entry.getValue();
+                int length = documents.get(entry.getKey()).length();
+                double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                scores.merge(entry.getKey(), score, Double::sum);
+            }
+        }
+
+        List<MemoryMatch> matches = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> matches.add(new MemoryMatch(id, documents.get(id).text(), score)));
+        matches.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return matches.size() > topK ? new ArrayList<>(matches.subList(0, topK)) : matches;
+    }
+
+    /**
+     * 어절 단위로 나눈 뒤 한글 등 비라틴 문자열은 문자 bigram, 영문/숫자는 단어 그대로
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (!word.isEmpty()) {
+                addWordTokens(word.toString(), tokens);
+                word.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addWordTokens(String word, List<String> tokens) {
+        boolean latin = word.chars().allMatch(c -> c < 128);
+        if (latin || word.length() == 1) {
+            tokens.add(word);
+            return;
+        }
+        for (int i = 0; i + 1 < word.length(); i++) {
+            tokens.add(word.substring(i, i + 2));
+        }
+    }
+}
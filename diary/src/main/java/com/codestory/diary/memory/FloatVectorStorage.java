@@ -0,0 +1,53 @@
+package com.codestory.diary.memory;
+
+import java.util.Arrays;
+
+/**
+ * float32 원본 저장 (하나의 float[] 세그먼트, 노드 i → [i*dim, (i+1)*dim))
+ */
+final class FloatVectorStorage implements VectorStorage {
+
+    private final int dimension;
+    private float[] vectors;
+    private int size;
+
+    FloatVectorStorage(int dimension) {
+        this.dimension = dimension;
+        this.vectors = new float[dimension * 16];
+    }
+
+    @Override
+    public void add(float[] normalized) {
+        if ((size + 1) * dimension > vectors.length) {
+            vectors = Arrays.copyOf(vectors, Math.max((size + 1) * dimension, vectors.length + (vectors.length >> 1)));
+        }
+        System.arraycopy(normalized, 0, vectors, size * dimension, dimension);
+        size++;
+    }
+
+    @Override
+    public float similarity(float[] query, int node) {
+        int offset = node * dimension;
+        float sum = 0f;
+        for (int i = 0; i < dimension; i++) {
+            sum += query[i] * vectors[offset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public float similarity(int a, int b) {
+        int offsetA = a * dimension;
+        int offsetB = b * dimension;
+        float sum = 0f;
+        for (int i = 0; i < dimension; i++) {
+            sum += vectors[offsetA + i] * vectors[offsetB + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public long bytesUsed() {
+        return (long) size * dimension * Float.BYTES;
+    }
+}
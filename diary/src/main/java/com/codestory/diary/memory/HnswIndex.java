@@ -0,0 +1,244 @@
+package com.codestory.diary.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * HNSW (Hierarchical Navigable Small World) 근사 최근접 이웃 인덱스
+ *
+ * [저장 구조]
+ * - 벡터: VectorStorage (float32 세그먼트 또는 int8/binary 양자화 코드), 박싱 없음
+ * - 그래프: 노드 → 레벨 → [이웃 수, 이웃1, 이웃2, ...] int 배열
+ * - 모든 벡터는 L2 정규화 후 저장 → 유사도 = 내적 = 코사인 유사도 (양자화 시 근사치)
+ *
+ * [파라미터]
+ * - m: 레벨당 최대 이웃 수 (레벨 0은 2m)
+ * - efConstruction: 삽입 시 탐색 후보 수 (클수록 정확, 느림)
+ *
+ * 스레드 안전하지 않음 → 호출부(HnswMemoryStore)에서 동기화
+ */
+final class HnswIndex {
+
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+
+    private final VectorStorage storage;
+    private int[][][] links;
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswIndex(int dimension, int m, int efConstruction, long seed) {
+        this(dimension, m, efConstruction, seed, new FloatVectorStorage(dimension));
+    }
+
+    HnswIndex(int dimension, int m, int efConstruction, long seed, VectorStorage storage) {
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new Random(seed);
+        this.storage = storage;
+        this.links = new int[16][][];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    /**
+     * 벡터 추가
+     * @return 노드 번호 (추가 순서대로 0, 1, 2, ...)
+     */
+    int add(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but was " + vector.length);
+        }
+        float[] normalized = Vectors.normalize(vector);
+
+        int node = size;
+        ensureCapacity(node + 1);
+        storage.add(normalized);
+
+        int level = randomLevel();
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[maxConnections(l) + 1];
+        }
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        // 1. 상위 레벨: 탐욕 탐색으로 진입점만 좁힘
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            ep = greedyClosest(normalized, ep, l);
+        }
+
+        // 2. 노드 레벨 이하: 후보 탐색 후 가장 가까운 m개와 양방향 연결
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Scored> candidates = searchLayer(normalized, ep, efConstruction, l);
+            int connected = 0;
+            for (Scored candidate : candidates) {
+                if (connected >= m) {
+                    break;
+                }
+                addLink(node, l, candidate.node());
+                addLink(candidate.node(), l, node);
+                connected++;
+            }
+            ep = candidates.get(0).node();
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    /**
+     * 쿼리 벡터와 가장 유사한 k개 노드 (유사도 내림차순)
+     */
+    List<Scored> search(float[] query, int k, int ef) {
+        if (size == 0) {
+            return List.of();
+        }
+        float[] normalized = Vectors.normalize(query);
+
+        int ep = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            ep = greedyClosest(normalized, ep, l);
+        }
+
+        List<Scored> results = searchLayer(normalized, ep, Math.max(ef, k), 0);
+        return results.size() > k ? results.subList(0, k) : results;
+    }
+
+    long vectorBytes() {
+        return storage.bytesUsed();
+    }
+
+    private int greedyClosest(float[] query, int ep, int level) {
+        int current = ep;
+        float best = similarity(query, current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] neighbors = links[current][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                float score = similarity(query, neighbors[i]);
+                if (score > best) {
+                    best = score;
+                    current = neighbors[i];
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private List<Scored> searchLayer(float[] query, int ep, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(Comparator.comparingDouble(Scored::score).reversed());
+        PriorityQueue<Scored> results = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+
+        Scored start = new Scored(ep, similarity(query, ep));
+        visited.set(ep);
+        candidates.add(start);
+        results.add(start);
+
+        while (!candidates.isEmpty()) {
+            Scored current = candidates.poll();
+            if (results.size() >= ef && current.score() < results.peek().score()) {
+                break;
+            }
+
+            int[] neighbors = links[current.node()][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                int neighbor = neighbors[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+
+                float score = similarity(query, neighbor);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Scored scored = new Scored(neighbor, score);
+                    candidates.add(scored);
+                    results.add(scored);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Scored> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return sorted;
+    }
+
+    /**
+     * 이웃 추가 (가득 찬 경우 기존 이웃 + 새 이웃 중 가장 가까운 것만 유지)
+     */
+    private void addLink(int node, int level, int neighbor) {
+        int[] neighbors = links[node][level];
+        int max = maxConnections(level);
+        if (neighbors[0] < max) {
+            neighbors[++neighbors[0]] = neighbor;
+            return;
+        }
+
+        Scored[] pool = new Scored[max + 1];
+        for (int i = 1; i <= max; i++) {
+            pool[i - 1] = new Scored(neighbors[i], storage.similarity(node, neighbors[i]));
+        }
+        pool[max] = new Scored(neighbor, storage.similarity(node, neighbor));
+        Arrays.sort(pool, Comparator.comparingDouble(Scored::score).reversed());
+        for (int i = 0; i < max; i++) {
+            neighbors[i + 1] = pool[i].node();
+        }
+    }
+
+    private float similarity(float[] query, int node) {
+        return storage.similarity(query, node);
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? maxM0 : m;
+    }
+
+    private int randomLevel() {
+        return (int) Math.floor(-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= links.length) {
+            return;
+        }
+        int capacity = Math.max(required, links.length + (links.length >> 1));
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    record Scored(int node, float score) {
+    }
+}
@@ -0,0 +1,411 @@
+package com.codestory.diary.memory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 프로세스 내 HNSW 기반 기억 저장소 (외부 벡터 DB 불필요)
+ *
+ * [구조]
+ * - 사용자별 HnswIndex (userId 필터 = 인덱스 분리, 검색 범위가 본인 기억으로 한정)
+ * - 첫 접근 시 로컬 파일에서 로드 후 그래프 재구성
+ * - 최근 사용한 memory.store.hnsw.max-loaded-users명 분량만 메모리에 유지 (LRU, 제거된 사용자는 다음 접근 때 파일에서 다시 로드)
+ * - 같은 사용자의 로드/사용은 userId별 잠금으로 직렬화 → 제거 직후 다시 로드해도 같은 파일을 동시에 다루지 않음
+ *
+ * [파일 포맷] memory.store.hnsw.directory/ (ai.embedding.provider=local 이면 하위 local/ - 차원이 다른 벡터와 섞이지 않도록 분리)
+ * - {userId}.f32:  float32 little-endian 벡터를 순서대로 이어붙인 파일 (노드 i → i * dim * 4 바이트 위치)
+ * - {userId}.meta: 노드별 (id, 원문, timestamp, dim) 레코드
+ * 두 파일 중 짧은 쪽 기준으로 로드 → 쓰기 도중 종료되어도 마지막 불완전 레코드만 버림
+ * 압축(replace) 시에는 임시 파일 작성 → {userId}.swap 표시 → 교체 순서로 진행,
+ * 교체 도중 종료되면 다음 로드 시 .swap을 보고 교체를 마저 수행
+ *
+ * [양자화] memory.store.hnsw.quantization = none | int8 | binary
+ * - 메모리에는 양자화 코드만 유지 (int8: 4배, binary: 32배 절감) → 모든 사용자 기억을 상주시킬 수 있음
+ * - 검색: 양자화 코드로 topK * rerank-factor개 후보 추출
+ *        → {userId}.f32 (mmap)의 float32 원본으로 정확한 코사인 재정렬 → topK
+ * - 원본은 MappedVectorFile로 구간 단위 매핑 → append마다 파일 전체를 다시 매핑하지 않음
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "memory.store.type", havingValue = "hnsw")
+public class HnswMemoryStore implements MemoryStore {
+
+    private static final long RANDOM_SEED = 42L;
+    private static final String QUANTIZATION_NONE = "none";
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path directory;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final String quantization;
+    private final int rerankFactor;
+    private final Map<String, UserIndex> indexes;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public HnswMemoryStore(
+            @Value("${memory.store.hnsw.directory:./data/memory-index}") String directory,
+            @Value("${memory.store.hnsw.m:16}") int m,
+            @Value("${memory.store.hnsw.ef-construction:100}") int efConstruction,
+            @Value("${memory.store.hnsw.ef-search:64}") int efSearch,
+            @Value("${memory.store.hnsw.quantization:none}") String quantization,
+            @Value("${memory.store.hnsw.rerank-factor:4}") int rerankFactor,
+            @Value("${memory.store.hnsw.max-loaded-users:1000}") int maxLoadedUsers,
+            @Value("${ai.embedding.provider:openai}") String embeddingProvider) throws IOException {
+        Path base = Path.of(directory);
+        this.directory = Files.createDirectories("local".equals(embeddingProvider) ? base.resolve("local") : base);
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.quantization = quantization;
+        this.rerankFactor = rerankFactor;
+        this.indexes = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserIndex> eldest) {
+                return size() > maxLoadedUsers;
+            }
+        };
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        VectorStorage.create(quantization, 1); // 잘못된 설정값은 부팅 시점에 실패
+        log.info("🧭 [HnswMemoryStore] 로컬 벡터 인덱스 사용: {} (quantization={})",
+                this.directory.toAbsolutePath(), quantization);
+    }
+
+    @Override
+    public void save(MemoryRecord record) {
+        withIndex(record.userId(), userIndex -> {
+            userIndex.append(record);
+            return null;
+        });
+    }
+
+    @Override
+    public List<MemoryMatch> search(String userId, float[] queryVector, int topK) {
+        return withIndex(userId, userIndex -> userIndex.search(queryVector, topK));
+    }
+
+    @Override
+    public List<MemoryRecord> listAll(String userId) {
+        return withIndex(userId, userIndex -> userIndex.listAll(userId));
+    }
+
+    @Override
+    public void replace(String userId, List<MemoryRecord> additions, List<String> deletions) {
+        withIndex(userId, userIndex -> {
+            try {
+                userIndex.replace(userId, additions, deletions);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to rewrite memory index for user " + userId, e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 사용자 인덱스를 찾거나 로드한 뒤 작업 수행 (userId별 잠금 안에서)
+     * - LRU에서 제거된 인덱스로 진행 중인 작업이 끝나기 전에는 같은 사용자를 다시 로드하지 않음
+     */
+    private <T> T withIndex(String userId, Function<UserIndex, T> operation) {
+        synchronized (locks[Math.floorMod(userId.hashCode(), LOCK_STRIPES)]) {
+            UserIndex userIndex;
+            synchronized (indexes) {
+                userIndex = indexes.get(userId);
+            }
+            if (userIndex == null) {
+                userIndex = load(userId);
+                synchronized (indexes) {
+                    indexes.put(userId, userIndex);
+                }
+            }
+            return operation.apply(userIndex);
+        }
+    }
+
+    private UserIndex load(String userId) {
+        String fileName = userId.replaceAll("[^0-9A-Za-z_-]", "_");
+        UserIndex userIndex = new UserIndex(directory.resolve(fileName + ".f32"), directory.resolve(fileName + ".meta"),
+                directory.resolve(fileName + ".swap"));
+        try {
+            userIndex.loadFromDisk();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load memory index for user " + userId, e);
+        }
+        if (userIndex.size() > 0) {
+            log.info("📂 [HnswMemoryStore] userId={} 기억 {}건 로드 (벡터 메모리 {} bytes)",
+                    userId, userIndex.size(), userIndex.vectorBytes());
+        }
+        return userIndex;
+    }
+
+    /**
+     * 사용자 1명의 인덱스 + 원문 + 파일
+     */
+    private final class UserIndex {
+
+        private final Path vectorFile;
+        private final Path metaFile;
+        private final Path swapMarker;
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private final List<Long> timestamps = new ArrayList<>();
+        private HnswIndex index;
+        private MappedVectorFile fullPrecision; // {userId}.f32 구간 매핑 (재정렬용 원본, quantization=none이면 null)
+
+        UserIndex(Path vectorFile, Path metaFile, Path swapMarker) {
+            this.vectorFile = vectorFile;
+            this.metaFile = metaFile;
+            this.swapMarker = swapMarker;
+        }
+
+        synchronized int size() {
+            return ids.size();
+        }
+
+        synchronized long vectorBytes() {
+            return index == null ? 0 : index.vectorBytes();
+        }
+
+        synchronized void append(MemoryRecord record) {
+            float[] vector = record.vector();
+            if (index == null) {
+                index = newIndex(vector.length);
+            }
+
+            try {
+                writeVector(vectorFile, vector);
+                writeMeta(metaFile, record.id(), record.text(), record.timestamp(), vector.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to persist memory " + record.id(), e);
+            }
+
+            ids.add(record.id());
+            texts.add(record.text());
+            timestamps.add(record.timestamp());
+            index.add(vector);
+            if (fullPrecision != null) {
+                fullPrecision.appended(vector);
+            } else if (!QUANTIZATION_NONE.equals(quantization)) {
+                fullPrecision = MappedVectorFile.open(vectorFile, vector.length, ids.size());
+            }
+        }
+
+        synchronized List<MemoryMatch> search(float[] queryVector, int topK) {
+            if (index == null) {
+                return List.of();
+            }
+            if (QUANTIZATION_NONE.equals(quantization)) {
+                List<MemoryMatch> matches = new ArrayList<>(topK);
+                for (HnswIndex.Scored scored : index.search(queryVector, topK, efSearch)) {
+                    matches.add(new MemoryMatch(ids.get(scored.node()), texts.get(scored.node()), scored.score()));
+                }
+                return matches;
+            }
+
+            // 1. 양자화 코드로 후보 추출
+            int candidateCount = topK * rerankFactor;
+            List<HnswIndex.Scored> candidates = index.search(queryVector, candidateCount, Math.max(efSearch, candidateCount));
+
+            // 2. float32 원본으로 정확한 코사인 유사도 재계산 후 재정렬
+            float[] normalizedQuery = Vectors.normalize(queryVector);
+            float[] vector = new float[index.dimension()];
+            List<MemoryMatch> reranked = new ArrayList<>(candidates.size());
+            for (HnswIndex.Scored candidate : candidates) {
+                fullPrecision.get(candidate.node(), vector);
+                double exact = Vectors.dot(normalizedQuery, Vectors.normalize(vector));
+                reranked.add(new MemoryMatch(ids.get(candidate.node()), texts.get(candidate.node()), exact));
+            }
+            reranked.sort(Comparator.comparingDouble(MemoryMatch::score).reversed());
+            return reranked.size() > topK ? reranked.subList(0, topK) : reranked;
+        }
+
+        synchronized List<MemoryRecord> listAll(String userId) {
+            if (index == null) {
+                return List.of();
+            }
+            MappedVectorFile vectors = fullPrecision != null
+                    ? fullPrecision
+                    : MappedVectorFile.open(vectorFile, index.dimension(), ids.size());
+            List<MemoryRecord> records = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                float[] vector = new float[index.dimension()];
+                vectors.get(i, vector);
+                records.add(new MemoryRecord(ids.get(i), userId, texts.get(i), timestamps.get(i), vector));
+            }
+            return records;
+        }
+
+        /**
+         * 남길 기억 + 추가 기억으로 파일을 새로 작성한 뒤 교체하고 인덱스 재구성
+         */
+        synchronized void replace(String userId, List<MemoryRecord> additions, List<String> deletions) throws IOException {
+            Set<String> deleted = new HashSet<>(deletions);
+            Map<String, MemoryRecord> next = new LinkedHashMap<>();
+            for (MemoryRecord record : listAll(userId)) {
+                if (!deleted.contains(record.id())) {
+                    next.put(record.id(), record);
+                }
+            }
+            additions.forEach(record -> next.put(record.id(), record));
+
+            Path vectorTemp = temp(vectorFile);
+            Path metaTemp = temp(metaFile);
+            Files.deleteIfExists(vectorTemp);
+            Files.deleteIfExists(metaTemp);
+            for (MemoryRecord record : next.values()) {
+                writeVector(vectorTemp, record.vector());
+                writeMeta(metaTemp, record.id(), record.text(), record.timestamp(), record.vector().length);
+            }
+            if (next.isEmpty()) {
+                Files.createFile(vectorTemp);
+                Files.createFile(metaTemp);
+            }
+
+            Files.createFile(swapMarker);
+            completeSwap();
+
+            ids.clear();
+            texts.clear();
+            timestamps.clear();
+            index = null;
+            fullPrecision = null;
+            loadFromDisk();
+        }
+
+        /**
+         * 임시 파일 → 본 파일 교체 (중단된 교체도 여기서 마저 수행)
+         */
+        private void completeSwap() throws IOException {
+            for (Path file : List.of(metaFile, vectorFile)) {
+                Path tempFile = temp(file);
+                if (Files.exists(tempFile)) {
+                    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            Files.deleteIfExists(swapMarker);
+        }
+
+        private Path temp(Path file) {
+            return file.resolveSibling(file.getFileName() + ".tmp");
+        }
+
+        void loadFromDisk() throws IOException {
+            if (Files.exists(swapMarker)) {
+                completeSwap();
+            }
+            if (!Files.exists(metaFile) || !Files.exists(vectorFile)) {
+                return;
+            }
+
+            byte[] metaBytes = Files.readAllBytes(metaFile);
+            List<Long> recordEnds = new ArrayList<>();
+            int dimension = -1;
+            ByteArrayInputStream metaStream = new ByteArrayInputStream(metaBytes);
+            try (DataInputStream in = new DataInputStream(metaStream)) {
+                while (true) {
+                    String id = in.readUTF();
+                    byte[] text = new byte[in.readInt()];
+                    in.readFully(text);
+                    long timestamp = in.readLong();
+                    dimension = in.readInt();
+                    ids.add(id);
+                    texts.add(new String(text, StandardCharsets.UTF_8));
+                    timestamps.add(timestamp);
+                    recordEnds.add((long) (metaBytes.length - metaStream.available()));
+                }
+            } catch (EOFException endOfFile) {
+                // 마지막 레코드까지 읽음 (불완전 레코드는 아래에서 잘라냄)
+            }
+            if (dimension <= 0) {
+                ids.clear();
+                texts.clear();
+                timestamps.clear();
+                return;
+            }
+
+            long vectorBytes = (long) dimension * Float.BYTES;
+            int count = (int) Math.min(ids.size(), Files.size(vectorFile) / vectorBytes);
+            ids.subList(count, ids.size()).clear();
+            texts.subList(count, texts.size()).clear();
+            timestamps.subList(count, timestamps.size()).clear();
+
+            // 두 파일을 같은 레코드 수로 맞춤 → 이후 append 시 노드 번호와 파일 위치가 어긋나지 않음
+            truncate(metaFile, count == 0 ? 0 : recordEnds.get(count - 1));
+            truncate(vectorFile, count * vectorBytes);
+
+            index = newIndex(dimension);
+            MappedVectorFile vectors = MappedVectorFile.open(vectorFile, dimension, count);
+            float[] vector = new float[dimension];
+            for (int i = 0; i < count; i++) {
+                vectors.get(i, vector);
+                index.add(vector);
+            }
+            // float32 인덱스는 원본을 이미 메모리에 보유 → 재정렬용 매핑 불필요
+            fullPrecision = QUANTIZATION_NONE.equals(quantization) ? null : vectors;
+        }
+
+        private void truncate(Path file, long size) throws IOException {
+            if (Files.size(file) == size) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(size);
+            }
+        }
+
+        private void writeVector(Path file, float[] vector) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asFloatBuffer().put(vector);
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+
+        private void writeMeta(Path file, String id, String text, long timestamp, int dimension) throws IOException {
+            byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND))) {
+                out.writeUTF(id);
+                out.writeInt(textBytes.length);
+                out.write(textBytes);
+                out.writeLong(timestamp);
+                out.writeInt(dimension);
+            }
+        }
+
+        private HnswIndex newIndex(int dimension) {
+            return new HnswIndex(dimension, m, efConstruction, RANDOM_SEED,
+                    VectorStorage.create(quantization, dimension));
+        }
+    }
+}
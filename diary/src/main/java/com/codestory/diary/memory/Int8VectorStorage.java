@@ -0,0 +1,71 @@
+package com.codestory.diary.memory;
+
+import java.util.Arrays;
+
+/**
+ * int8 스칼라 양자화 저장
+ *
+ * - 벡터별 대칭 스케일: scale = max|v_i| / 127, code_i = round(v_i / scale)
+ * - 쿼리는 float32 그대로 사용 (비대칭 거리) → 양자화 오차가 한쪽에만 생김
+ */
+final class Int8VectorStorage implements VectorStorage {
+
+    private final int dimension;
+    private byte[] codes;
+    private float[] scales;
+    private int size;
+
+    Int8VectorStorage(int dimension) {
+        this.dimension = dimension;
+        this.codes = new byte[dimension * 16];
+        this.scales = new float[16];
+    }
+
+    @Override
+    public void add(float[] normalized) {
+        if (size == scales.length) {
+            int capacity = scales.length + (scales.length >> 1);
+            scales = Arrays.copyOf(scales, capacity);
+            codes = Arrays.copyOf(codes, capacity * dimension);
+        }
+
+        float maxAbs = 0f;
+        for (float value : normalized) {
+            maxAbs = Math.max(maxAbs, Math.abs(value));
+        }
+        float scale = maxAbs == 0f ? 1f : maxAbs / 127f;
+
+        int offset = size * dimension;
+        for (int i = 0; i < dimension; i++) {
+            codes[offset + i] = (byte) Math.round(normalized[i] / scale);
+        }
+        scales[size] = scale;
+        size++;
+    }
+
+    @Override
+    public float similarity(float[] query, int node) {
+        int offset = node * dimension;
+        float sum = 0f;
+        for (int i = 0; i < dimension; i++) {
+            sum += query[i] * codes[offset + i];
+        }
+        return sum * scales[node];
+    }
+
+    @Override
+    public float similarity(int a, int b) {
+        int offsetA = a * dimension;
+        int offsetB = b * dimension;
+        int sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            sum += codes[offsetA + i] * codes[offsetB + i];
+        }
+        return sum * scales[a] * scales[b];
+    }
+
+    @Override
+    public long bytesUsed() {
+        return (long) size * (dimension + Float.BYTES);
+    }
+}
@@ -0,0 +1,225 @@
+package com.codestory.diary.memory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.codestory.diary.entity.Diary;
+import com.codestory.diary.repository.DiaryRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사용자별 기억 BM25 어휘 색인 (프로세스 내)
+ *
+ * - 벡터 검색이 놓치는 고유명사("팀장님", 가게 이름 등)를 정확 일치 토큰으로 보완
+ * - 색인 대상: 대화 기억(MemoryStore.listSearchable, 레거시 네임스페이스 포함) + 일기 본문("diary-{id}")
+ * - 색인 구성은 요청 경로 밖(lexicalIndexExecutor)에서 수행 → 구성이 끝나기 전 검색은 어휘 결과 없이 벡터 결과만 사용
+ * - 구성 중 들어온 add는 대기열에 모아 두었다가 구성 직후 반영
+ *   (저장소 목록에 아직 안 보이는 버퍼 속 기억도 유실되지 않음)
+ * - 최근 사용한 memory.lexical.max-users명 분량만 유지 (LRU, 초과 시 가장 오래 안 쓴 사용자 제거)
+ */
+@Slf4j
+@Component
+public class LexicalMemoryIndex {
+
+    public static final String DIARY_ID_PREFIX = "diary-";
+
+    private static final int RECENT_ADDS = 200; // 재구성 시 다시 반영할 최근 추가분 (저장 버퍼 flush 전 기억 보호)
+
+    private final MemoryStore memoryStore;
+    private final DiaryRepository diaryRepository;
+    private final Executor executor;
+    private final boolean enabled;
+    private final Map<String, UserIndex> indexes;
+
+    /**
+     * 사용자 1명 분량 색인 (구성이 끝나기 전 add는 pending에 보관)
+     */
+    private static final class UserIndex {
+        private final Bm25Index index = new Bm25Index();
+        private final List<Document> pending = new ArrayList<>();
+        private final Deque<Document> recent = new ArrayDeque<>();
+        private boolean ready;
+        private boolean building;
+
+        void add(Document document) {
+            if (ready) {
+                index.add(document.id(), document.text());
+            } else {
+                pending.add(document);
+            }
+            recent.addLast(document);
+            if (recent.size() > RECENT_ADDS) {
+                recent.removeFirst();
+            }
+        }
+    }
+
+    private record Document(String id, String text) {
+    }
+
+    public LexicalMemoryIndex(
+            MemoryStore memoryStore,
+            DiaryRepository diaryRepository,
+            @Qualifier("lexicalIndexExecutor") Executor executor,
+            @Value("${memory.lexical.enabled:true}") boolean enabled,
+            @Value("${memory.lexical.max-users:1000}") int maxUsers) {
+        this.memoryStore = memoryStore;
+        this.diaryRepository = diaryRepository;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.indexes = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserIndex> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 새 기억 증분 색인 (색인이 없는 사용자는 구성을 시작하고 대기열에 보관)
+     */
+    public void add(MemoryRecord record) {
+        add(record.userId(), new Document(record.id(), record.text()));
+    }
+
+    /**
+     * 새 일기 증분 색인
+     */
+    public void addDiary(Diary diary) {
+        if (diary.getId() == null || diary.getContent() == null) {
+            return;
+        }
+        add(String.valueOf(diary.getUserId()), new Document(DIARY_ID_PREFIX + diary.getId(), diary.getContent()));
+    }
+
+    /**
+     * BM25 점수 상위 topK개 (색인 구성 전이면 구성을 시작하고 빈 결과)
+     */
+    public List<MemoryMatch> search(String userId, String query, int topK) {
+        if (!enabled) {
+            return List.of();
+        }
+        UserIndex userIndex = indexFor(userId, null);
+        synchronized (userIndex) {
+            return userIndex.ready ? userIndex.index.search(query, topK) : List.of();
+        }
+    }
+
+    /**
+     * 저장소 일괄 변경 후 호출 → 즉시 백그라운드 재구성
+     * (재구성이 끝날 때까지 이전 색인 대신 빈 결과, 최근 추가분은 새 색인에 다시 반영)
+     */
+    public void invalidate(String userId) {
+        if (!enabled) {
+            return;
+        }
+        UserIndex previous;
+        synchronized (indexes) {
+            previous = indexes.remove(userId);
+        }
+        List<Document> carryOver = List.of();
+        if (previous != null) {
+            synchronized (previous) {
+                carryOver = new ArrayList<>(previous.recent);
+            }
+        }
+        indexFor(userId, carryOver);
+    }
+
+    private void add(String userId, Document document) {
+        if (!enabled) {
+            return;
+        }
+        UserIndex userIndex = indexFor(userId, null);
+        synchronized (userIndex) {
+            userIndex.add(document);
+        }
+    }
+
+    /**
+     * 사용자 색인 조회, 없으면 빈 색인을 등록하고 백그라운드 구성 예약
+     * (구성 실패/예약 거절로 아직 준비되지 않은 색인은 다음 호출 때 다시 예약, 대기열은 유지)
+     */
+    private UserIndex indexFor(String userId, List<Document> carryOver) {
+        UserIndex userIndex;
+        synchronized (indexes) {
+            userIndex = indexes.get(userId);
+            if (userIndex == null) {
+                userIndex = new UserIndex();
+                if (carryOver != null) {
+                    userIndex.pending.addAll(carryOver);
+                    userIndex.recent.addAll(carryOver);
+                }
+                indexes.put(userId, userIndex);
+            }
+        }
+
+        synchronized (userIndex) {
+            if (userIndex.ready || userIndex.building) {
+                return userIndex;
+            }
+            userIndex.building = true;
+        }
+        UserIndex target = userIndex;
+        try {
+            executor.execute(() -> build(userId, target));
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ [LexicalMemoryIndex] 사용자 {} 색인 구성 예약 실패 (다음 호출 때 재시도): {}", userId, e.getMessage());
+            synchronized (userIndex) {
+                userIndex.building = false;
+            }
+        }
+        return userIndex;
+    }
+
+    private void build(String userId, UserIndex userIndex) {
+        List<Document> documents = new ArrayList<>();
+        try {
+            for (MemoryRecord record : memoryStore.listSearchable(userId)) {
+                documents.add(new Document(record.id(), record.text()));
+            }
+            if (isNumeric(userId)) {
+                for (Diary diary : diaryRepository.findAllByUserIdOrderByDateDesc(Long.valueOf(userId))) {
+                    if (diary.getContent() != null) {
+                        documents.add(new Document(DIARY_ID_PREFIX + diary.getId(), diary.getContent()));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ [LexicalMemoryIndex] 사용자 {} 색인 구성 실패 (다음 호출 때 재시도): {}", userId, e.getMessage());
+            synchronized (userIndex) {
+                userIndex.building = false;
+            }
+            return;
+        }
+
+        synchronized (userIndex) {
+            documents.forEach(document -> userIndex.index.add(document.id(), document.text()));
+            // 구성 중 들어온 추가분은 저장소 목록보다 최신 → 나중에 반영
+            userIndex.pending.forEach(document -> userIndex.index.add(document.id(), document.text()));
+            userIndex.pending.clear();
+            userIndex.building = false;
+            userIndex.ready = true;
+        }
+        log.debug("🔤 [LexicalMemoryIndex] 사용자 {} 색인 구성: {}건", userId, userIndex.index.size());
+    }
+
+    private static boolean isNumeric(String userId) {
+        return !userId.isEmpty() && userId.chars().allMatch(Character::isDigit);
+    }
+}
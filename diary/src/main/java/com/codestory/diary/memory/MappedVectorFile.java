@@ -0,0 +1,103 @@
+package com.codestory.diary.memory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * float32 벡터 파일({userId}.f32) 읽기 전용 세그먼트 매핑 (쓰레드 안전하지 않음 → 호출자가 동기화)
+ *
+ * - SEGMENT_VECTORS개씩 꽉 찬 구간만 mmap, 한 번 매핑한 구간은 다시 매핑하지 않음
+ * - 아직 구간을 채우지 못한 마지막 벡터들은 힙에 보관 → append마다 파일 전체를 다시 매핑하지 않음
+ *   (힙 사용량 상한: SEGMENT_VECTORS × 차원 × 4 bytes)
+ */
+final class MappedVectorFile {
+
+    static final int SEGMENT_VECTORS = 128;
+
+    private final Path file;
+    private final int dimension;
+    private final List<FloatBuffer> segments = new ArrayList<>();
+    private final List<float[]> tail = new ArrayList<>(SEGMENT_VECTORS);
+
+    private MappedVectorFile(Path file, int dimension) {
+        this.file = file;
+        this.dimension = dimension;
+    }
+
+    /**
+     * 파일 앞쪽 count개 벡터 매핑 (꽉 찬 구간은 mmap, 나머지는 힙으로 읽음)
+     */
+    static MappedVectorFile open(Path file, int dimension, int count) {
+        MappedVectorFile mapped = new MappedVectorFile(file, dimension);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int fullSegments = count / SEGMENT_VECTORS;
+            for (int segment = 0; segment < fullSegments; segment++) {
+                mapped.segments.add(mapped.mapSegment(channel, segment));
+            }
+            for (int node = fullSegments * SEGMENT_VECTORS; node < count; node++) {
+                mapped.tail.add(mapped.readVector(channel, node));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map " + file, e);
+        }
+        return mapped;
+    }
+
+    int size() {
+        return segments.size() * SEGMENT_VECTORS + tail.size();
+    }
+
+    /**
+     * 파일 끝에 이미 기록된 벡터 반영 (구간이 꽉 차면 그 구간만 새로 매핑)
+     */
+    void appended(float[] vector) {
+        tail.add(vector.clone());
+        if (tail.size() < SEGMENT_VECTORS) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            segments.add(mapSegment(channel, segments.size()));
+            tail.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map " + file, e);
+        }
+    }
+
+    void get(int node, float[] destination) {
+        int segment = node / SEGMENT_VECTORS;
+        if (segment < segments.size()) {
+            segments.get(segment).get((node % SEGMENT_VECTORS) * dimension, destination);
+        } else {
+            System.arraycopy(tail.get(node - segments.size() * SEGMENT_VECTORS), 0, destination, 0, dimension);
+        }
+    }
+
+    private FloatBuffer mapSegment(FileChannel channel, int segment) throws IOException {
+        long segmentBytes = (long) SEGMENT_VECTORS * dimension * Float.BYTES;
+        return channel.map(FileChannel.MapMode.READ_ONLY, segment * segmentBytes, segmentBytes)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asFloatBuffer();
+    }
+
+    private float[] readVector(FileChannel channel, int node) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(dimension * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long position = (long) node * dimension * Float.BYTES;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + file);
+            }
+        }
+        buffer.flip();
+        float[] vector = new float[dimension];
+        buffer.asFloatBuffer().get(vector);
+        return vector;
+    }
+}
@@ -0,0 +1,11 @@
+package com.codestory.diary.memory;
+
+/**
+ * 기억 검색 결과 1건
+ *
+ * @param id    벡터 ID
+ * @param text  원문
+ * @param score 코사인 유사도
+ */
+public record MemoryMatch(String id, String text, double score) {
+}
@@ -0,0 +1,13 @@
+package com.codestory.diary.memory;
+
+/**
+ * 저장할 기억 1건 (벡터 + 원문)
+ *
+ * @param id        벡터 ID (userId_timestamp)
+ * @param userId    사용자 ID
+ * @param text      원문 (일기/대화 내용)
+ * @param timestamp 저장 시각 (epoch millis)
+ * @param vector    임베딩 벡터
+ */
+public record MemoryRecord(String id, String userId, String text, long timestamp, float[] vector) {
+}
@@ -0,0 +1,42 @@
+package com.codestory.diary.memory;
+
+import java.util.List;
+
+/**
+ * 기억(벡터) 저장소 추상화
+ *
+ * [구현체] memory.store.type 으로 선택
+ * - pinecone (기본): PineconeMemoryStore - 외부 벡터 DB
+ * - hnsw:            HnswMemoryStore     - 프로세스 내 HNSW 인덱스 + 로컬 파일 영속화
+ */
+public interface MemoryStore {
+
+    /**
+     * 기억 저장
+     */
+    void save(MemoryRecord record);
+
+    /**
+     * 사용자의 기억 중 쿼리 벡터와 가장 유사한 topK개 검색 (유사도 내림차순)
+     */
+    List<MemoryMatch> search(String userId, float[] queryVector, int topK);
+
+    /**
+     * 사용자의 기억 전체 조회 (벡터 포함, 압축 작업용)
+     */
+    List<MemoryRecord> listAll(String userId);
+
+    /**
+     * 검색 대상이 되는 사용자 기억 전체 (어휘 색인 구성용)
+     * 이전 중인 레거시 저장 위치까지 검색하는 구현체는 그 기억도 포함
+     */
+    default List<MemoryRecord> listSearchable(String userId) {
+        return listAll(userId);
+    }
+
+    /**
+     * 기억 교체: additions를 먼저 저장한 뒤 deletions 삭제 (압축 작업용)
+     * 버퍼를 거치지 않고 즉시 반영 → 삭제 시점에 요약 기억이 이미 저장되어 있음을 보장
+     */
+    void replace(String userId, List<MemoryRecord> additions, List<String> deletions);
+}
@@ -0,0 +1,214 @@
+package com.codestory.diary.memory;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.codestory.diary.client.PineconeApiClient;
+import com.codestory.diary.client.dto.PineconeFetchResponse;
+import com.codestory.diary.client.dto.PineconeListResponse;
+import com.codestory.diary.client.dto.PineconeQueryRequest;
+import com.codestory.diary.client.dto.PineconeQueryResponse;
+import com.codestory.diary.client.dto.PineconeVector;
+import com.codestory.diary.service.PineconeWriteBuffer;
+
+/**
+ * Pinecone 기반 기억 저장소 (기본값)
+ *
+ * - 저장: 사용자 네임스페이스(PineconeNamespaces)에 PineconeWriteBuffer를 통한 배치 upsert
+ * - 검색: 사용자 네임스페이스만 검색 → 지연 시간이 전체 테넌트가 아닌 본인 데이터 크기에 비례
+ * - pinecone.namespace.legacy-fallback=true: 이전 전 데이터(기본 네임스페이스 + userId 필터)도 함께 검색해 병합
+ *   두 쿼리는 동시에 실행 → 지연 시간은 느린 쪽 하나만큼 (PineconeNamespaceMigrationService 완료 후 false로 전환)
+ */
+@Component
+@ConditionalOnProperty(name = "memory.store.type", havingValue = "pinecone", matchIfMissing = true)
+public class PineconeMemoryStore implements MemoryStore {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final PineconeApiClient pineconeApiClient;
+    private final PineconeWriteBuffer pineconeWriteBuffer;
+    private final PineconeNamespaces namespaces;
+    private final ExecutorService queryExecutor;
+    private final boolean legacyFallback;
+
+    public PineconeMemoryStore(
+            PineconeApiClient pineconeApiClient,
+            PineconeWriteBuffer pineconeWriteBuffer,
+            PineconeNamespaces namespaces,
+            @Qualifier("chatContextExecutor") ExecutorService queryExecutor,
+            @Value("${pinecone.namespace.legacy-fallback:true}") boolean legacyFallback) {
+        this.pineconeApiClient = pineconeApiClient;
+        this.pineconeWriteBuffer = pineconeWriteBuffer;
+        this.namespaces = namespaces;
+        this.queryExecutor = queryExecutor;
+        this.legacyFallback = legacyFallback;
+    }
+
+    @Override
+    public void save(MemoryRecord record) {
+        pineconeWriteBuffer.enqueue(namespaces.forUser(record.userId()), toPineconeVector(record));
+    }
+
+    @Override
+    public List<MemoryMatch> search(String userId, float[] queryVector, int topK) {
+        String namespace = namespaces.forUser(userId);
+        String userIdFilter = namespaces.isShared() ? userId : null;
+        if (!legacyFallback) {
+            return query(namespace, userIdFilter, queryVector, topK);
+        }
+
+        // 이전 전 데이터 쿼리를 가상 스레드에서 동시에 실행
+        CompletableFuture<List<MemoryMatch>> legacyFuture = CompletableFuture.supplyAsync(
+                () -> query(PineconeNamespaces.LEGACY_NAMESPACE, userId, queryVector, topK), queryExecutor);
+        List<MemoryMatch> matches;
+        try {
+            matches = query(namespace, userIdFilter, queryVector, topK);
+        } catch (RuntimeException e) {
+            legacyFuture.cancel(true);
+            throw e;
+        }
+
+        // 이전 전 데이터 병합 (ID 중복 제거 후 유사도 순 topK)
+        Map<String, MemoryMatch> merged = new LinkedHashMap<>();
+        matches.forEach(match -> merged.put(match.id(), match));
+        try {
+            legacyFuture.join().forEach(match -> merged.putIfAbsent(match.id(), match));
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparingDouble(MemoryMatch::score).reversed())
+                .limit(topK)
+                .toList();
+    }
+
+    /**
+     * 사용자 네임스페이스의 "{userId}_" 접두사 ID를 페이지 단위로 조회 후 fetch
+     */
+    @Override
+    public List<MemoryRecord> listAll(String userId) {
+        return listNamespace(namespaces.forUser(userId), userId);
+    }
+
+    /**
+     * legacy-fallback 중에는 기본 네임스페이스의 이전 전 기억도 포함 (검색 범위와 동일하게)
+     */
+    @Override
+    public List<MemoryRecord> listSearchable(String userId) {
+        List<MemoryRecord> records = listAll(userId);
+        if (legacyFallback) {
+            records.addAll(listNamespace(PineconeNamespaces.LEGACY_NAMESPACE, userId));
+        }
+        return records;
+    }
+
+    private List<MemoryRecord> listNamespace(String namespace, String userId) {
+        List<MemoryRecord> records = new ArrayList<>();
+        String token = null;
+        do {
+            PineconeListResponse page = pineconeApiClient.listIds(namespace, userId + "_", token, PAGE_SIZE);
+            if (page == null || page.getVectors() == null || page.getVectors().isEmpty()) {
+                break;
+            }
+            List<String> ids = page.getVectors().stream().map(PineconeListResponse.Item::getId).toList();
+            PineconeFetchResponse fetched = pineconeApiClient.fetch(namespace, ids);
+            if (fetched != null && fetched.getVectors() != null) {
+                for (PineconeVector vector : fetched.getVectors().values()) {
+                    toRecord(userId, vector).ifPresent(records::add);
+                }
+            }
+            token = page.nextToken();
+        } while (token != null);
+        return records;
+    }
+
+    @Override
+    public void replace(String userId, List<MemoryRecord> additions, List<String> deletions) {
+        String namespace = namespaces.forUser(userId);
+        for (int i = 0; i < additions.size(); i += PAGE_SIZE) {
+            pineconeApiClient.upsert(namespace, additions.subList(i, Math.min(i + PAGE_SIZE, additions.size()))
+                    .stream().map(this::toPineconeVector).toList());
+        }
+        for (int i = 0; i < deletions.size(); i += PAGE_SIZE) {
+            pineconeApiClient.delete(namespace, deletions.subList(i, Math.min(i + PAGE_SIZE, deletions.size())));
+        }
+    }
+
+    private PineconeVector toPineconeVector(MemoryRecord record) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("userId", record.userId());
+        metadata.put("originalText", record.text());
+        metadata.put("timestamp", Instant.ofEpochMilli(record.timestamp()).toString());
+
+        return PineconeVector.builder()
+                .id(record.id())
+                .values(record.vector())
+                .metadata(metadata)
+                .build();
+    }
+
+    private Optional<MemoryRecord> toRecord(String userId, PineconeVector vector) {
+        Map<String, Object> metadata = vector.getMetadata();
+        if (metadata == null || metadata.get("originalText") == null || vector.getValues() == null) {
+            return Optional.empty();
+        }
+        long timestamp = 0L;
+        if (metadata.get("timestamp") instanceof String iso) {
+            try {
+                timestamp = Instant.parse(iso).toEpochMilli();
+            } catch (DateTimeParseException ignored) {
+                // 잘못된 형식은 0(가장 오래됨)으로 취급
+            }
+        }
+        return Optional.of(new MemoryRecord(vector.getId(), userId, (String) metadata.get("originalText"),
+                timestamp, vector.getValues()));
+    }
+
+    private List<MemoryMatch> query(String namespace, String userIdFilter, float[] vector, int topK) {
+        Map<String, Object> filter = null;
+        if (userIdFilter != null) {
+            filter = new HashMap<>();
+            filter.put("userId", Map.of("$eq", userIdFilter));
+        }
+
+        PineconeQueryRequest request = PineconeQueryRequest.builder()
+                .vector(vector)
+                .topK(topK)
+                .includeMetadata(true)
+                .includeValues(false)
+                .filter(filter)
+                .namespace(namespace)
+                .build();
+
+        PineconeQueryResponse response = pineconeApiClient.query(request);
+
+        List<MemoryMatch> matches = new ArrayList<>();
+        if (response == null || response.getMatches() == null) {
+            return matches;
+        }
+        for (PineconeQueryResponse.Match match : response.getMatches()) {
+            Object text = match.getMetadata() != null ? match.getMetadata().get("originalText") : null;
+            if (text == null) {
+                continue;
+            }
+            double score = match.getScore() != null ? match.getScore() : 0.0;
+            matches.add(new MemoryMatch(match.getId(), (String) text, score));
+        }
+        return matches;
+    }
+}
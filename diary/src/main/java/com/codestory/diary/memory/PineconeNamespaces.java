@@ -0,0 +1,46 @@
+package com.codestory.diary.memory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 사용자 → Pinecone 네임스페이스 매핑
+ *
+ * [모드] pinecone.namespace.mode
+ * - per-user: "user-{userId}"           → 검색 범위 = 본인 기억만 (메타데이터 필터 불필요)
+ * - bucket:   "bucket-{hash % buckets}" → 네임스페이스 수 제한이 있을 때, userId 필터 병행
+ *
+ * 기존 데이터는 기본 네임스페이스("")에 userId 메타데이터 필터로 저장되어 있음
+ * → PineconeNamespaceMigrationService로 이전
+ */
+@Component
+public class PineconeNamespaces {
+
+    public static final String LEGACY_NAMESPACE = "";
+
+    private static final String MODE_BUCKET = "bucket";
+
+    private final String mode;
+    private final int buckets;
+
+    public PineconeNamespaces(
+            @Value("${pinecone.namespace.mode:per-user}") String mode,
+            @Value("${pinecone.namespace.buckets:64}") int buckets) {
+        this.mode = mode;
+        this.buckets = buckets;
+    }
+
+    public String forUser(String userId) {
+        if (MODE_BUCKET.equals(mode)) {
+            return "bucket-" + Math.floorMod(userId.hashCode(), buckets);
+        }
+        return "user-" + userId;
+    }
+
+    /**
+     * 같은 네임스페이스를 여러 사용자가 공유하는지 (→ 검색 시 userId 필터 필요)
+     */
+    public boolean isShared() {
+        return MODE_BUCKET.equals(mode);
+    }
+}
@@ -0,0 +1,41 @@
+package com.codestory.diary.memory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reciprocal Rank Fusion (RRF)
+ *
+ * score(d) = Σ 1 / (k + rank_i(d))  (rank는 1부터)
+ * - 점수 척도가 다른 결과(코사인 유사도 vs BM25)를 순위만으로 합침 → 정규화/가중치 튜닝 불필요
+ * - 양쪽 모두에서 상위인 기억이 가장 앞에 옴
+ */
+public final class RankFusion {
+
+    public static final int DEFAULT_K = 60;
+
+    private RankFusion() {
+    }
+
+    /**
+     * 여러 순위 목록을 합쳐 상위 topK개 반환 (MemoryMatch.score = RRF 점수)
+     */
+    public static List<MemoryMatch> reciprocalRank(List<List<MemoryMatch>> rankings, int k, int topK) {
+        Map<String, MemoryMatch> byId = new LinkedHashMap<>();
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (List<MemoryMatch> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                MemoryMatch match = ranking.get(rank);
+                byId.putIfAbsent(match.id(), match);
+                scores.merge(match.id(), 1.0 / (k + rank + 1), Double::sum);
+            }
+        }
+
+        List<MemoryMatch> fused = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> fused.add(new MemoryMatch(id, byId.get(id).text(), score)));
+        fused.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return fused.size() > topK ? new ArrayList<>(fused.subList(0, topK)) : fused;
+    }
+}
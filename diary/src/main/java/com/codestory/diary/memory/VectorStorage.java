@@ -0,0 +1,43 @@
+package com.codestory.diary.memory;
+
+/**
+ * HnswIndex가 사용하는 벡터 저장 방식 (노드 번호 = 추가 순서)
+ *
+ * [구현체] memory.store.hnsw.quantization
+ * - none:   FloatVectorStorage  - float32 원본 (4 bytes/차원)
+ * - int8:   Int8VectorStorage   - 벡터별 스케일 + int8 코드 (1 byte/차원, 4배 절감)
+ * - binary: BinaryVectorStorage - 부호 비트 (1 bit/차원, 32배 절감)
+ *
+ * 입력 벡터는 모두 L2 정규화된 상태 → similarity는 코사인 유사도(또는 그 근사치)
+ */
+interface VectorStorage {
+
+    /**
+     * 정규화된 벡터 추가
+     */
+    void add(float[] normalized);
+
+    /**
+     * 쿼리(정규화된 float32)와 노드 간 유사도
+     */
+    float similarity(float[] query, int node);
+
+    /**
+     * 두 노드 간 유사도 (이웃 정리 시 사용)
+     */
+    float similarity(int a, int b);
+
+    /**
+     * 벡터 저장에 사용 중인 메모리 (bytes)
+     */
+    long bytesUsed();
+
+    static VectorStorage create(String quantization, int dimension) {
+        return switch (quantization) {
+            case "none" -> new FloatVectorStorage(dimension);
+            case "int8" -> new Int8VectorStorage(dimension);
+            case "binary" -> new BinaryVectorStorage(dimension);
+            default -> throw new IllegalArgumentException("Unknown quantization: " + quantization);
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.codestory.diary.memory;
+
+/**
+ * float[] 벡터 유틸리티
+ */
+public final class Vectors {
+
+    private Vectors() {
+    }
+
+    public static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * L2 정규화한 복사본 (정규화 후 내적 = 코사인 유사도)
+     */
+    public static float[] normalize(float[] vector) {
+        float norm = (float) Math.sqrt(dot(vector, vector));
+        float[] normalized = new float[vector.length];
+        if (norm == 0f) {
+            return normalized;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] / norm;
+        }
+        return normalized;
+    }
+}
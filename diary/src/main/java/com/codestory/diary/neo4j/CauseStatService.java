@@ -0,0 +1,176 @@
+package com.codestory.diary.neo4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.codestory.diary.repository.MemberRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Kingpin(핵심 원인) 빈도 집계 유지
+ *
+ * [저장 형태]
+ * (:User)-[:HAS_CAUSE_STAT]->(:CauseStat {userId, name, type, frequency, updatedAt})
+ * - frequency: 이 원인과 CAUSED|INVOLVED로 연결된, 사용자의 서로 다른 Event 수
+ * - (userId, frequency) 인덱스 → 질문 시점에는 집계 없이 상위 N개 조회 (GraphRagService)
+ * - (userId, name) 유일 제약 → 증분과 재집계가 동시에 실행돼도 같은 원인의 CauseStat은 1개
+ *   (둘 다 MERGE → 커밋 전 노드도 제약 잠금으로 보이므로 중복 생성 대신 대기)
+ *
+ * [유지 방식]
+ * - 쓰기 시 증분: 일기 저장 후 아직 집계되지 않은 Event(causeCounted 없음)만 세어 frequency += n, 표시
+ * - 주기 재계산: 동시 쓰기 / 노드 삭제 등으로 어긋난 값을 사용자별 전체 재집계로 보정
+ *   (maintenanceExecutor에서 실행 → 스케줄러 스레드를 붙잡지 않음)
+ *
+ * graph.kingpin.precomputed=false 면 유지하지 않음 (질문마다 집계하는 기존 방식 사용)
+ */
+@Slf4j
+@Service
+public class CauseStatService {
+
+    /**
+     * 새 Event만 집계에 반영 (causeCounted 표시로 중복 집계 방지)
+     */
+    private static final String INCREMENT_QUERY = """
+        MATCH (u:User {userId: $userId})-->(s:Event)
+        WHERE s.causeCounted IS NULL
+        WITH DISTINCT u, s
+        SET s.causeCounted = true
+        WITH u, s
+        MATCH (s)-[:CAUSED|INVOLVED]-(cause)
+        WHERE (cause:Event OR cause:Action OR cause:Emotion)
+          AND cause.name IS NOT NULL
+          AND NOT (cause)-[:INVOLVED]-(u)  // User 노드는 제외
+        WITH u, cause.name AS causeName,
+             collect(DISTINCT labels(cause)[0])[0] AS causeType,
+             count(DISTINCT s) AS added
+        MERGE (stat:CauseStat {userId: $userId, name: causeName})
+        ON CREATE SET stat.frequency = 0, stat.type = causeType
+        SET stat.frequency = stat.frequency + added,
+            stat.updatedAt = datetime()
+        MERGE (u)-[:HAS_CAUSE_STAT]->(stat)
+        RETURN count(stat) AS updated
+    """;
+
+    /**
+     * 사용자별 전체 재집계 (원인별 값을 MERGE로 덮어쓰고, 더 이상 없는 원인의 CauseStat만 삭제)
+     */
+    private static final String RECONCILE_QUERY = """
+        MATCH (u:User {userId: $userId})
+        CALL {
+            WITH u
+            OPTIONAL MATCH (u)-->(s:Event)
+            SET s.causeCounted = true
+            WITH u, s
+            MATCH (s)-[:CAUSED|INVOLVED]-(cause)
+            WHERE (cause:Event OR cause:Action OR cause:Emotion)
+              AND cause.name IS NOT NULL
+              AND NOT (cause)-[:INVOLVED]-(u)
+            WITH u, cause.name AS causeName,
+                 collect(DISTINCT labels(cause)[0])[0] AS causeType,
+                 count(DISTINCT s) AS frequency
+            MERGE (stat:CauseStat {userId: $userId, name: causeName})
+            SET stat.type = causeType,
+                stat.frequency = frequency,
+                stat.updatedAt = datetime()
+            MERGE (u)-[:HAS_CAUSE_STAT]->(stat)
+            RETURN collect(causeName) AS causeNames
+        }
+        OPTIONAL MATCH (u)-[:HAS_CAUSE_STAT]->(stale:CauseStat)
+        WHERE NOT stale.name IN causeNames
+        DETACH DELETE stale
+        RETURN size(causeNames) AS updated
+    """;
+
+    private final Neo4jClient neo4jClient;
+    private final MemberRepository memberRepository;
+    private final Executor maintenanceExecutor;
+    private final boolean enabled;
+
+    private final AtomicBoolean reconciling = new AtomicBoolean(false);
+
+    public CauseStatService(
+            Neo4jClient neo4jClient,
+            MemberRepository memberRepository,
+            @Qualifier("maintenanceExecutor") Executor maintenanceExecutor,
+            @Value("${graph.kingpin.precomputed:true}") boolean enabled) {
+        this.neo4jClient = neo4jClient;
+        this.memberRepository = memberRepository;
+        this.maintenanceExecutor = maintenanceExecutor;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 일기 그래프 저장 직후 호출 (실패해도 일기 저장에는 영향 없음 - 주기 재계산으로 보정)
+     */
+    public void recordNewEvents(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            neo4jClient.query(INCREMENT_QUERY)
+                    .bind(userId).to("userId")
+                    .run();
+        } catch (Exception e) {
+            log.warn("⚠️ [CauseStat] 증분 집계 실패 (User ID: {}): {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 사용자 1명 전체 재집계
+     */
+    public void reconcileUser(Long userId) {
+        neo4jClient.query(RECONCILE_QUERY)
+                .bind(userId).to("userId")
+                .run();
+    }
+
+    /**
+     * 주기 재계산 예약 (스케줄러 스레드는 작업만 넘기고 반환)
+     */
+    @Scheduled(cron = "${graph.kingpin.reconcile-cron:0 0 5 * * *}")
+    public void scheduleReconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            maintenanceExecutor.execute(this::reconcileAll);
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ [CauseStat] 재집계 예약 실패 (다음 주기에 재시도): {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 전체 사용자 재집계 (동시에 하나만 실행)
+     */
+    public void reconcileAll() {
+        if (!enabled || !reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int users = 0;
+            for (Long userId : memberRepository.findAllIds()) {
+                try {
+                    reconcileUser(userId);
+                    users++;
+                } catch (Exception e) {
+                    log.warn("⚠️ [CauseStat] 재집계 실패 (User ID: {}): {}", userId, e.getMessage());
+                }
+            }
+            log.info("✅ [CauseStat] 핵심 원인 집계 재계산 완료 ({}명)", users);
+        } finally {
+            reconciling.set(false);
+        }
+    }
+}
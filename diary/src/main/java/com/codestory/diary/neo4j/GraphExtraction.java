@@ -0,0 +1,68 @@
+package com.codestory.diary.neo4j;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * LLM이 일기에서 추출한 그래프 (JSON 응답 매핑)
+ *
+ * {"entities": [{"key": "e1", "label": "Event", "name": "혼남"}, ...],
+ *  "relations": [{"from": "p1", "type": "INVOLVED", "to": "e1"}, ...]}
+ *
+ * - key: 응답 안에서만 쓰는 임시 식별자 ("user"는 일기 작성자 User 노드)
+ * - label / type은 허용 목록만 통과 (sanitized) → 스키마 밖 데이터가 그래프에 들어가지 않음
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GraphExtraction(List<Entity> entities, List<Relation> relations) {
+
+    public static final String USER_KEY = "user";
+
+    private static final Set<String> LABELS = Set.of("Event", "Emotion", "Action", "Person", "Place");
+    private static final Set<String> RELATION_TYPES = Set.of("DID", "FELT", "CAUSED", "INVOLVED", "HAPPENED_AT");
+    private static final int MAX_NAME_LENGTH = 100;
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Entity(String key, String label, String name, Integer intensity) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Relation(String from, String type, String to) {
+    }
+
+    /**
+     * 허용된 라벨/관계만 남긴 사본 (이름 없는 엔티티, 중복 key, 존재하지 않는 key를 가리키는 관계 제거)
+     */
+    public GraphExtraction sanitized() {
+        List<Entity> validEntities = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        for (Entity entity : entities == null ? List.<Entity>of() : entities) {
+            if (entity == null || entity.key() == null || entity.name() == null || entity.name().isBlank()
+                    || !LABELS.contains(entity.label()) || USER_KEY.equals(entity.key()) || !keys.add(entity.key())) {
+                continue;
+            }
+            String name = entity.name().strip();
+            validEntities.add(new Entity(entity.key(), entity.label(),
+                    name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name,
+                    "Emotion".equals(entity.label()) ? entity.intensity() : null));
+        }
+
+        List<Relation> validRelations = new ArrayList<>();
+        for (Relation relation : relations == null ? List.<Relation>of() : relations) {
+            if (relation == null || !RELATION_TYPES.contains(relation.type())
+                    || !(keys.contains(relation.from()) || USER_KEY.equals(relation.from()))
+                    || !(keys.contains(relation.to()) || USER_KEY.equals(relation.to()))) {
+                continue;
+            }
+            validRelations.add(relation);
+        }
+        return new GraphExtraction(validEntities, validRelations);
+    }
+
+    public boolean isEmpty() {
+        return entities == null || entities.isEmpty();
+    }
+}
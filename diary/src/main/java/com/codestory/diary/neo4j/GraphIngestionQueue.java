@@ -0,0 +1,200 @@
+package com.codestory.diary.neo4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 일기 → 그래프 저장 전용 파이프라인
+ *
+ * [문제]
+ * - 공용 chatAsyncExecutor에서 실행 → 같은 사용자의 일기 2개가 동시에 처리되며 MERGE (u:User) 경합
+ * - 몰릴 때 큐(200) 초과로 작업 거부
+ *
+ * [동작]
+ * 1. submit: 사용자별 FIFO 큐에 적재 후 즉시 반환
+ * 2. 사용자당 처리 작업은 최대 1개 → 같은 사용자 일기는 도착 순서대로 처리
+ * 3. 처리 시 대기 중인 일기를 최대 max-coalesce개까지 합쳐 추출 1회 + 저장 1회
+ * 4. 서로 다른 사용자는 병렬 처리 (동시 처리 사용자 수 ≤ parallelism, LLM 호출 대기이므로 가상 스레드)
+ * 5. 전체 대기 일기가 max-pending에 도달하면 새 요청 거부 (메모리 상한)
+ *    → submitOrIngest는 거부된 일기를 호출 스레드에서 바로 저장 (유실 대신 호출 측 감속)
+ *
+ * [지표]
+ * - graph.ingestion.pending:      대기 중인 일기 수
+ * - graph.ingestion.active_users: 처리 대기/진행 중인 사용자 수
+ * - graph.ingestion.rejected:     max-pending 초과로 거부된 일기 수
+ * - graph.ingestion.inline:       거부 후 호출 스레드에서 직접 저장한 일기 수
+ * - graph.ingestion.coalesced:    다른 일기와 합쳐져 처리된 일기 수
+ * - graph.ingestion.batch:        배치(추출 + 저장) 처리 시간
+ */
+@Slf4j
+@Component
+public class GraphIngestionQueue {
+
+    private static final String DIARY_SEPARATOR = "\n\n";
+
+    private final GraphService graphService;
+    private final int maxPending;
+    private final int maxCoalesce;
+
+    private final Map<Long, Deque<String>> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Semaphore permits;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Graph-Ingest-", 0).factory());
+
+    private final Counter rejectedCounter;
+    private final Counter inlineCounter;
+    private final Counter coalescedCounter;
+    private final Timer batchTimer;
+
+    public GraphIngestionQueue(
+            GraphService graphService,
+            MeterRegistry meterRegistry,
+            @Value("${graph.ingestion.parallelism:8}") int parallelism,
+            @Value("${graph.ingestion.max-pending:5000}") int maxPending,
+            @Value("${graph.ingestion.max-coalesce:5}") int maxCoalesce) {
+        this.graphService = graphService;
+        this.maxPending = maxPending;
+        this.maxCoalesce = maxCoalesce;
+        this.permits = new Semaphore(parallelism);
+
+        Gauge.builder("graph.ingestion.pending", pending, AtomicInteger::get)
+                .description("Diaries waiting to be written to the graph")
+                .register(meterRegistry);
+        Gauge.builder("graph.ingestion.active_users", queues, Map::size)
+                .description("Users with queued or in-flight graph ingestion")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("graph.ingestion.rejected")
+                .description("Diaries rejected because the ingestion queue was full")
+                .register(meterRegistry);
+        this.inlineCounter = Counter.builder("graph.ingestion.inline")
+                .description("Rejected diaries written to the graph on the caller thread")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("graph.ingestion.coalesced")
+                .description("Diaries merged into another diary's extraction")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("graph.ingestion.batch")
+                .description("Latency of one extraction + graph write")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 그래프 저장 요청 (즉시 반환)
+     *
+     * @return false: 대기 일기가 max-pending에 도달해 거부됨
+     */
+    public boolean submit(Long userId, String diaryContent) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejectedCounter.increment();
+            log.warn("⚠️ [GraphIngestion] 대기열 가득 참 ({}건) - 그래프 저장 거부 (User ID: {})", maxPending, userId);
+            return false;
+        }
+
+        boolean[] startWorker = {false};
+        queues.compute(userId, (id, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                startWorker[0] = true; // 큐가 없었음 = 이 사용자 처리 작업이 없음
+            }
+            queue.addLast(diaryContent);
+            return queue;
+        });
+        if (startWorker[0]) {
+            executor.execute(() -> drain(userId));
+        }
+        return true;
+    }
+
+    /**
+     * 그래프 저장 요청, 대기열이 가득 차면 호출 스레드에서 바로 저장
+     * - 거부된 일기를 버리지 않음 (대신 이 호출은 추출 + 저장이 끝날 때까지 블록)
+     * - 직접 저장은 사용자별 순서 보장 밖에서 실행 → 같은 사용자의 대기 중 일기와 순서가 바뀔 수 있음
+     *
+     * @return true: 대기열에 적재됨, false: 호출 스레드에서 저장 완료 (저장 실패 시 예외)
+     */
+    public boolean submitOrIngest(Long userId, String diaryContent) {
+        if (submit(userId, diaryContent)) {
+            return true;
+        }
+        inlineCounter.increment();
+        batchTimer.record(() -> graphService.saveDiaryToGraph(userId, diaryContent));
+        return false;
+    }
+
+    /**
+     * 사용자 큐가 빌 때까지 순서대로 처리 (사용자당 동시에 하나만 실행)
+     */
+    private void drain(Long userId) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            List<String> batch;
+            while (!(batch = nextBatch(userId)).isEmpty()) {
+                process(userId, batch);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 대기 중인 일기를 최대 maxCoalesce개 꺼냄
+     * 비어 있으면 큐를 제거 (같은 compute 안에서 처리 → submit과 경합해도 작업 누락 없음)
+     */
+    private List<String> nextBatch(Long userId) {
+        List<String> batch = new ArrayList<>();
+        queues.computeIfPresent(userId, (id, queue) -> {
+            while (batch.size() < maxCoalesce && !queue.isEmpty()) {
+                batch.add(queue.pollFirst());
+            }
+            return batch.isEmpty() ? null : queue;
+        });
+        return batch;
+    }
+
+    private void process(Long userId, List<String> batch) {
+        pending.addAndGet(-batch.size());
+        if (batch.size() > 1) {
+            coalescedCounter.increment(batch.size() - 1);
+        }
+        try {
+            batchTimer.record(() -> graphService.saveDiaryToGraph(userId, String.join(DIARY_SEPARATOR, batch)));
+        } catch (Exception e) {
+            log.error("⚠️ [GraphIngestion] 그래프 저장 실패 (User ID: {}, 일기 {}건): {}",
+                    userId, batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("⚠️ [GraphIngestion] 종료 시 미처리 일기 {}건", pending.get());
+            executor.shutdownNow();
+        }
+    }
+}
@@ -8,7 +8,8 @@ import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Service;
 
 import com.codestory.diary.service.AiService;
-import org.springframework.scheduling.annotation.Async;
+import com.codestory.diary.service.SemanticResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -24,84 +25,113 @@ public class GraphService {
     @Autowired
     private com.codestory.diary.service.EmbeddingService embeddingService; // ✨ Phase 3: 비동기 임베딩 서비스
 
-    /**
-     * ✨ [비동기] 그래프 저장 - Fire-and-Forget
-     * DiaryService/DiaryController에서 호출 시 즉시 반환,
-     * OpenAI 프롬프트 생성 + Neo4j 저장은 백그라운드로 처리
-     */
-    @Async("chatAsyncExecutor")
-    public void saveDiaryToGraphAsync(Long userId, String diaryContent) {
-        try {
-            saveDiaryToGraph(userId, diaryContent);
-        } catch (Exception e) {
-            log.error("⚠️ [Async] 그래프 저장 실패 (User ID: {}): {}", userId, e.getMessage());
-        }
-    }
+    @Autowired
+    private SemanticResponseCache semanticResponseCache;
+
+    @Autowired
+    private CauseStatService causeStatService; // Kingpin 빈도 집계 증분 반영
+
+    @Autowired
+    private GraphWriter graphWriter; // 추출 결과 저장 (고정 파라미터 쿼리)
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     // [기능 1] 일기를 뇌(Graph)에 저장하기 + 임베딩 자동 생성 (Phase 2)
+    // 비동기 저장은 GraphIngestionQueue.submitOrIngest 사용 (사용자별 순서 보장 + 여러 일기 병합)
     public void saveDiaryToGraph(Long userId, String diaryContent) {
-        // 1. 프롬프트 생성 (유저별로 분리된 그래프 생성 + timestamp 추가)
+        // 1. 프롬프트 생성 (Cypher 대신 구조화된 JSON으로 추출 → 고정 쿼리로 저장)
         String prompt = """
             # Role
-            당신은 Neo4j 그래프 데이터베이스 전문가이자 숙련된 데이터 엔지니어입니다.
-            사용자의 자연어 일기를 분석하여, 지식 그래프(Knowledge Graph)를 구축하기 위한 정확한 'Cypher Query'만을 생성해야 합니다.
+            당신은 지식 그래프(Knowledge Graph) 구축을 위한 정보 추출 전문가입니다.
+            사용자의 자연어 일기에서 개체(entities)와 관계(relations)를 뽑아 JSON으로만 응답하세요.
 
             # Graph Schema
-            1. **Nodes**: (:User), (:Event), (:Emotion), (:Action), (:Person), (:Place)
-            2. **Relationships**:
-               - (:User)-[:DID]->(:Action)
-               - (:User)-[:FELT]->(:Emotion)
-               - (:Event)-[:CAUSED]->(:Emotion)
-               - (:Person)-[:INVOLVED]->(:Event)
-               - (:Event)-[:HAPPENED_AT]->(:Place)
-
-            # Constraints & Rules (Strict)
-            1. **User Identity**: 모든 쿼리는 반드시 `MERGE (u:User {userId: $userId})`로 시작해야 합니다. ($userId 파라미터 사용 필수)
-            2. **Timestamp**: Event, Emotion, Action 노드 생성 시 반드시 `timestamp: datetime()` 속성을 포함하세요.
-            3. **Merge vs Create**:
-               - **MERGE**: 고유한 개체인 User, Person(사람 이름), Place(장소)에 사용하세요. (중복 생성 방지)
-               - **CREATE**: 매 순간 새롭게 발생하는 Event(사건), Emotion(감정), Action(행동)에 사용하세요.
-               - *주의*: 감정은 매번 다를 수 있으므로 노드를 재사용하지 말고, 그 순간의 감정 인스턴스를 생성해야 합니다.
-            4. **Output**: 주석이나 설명 없이 오직 실행 가능한 Cypher Query 코드만 출력하세요.
+            1. **Entity label**: Event(사건), Emotion(감정), Action(행동), Person(사람), Place(장소)
+            2. **Relation type**:
+               - user -[DID]-> Action
+               - user -[FELT]-> Emotion
+               - Event -[CAUSED]-> Emotion, Emotion -[CAUSED]-> Action
+               - Person -[INVOLVED]-> Event, user -[INVOLVED]-> Event
+               - Event -[HAPPENED_AT]-> Place
+
+            # Rules (Strict)
+            1. 각 entity에는 응답 안에서만 쓰는 고유 key(e1, e2 ...)를 붙이고, relations의 from/to는 이 key를 사용하세요.
+            2. 일기를 쓴 사용자 본인은 entity로 만들지 말고 key "user"로 가리키세요.
+            3. Emotion에는 1~10 사이 intensity를 포함하세요.
+            4. 위 스키마에 없는 label / type은 사용하지 마세요.
+            5. **Output**: 설명이나 코드 블록 없이 JSON 객체 하나만 출력하세요.
 
             # Few-Shot Examples
             Input: "오늘 팀장님한테 깨져서 너무 우울해. 그래서 매운 떡볶이 먹었어."
             Output:
-            MERGE (u:User {userId: $userId})
-            MERGE (p:Person {name: '팀장님'})
-            CREATE (e:Event {name: '혼남', timestamp: datetime()})
-            CREATE (em:Emotion {name: '우울함', intensity: 8, timestamp: datetime()})
-            CREATE (a:Action {name: '매운 떡볶이 먹기', timestamp: datetime()})
-            MERGE (p)-[:INVOLVED]->(e)
-            CREATE (e)-[:CAUSED]->(em)
-            CREATE (em)-[:CAUSED]->(a)
-            MERGE (u)-[:INVOLVED]->(e);
+            {"entities": [
+              {"key": "p1", "label": "Person", "name": "팀장님"},
+              {"key": "e1", "label": "Event", "name": "혼남"},
+              {"key": "em1", "label": "Emotion", "name": "우울함", "intensity": 8},
+              {"key": "a1", "label": "Action", "name": "매운 떡볶이 먹기"}
+            ],
+             "relations": [
+              {"from": "p1", "type": "INVOLVED", "to": "e1"},
+              {"from": "e1", "type": "CAUSED", "to": "em1"},
+              {"from": "em1", "type": "CAUSED", "to": "a1"},
+              {"from": "user", "type": "INVOLVED", "to": "e1"}
+            ]}
 
             # User Input
-            "%s" (userId: %s)
+            "%s"
 
-            # Generated Query
-            """.formatted(diaryContent, userId);
+            # Output
+            """.formatted(diaryContent);
 
         // 2. AiService 호출
-        String cypherQuery = aiService.getMultimodalResponse(prompt, diaryContent, null);
+        String response = aiService.getMultimodalResponse(prompt, diaryContent, null);
+
+        // 3. JSON 파싱 + 허용 목록 검증 → 고정 파라미터 쿼리로 저장 (LLM이 만든 Cypher는 실행하지 않음)
+        GraphExtraction extraction = parseExtraction(response);
+        if (extraction == null || extraction.isEmpty()) {
+            log.warn("⚠️ 그래프 추출 결과 없음 - 저장 생략 (User ID: {})", userId);
+            return;
+        }
 
-        // 3. 코드 정제 및 실행
-        if (cypherQuery != null) {
-            cypherQuery = cypherQuery.replace("```cypher", "").replace("```", "").trim();
+        graphWriter.write(userId, extraction);
 
-            neo4jClient.query(cypherQuery)
-                    .bind(userId).to("userId")
-                    .run();
+        log.info("✅ 그래프 저장 완료 (User ID: {}, 노드: {}, 관계: {})",
+                userId, extraction.entities().size(), extraction.relations().size());
 
-            log.info("✅ 그래프 저장 완료 (User ID: {})", userId);
+        // 새 Event의 원인 빈도를 CauseStat에 반영 (질문 시점 집계 생략)
+        causeStatService.recordNewEvents(userId);
+
+        // 그래프가 바뀌었으므로 이 사용자의 의미 캐시 무효화
+        // (GraphRAG 응답 캐시 버전은 아래 임베딩 작업이 끝난 뒤 한 번만 증가)
+        semanticResponseCache.invalidateUser(userId);
+
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // ✨ Phase 3: 생성된 노드들에 임베딩 자동 추가 (비동기)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 비동기로 실행되므로 즉시 반환 (사용자 대기 시간 최소화)
+        embeddingService.generateEmbeddingsForNewNodesAsync(userId);
+        log.debug("🚀 임베딩 생성 작업 비동기 시작 (User ID: {})", userId);
+    }
 
-            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            // ✨ Phase 3: 생성된 노드들에 임베딩 자동 추가 (비동기)
-            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            // 비동기로 실행되므로 즉시 반환 (사용자 대기 시간 최소화)
-            embeddingService.generateEmbeddingsForNewNodesAsync(userId);
-            log.debug("🚀 임베딩 생성 작업 비동기 시작 (User ID: {})", userId);
+    /**
+     * LLM 응답에서 JSON 객체 추출 후 파싱 (코드 블록/앞뒤 설명 허용, 실패 시 null)
+     */
+    private GraphExtraction parseExtraction(String response) {
+        if (response == null) {
+            return null;
+        }
+        int start = response.indexOf('{');
+        int end = response.lastIndexOf('}');
+        if (start < 0 || end <= start) {
+            log.warn("⚠️ 그래프 추출 응답에 JSON 없음: {}", response);
+            return null;
+        }
+        try {
+            return objectMapper.readValue(response.substring(start, end + 1), GraphExtraction.class).sanitized();
+        } catch (Exception e) {
+            log.warn("⚠️ 그래프 추출 JSON 파싱 실패: {}", e.getMessage());
+            return null;
         }
     }
 
@@ -0,0 +1,94 @@
+package com.codestory.diary.neo4j;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 추출된 그래프 저장 (고정된 파라미터 쿼리 1개 = 왕복 1회)
+ *
+ * - 쿼리 문자열이 항상 같음 → Neo4j 실행 계획 캐시 재사용 (일기마다 새 쿼리를 계획하지 않음)
+ * - 라벨/관계 타입은 파라미터로 바꿀 수 없으므로 허용 목록별 분기를 쿼리에 고정
+ *   (UNION 서브쿼리 / FOREACH) → LLM이 만든 Cypher를 실행하지 않음
+ * - Event, Emotion, Action: 매번 새 노드 (timestamp 포함) / Person, Place: 이름으로 MERGE
+ */
+@Component
+@RequiredArgsConstructor
+public class GraphWriter {
+
+    private static final String WRITE_QUERY = """
+        MERGE (u:User {userId: $userId})
+        WITH u
+        UNWIND $entities AS e
+        CALL {
+            WITH e
+            WITH e WHERE e.label = 'Event'
+            CREATE (n:Event {name: e.name, timestamp: datetime()})
+            RETURN n
+          UNION
+            WITH e
+            WITH e WHERE e.label = 'Emotion'
+            CREATE (n:Emotion {name: e.name, intensity: e.intensity, timestamp: datetime()})
+            RETURN n
+          UNION
+            WITH e
+            WITH e WHERE e.label = 'Action'
+            CREATE (n:Action {name: e.name, timestamp: datetime()})
+            RETURN n
+          UNION
+            WITH e
+            WITH e WHERE e.label = 'Person'
+            MERGE (n:Person {name: e.name})
+            RETURN n
+          UNION
+            WITH e
+            WITH e WHERE e.label = 'Place'
+            MERGE (n:Place {name: e.name})
+            RETURN n
+        }
+        WITH u, collect({key: e.key, node: n}) AS nodes
+
+        UNWIND $relations AS rel
+        WITH u, rel,
+             CASE WHEN rel.from = $userKey THEN u ELSE [x IN nodes WHERE x.key = rel.from][0].node END AS a,
+             CASE WHEN rel.to = $userKey THEN u ELSE [x IN nodes WHERE x.key = rel.to][0].node END AS b
+        WHERE a IS NOT NULL AND b IS NOT NULL
+        FOREACH (_ IN CASE WHEN rel.type = 'DID' THEN [1] ELSE [] END | MERGE (a)-[:DID]->(b))
+        FOREACH (_ IN CASE WHEN rel.type = 'FELT' THEN [1] ELSE [] END | MERGE (a)-[:FELT]->(b))
+        FOREACH (_ IN CASE WHEN rel.type = 'CAUSED' THEN [1] ELSE [] END | MERGE (a)-[:CAUSED]->(b))
+        FOREACH (_ IN CASE WHEN rel.type = 'INVOLVED' THEN [1] ELSE [] END | MERGE (a)-[:INVOLVED]->(b))
+        FOREACH (_ IN CASE WHEN rel.type = 'HAPPENED_AT' THEN [1] ELSE [] END | MERGE (a)-[:HAPPENED_AT]->(b))
+    """;
+
+    private final Neo4jClient neo4jClient;
+
+    /**
+     * sanitized()를 거친 추출 결과 저장
+     */
+    public void write(Long userId, GraphExtraction extraction) {
+        neo4jClient.query(WRITE_QUERY)
+                .bind(userId).to("userId")
+                .bind(GraphExtraction.USER_KEY).to("userKey")
+                .bind(extraction.entities().stream().map(GraphWriter::toParameter).toList()).to("entities")
+                .bind(extraction.relations().stream().map(GraphWriter::toParameter).toList()).to("relations")
+                .run();
+    }
+
+    private static Map<String, Object> toParameter(GraphExtraction.Entity entity) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("key", entity.key());
+        row.put("label", entity.label());
+        row.put("name", entity.name());
+        row.put("intensity", entity.intensity());
+        return row;
+    }
+
+    private static Map<String, Object> toParameter(GraphExtraction.Relation relation) {
+        return Map.of("from", relation.from(), "type", relation.type(), "to", relation.to());
+    }
+}
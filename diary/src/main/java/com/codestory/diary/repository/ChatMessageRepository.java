@@ -1,8 +1,12 @@
 package com.codestory.diary.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.codestory.diary.entity.ChatMessage;
@@ -11,11 +15,51 @@ import com.codestory.diary.entity.ChatMessage;
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
     /**
-     * 특정 사용자의 최근 대화 히스토리를 시간 역순으로 조회
+     * 특정 사용자의 최근 대화 N개만 시간 역순으로 조회 ((user_id, created_at) 인덱스 사용)
+     * - 같은 시각에 저장된 user/assistant 메시지는 id 역순으로 정렬
      * @param userId 사용자 ID
+     * @param pageable 조회 개수 (PageRequest.of(0, N))
      * @return 최근 대화 리스트 (최신순)
      */
-    List<ChatMessage> findByUserIdOrderByCreatedAtDesc(Long userId);
+    List<ChatMessage> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * 커서 이전(더 오래된) 대화를 시간 역순으로 조회 (Keyset Pagination)
+     * - (created_at, id) 조합으로 위치를 기억하므로 OFFSET 없이 인덱스 범위 조회
+     * @param userId 사용자 ID
+     * @param createdAt 커서 메시지의 생성 시각
+     * @param id 커서 메시지의 ID
+     * @param pageable 조회 개수 (PageRequest.of(0, N))
+     * @return 커서 이전 대화 리스트 (최신순)
+     */
+    @Query("SELECT m FROM ChatMessage m WHERE m.userId = :userId " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<ChatMessage> findPageBefore(@Param("userId") Long userId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    /**
+     * 커서 이후(더 최근) 대화를 시간순으로 조회 (NDJSON 내보내기용 Keyset Pagination)
+     * @param userId 사용자 ID
+     * @param createdAt 커서 메시지의 생성 시각
+     * @param id 커서 메시지의 ID
+     * @param pageable 조회 개수 (PageRequest.of(0, N))
+     * @return 커서 이후 대화 리스트 (시간순)
+     */
+    @Query("SELECT m FROM ChatMessage m WHERE m.userId = :userId " +
+           "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    List<ChatMessage> findPageAfter(@Param("userId") Long userId,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    /**
+     * 특정 사용자의 가장 오래된 대화 N개를 시간순으로 조회 (NDJSON 내보내기 첫 페이지)
+     */
+    List<ChatMessage> findByUserIdOrderByCreatedAtAscIdAsc(Long userId, Pageable pageable);
 
     /**
      * 특정 사용자의 전체 대화 개수
@@ -2,9 +2,15 @@ package com.codestory.diary.repository;
 
 import com.codestory.diary.entity.Member;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 import java.util.Optional;
 
 public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // 배치 작업용: 엔티티 로드 없이 ID만 조회
+    @Query("SELECT m.id FROM Member m ORDER BY m.id")
+    List<Long> findAllIds();
 }
\ No newline at end of file
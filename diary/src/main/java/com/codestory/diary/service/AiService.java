@@ -1,10 +1,11 @@
 package com.codestory.diary.service; // [수정됨] diary가 추가되었습니다!
 
+import com.codestory.diary.client.OpenAiApiClient;
+import com.codestory.diary.client.dto.ChatCompletionRequest;
+import com.codestory.diary.client.dto.ChatCompletionResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.*;
@@ -13,22 +14,14 @@ import java.util.*;
 @RequiredArgsConstructor
 public class AiService {
 
-    @Value("${openai.api.key}")
-    private String apiKey;
-
     @Value("${openai.model}")
     private String model;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final String API_URL = "https://api.openai.com/v1/chat/completions";
+    private final OpenAiApiClient openAiApiClient;
 
     public String getMultimodalResponse(String systemPrompt, String userMessage, MultipartFile image) {
         // ... (나머지 코드는 아까와 100% 동일합니다. 그대로 두세요) ...
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + apiKey);
-            headers.set("Content-Type", "application/json");
-
             List<Map<String, Object>> messages = new ArrayList<>();
             messages.add(Map.of("role", "system", "content", systemPrompt));
 
@@ -48,21 +41,16 @@ public class AiService {
             userMsgMap.put("content", contentList);
             messages.add(userMsgMap);
 
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-            requestBody.put("messages", messages);
-            requestBody.put("max_tokens", 500);
-            requestBody.put("temperature", 0.7);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            ResponseEntity<Map> response = restTemplate.postForEntity(API_URL, entity, Map.class);
+            ChatCompletionRequest request = ChatCompletionRequest.builder()
+                    .model(model)
+                    .messages(messages)
+                    .maxTokens(500)
+                    .temperature(0.7)
+                    .build();
 
-            if (response.getBody() != null && response.getBody().containsKey("choices")) {
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) response.getBody().get("choices");
-                if (!choices.isEmpty()) {
-                    Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-                    return (String) message.get("content");
-                }
+            ChatCompletionResponse response = openAiApiClient.chatCompletion(request);
+            if (response != null && response.firstContent() != null) {
+                return response.firstContent();
             }
         } catch (Exception e) {
             e.printStackTrace();
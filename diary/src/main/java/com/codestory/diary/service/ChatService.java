@@ -1,19 +1,39 @@
 package com.codestory.diary.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.codestory.diary.client.OpenAiApiClient;
+import com.codestory.diary.client.dto.ChatCompletionRequest;
+import com.codestory.diary.client.dto.ChatCompletionResponse;
+import com.codestory.diary.dto.ChatHistoryPageDto;
+import com.codestory.diary.dto.ChatResponseDto;
 import com.codestory.diary.entity.ChatMessage;
 import com.codestory.diary.repository.ChatMessageRepository;
 
@@ -27,10 +47,10 @@ public class ChatService {
     private final MemoryService memoryService;
     private final PiiMaskingService piiMaskingService;
     private final PetService petService;
-    private final RestTemplate restTemplate = new RestTemplate();
-
-    @Value("${openai.api.key}")
-    private String apiKey;
+    private final ExecutorService chatContextExecutor;
+    private final OpenAiApiClient openAiApiClient;
+    private final ConversationSessionCache sessionCache; // 사용자별 최근 대화 세션 캐시
+    private final SemanticResponseCache semanticCache;   // 의미 기반 응답 캐시 (반복 질문 LLM 생략)
 
     @Value("${openai.model}")
     private String model;
@@ -50,8 +70,25 @@ public class ChatService {
     @Value("${ai.response.temperature:0.5}")
     private double temperature;
 
-    private static final String API_URL = "https://api.openai.com/v1/chat/completions";
-    private static final int MAX_HISTORY = 5; // 최근 대화 히스토리 개수 제한 (속도 최적화)
+    // LLM 호출 전 컨텍스트(히스토리/기억/마스킹) 병렬 수집 전체 마감 시간
+    @Value("${ai.context.timeout-ms:3000}")
+    private long contextTimeoutMs;
+
+    // 의미 캐시 대상 질문의 최소 길이 (짧은 맞장구/후속 질문은 대화 맥락에 따라 답이 달라짐)
+    @Value("${ai.semantic-cache.chat.min-length:12}")
+    private int semanticCacheMinLength;
+
+    private static final String FALLBACK_ERROR_RESPONSE = "죄송해요, 지금은 답변을 생성할 수 없어요. 잠시 후 다시 시도해주세요.";
+    private static final String FALLBACK_EMPTY_RESPONSE = "응답을 생성할 수 없어요. 다시 시도해주세요.";
+    private static final int MAX_HISTORY_PAGE_SIZE = 100; // 히스토리 페이지 최대 크기
+    private static final int EXPORT_PAGE_SIZE = 500;      // NDJSON 내보내기 시 한 번에 읽는 행 수
+    private static final String EMOTION_TAG_PREFIX = "[EMOTION:"; // 스트리밍 시 클라이언트에 보내지 않는 감정 태그
+
+    // 앞 대화를 가리키는 표현으로 시작하는 메시지 → 독립 질문이 아니므로 의미 캐시 제외
+    private static final List<String> CONTEXT_DEPENDENT_PREFIXES = List.of(
+            "그래서", "그러면", "그럼", "그런데", "근데", "그리고", "그건", "그거", "그게", "그때", "그래",
+            "아까", "방금", "거기", "응", "네", "아니", "왜", "고마워");
+
 
     /**
      * 사용자 메시지를 받아 AI 응답을 생성하고, 대화를 저장 및 학습
@@ -63,21 +100,172 @@ public class ChatService {
     @Transactional
     public com.codestory.diary.dto.ChatResponseDto chat(Long userId, String userMessage) {
         System.out.println("🎯 [ChatService] 호출됨 - User: " + userId + ", Message: " + userMessage);
-        String userIdString = String.valueOf(userId);
 
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 1. 과거 대화 히스토리 로드 (최근 N개)
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        List<ChatMessage> recentMessages = chatMessageRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        List<ChatMessage> limitedHistory = recentMessages.stream()
-                .limit(MAX_HISTORY)
-                .sorted((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt())) // 시간 순서대로 정렬
-                .collect(Collectors.toList());
+        // 0. 질문 임베딩 (턴당 1회: 캐시 조회/기억 검색/기억 저장에 공유) → 독립 질문만 의미 기반 캐시 조회
+        float[] queryVector = embedQuietly(userMessage);
+        boolean cacheable = isStandaloneQuestion(userMessage);
+        String aiResponse = cacheable
+                ? semanticCache.lookup(SemanticResponseCache.SCOPE_CHAT, userId, queryVector).orElse(null)
+                : null;
+        boolean cacheHit = aiResponse != null;
 
+        if (cacheHit) {
+            System.out.println("⚡ [ChatService] 의미 캐시 HIT - LLM 호출 생략");
+        } else {
+            // 1~4. 히스토리 + RAG 기억 + PII 마스킹 → LLM 메시지 구성
+            List<Map<String, Object>> messages = buildChatMessages(userId, userMessage, queryVector);
+
+            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            // 5. 강화된 OpenAI API 호출 (재시도 로직 포함)
+            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            aiResponse = generateAiResponseWithRetry(messages, 2);
+            if (cacheable) {
+                cacheResponse(userId, queryVector, aiResponse);
+            }
+        }
+
+        // 5.5~9. 품질 검수, 대화 저장, 벡터 학습, 감정 파싱, Pet 상호작용
+        return completeTurn(userId, userMessage, queryVector, aiResponse, cacheHit, false);
+    }
+
+    /**
+     * ✨ [스트리밍] 사용자 메시지에 대한 AI 응답을 토큰 단위로 SSE 전송
+     *
+     * [이벤트 형식]
+     * - token: {"token": "..."}            → 생성되는 즉시 전달 ("[EMOTION:" 감정 태그는 제외)
+     * - done:  {"response": "...", "emotion": "..."} → 검수/저장이 끝난 최종 응답 (POST /api/chat 과 동일한 형식)
+     *          클라이언트는 token으로 그린 텍스트를 done.response로 교체해야 함
+     *          (스트리밍한 답변은 길이 축약을 하지 않으므로 보통은 동일, 부적절한 표현 제거 등으로 달라질 수 있음)
+     * - error: {"message": "..."}
+     *
+     * 대화 저장과 벡터 학습은 스트림이 끝난 뒤 한 번만 수행됩니다.
+     * 클라이언트 연결 종료/시간 초과 시 전송만 멈추고, 생성된 답변은 그대로 저장합니다.
+     *
+     * @param userId 사용자 ID
+     * @param userMessage 사용자 메시지
+     * @param emitter 응답을 전달할 SSE Emitter
+     */
+    @Async("chatStreamExecutor")
+    public void chatStream(Long userId, String userMessage, SseEmitter emitter) {
+        System.out.println("🎯 [ChatService] 스트리밍 호출됨 - User: " + userId + ", Message: " + userMessage);
+
+        // 연결 종료/시간 초과 이후에는 이벤트 전송 생략 (응답 생성·저장은 계속)
+        AtomicBoolean closed = new AtomicBoolean(false);
+        emitter.onCompletion(() -> closed.set(true));
+        emitter.onError(e -> closed.set(true));
+        emitter.onTimeout(() -> {
+            closed.set(true);
+            System.out.println("⚠️ [ChatService] 스트리밍 시간 초과 (userId: " + userId + ")");
+            emitter.complete();
+        });
+
+        try {
+            // 의미 기반 캐시 HIT (독립 질문만) → 스트리밍 없이 바로 done 이벤트 전송
+            float[] queryVector = embedQuietly(userMessage);
+            boolean cacheable = isStandaloneQuestion(userMessage);
+            String cachedResponse = cacheable
+                    ? semanticCache.lookup(SemanticResponseCache.SCOPE_CHAT, userId, queryVector).orElse(null)
+                    : null;
+            if (cachedResponse != null) {
+                System.out.println("⚡ [ChatService] 의미 캐시 HIT - LLM 호출 생략");
+                com.codestory.diary.dto.ChatResponseDto result = completeTurn(userId, userMessage, queryVector, cachedResponse, true, false);
+                sendDone(emitter, closed, result);
+                return;
+            }
+
+            List<Map<String, Object>> messages = buildChatMessages(userId, userMessage, queryVector);
+
+            // 토큰 전달: "[EMOTION:xxx]" 태그 이후는 보내지 않고,
+            // 끝부분이 태그의 앞부분("[", "[EMO" 등)일 때만 다음 토큰까지 보류
+            StringBuilder fullResponse = new StringBuilder();
+            int[] forwardedLength = {0};
+            String aiResponse;
+            try {
+                streamAiResponse(messages, token -> {
+                    fullResponse.append(token);
+                    int safeEnd = streamableLength(fullResponse);
+                    if (safeEnd > forwardedLength[0] && !closed.get()) {
+                        sendEvent(emitter, "token", Map.of("token", fullResponse.substring(forwardedLength[0], safeEnd)));
+                        forwardedLength[0] = safeEnd;
+                    }
+                });
+                aiResponse = fullResponse.toString().trim();
+            } catch (Exception e) {
+                if (forwardedLength[0] > 0) {
+                    throw e;
+                }
+                // 첫 토큰 이전 실패 → 기존 블로킹 방식으로 재시도
+                System.out.println("⚠️ 스트리밍 실패, 일반 호출로 전환: " + e.getMessage());
+                aiResponse = generateAiResponseWithRetry(messages, 1);
+            }
+            if (cacheable) {
+                cacheResponse(userId, queryVector, aiResponse);
+            }
+
+            // 이미 토큰을 보낸 답변은 축약하지 않음 (화면에 그린 내용과 최종 응답이 어긋나지 않도록)
+            com.codestory.diary.dto.ChatResponseDto result = completeTurn(
+                    userId, userMessage, queryVector, aiResponse, false, forwardedLength[0] > 0);
+            sendDone(emitter, closed, result);
+
+        } catch (Exception e) {
+            System.err.println("❌ [ChatService] 스트리밍 실패 (userId: " + userId + "): " + e.getMessage());
+            if (closed.get()) {
+                return;
+            }
+            try {
+                sendEvent(emitter, "error", Map.of("message", "죄송해요, 지금은 답변을 생성할 수 없어요. 잠시 후 다시 시도해주세요."));
+                emitter.complete();
+            } catch (Exception ignored) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    /**
+     * 지금까지 받은 텍스트 중 클라이언트에 보내도 되는 길이
+     * - "[EMOTION:" 태그가 있으면 그 앞까지
+     * - 끝부분이 태그의 앞부분과 겹치면("...[EM") 그 앞까지 보류 (다음 토큰에서 판단)
+     * - 그 외 '['는 일반 텍스트로 그대로 전송
+     */
+    static int streamableLength(CharSequence text) {
+        String value = text.toString();
+        int tagStart = value.indexOf(EMOTION_TAG_PREFIX);
+        if (tagStart >= 0) {
+            return tagStart;
+        }
+        int maxOverlap = Math.min(EMOTION_TAG_PREFIX.length() - 1, value.length());
+        for (int overlap = maxOverlap; overlap > 0; overlap--) {
+            if (value.endsWith(EMOTION_TAG_PREFIX.substring(0, overlap))) {
+                return value.length() - overlap;
+            }
+        }
+        return value.length();
+    }
+
+    /**
+     * done 이벤트 전송 후 스트림 종료 (이미 닫힌 연결이면 생략)
+     */
+    private void sendDone(SseEmitter emitter, AtomicBoolean closed, com.codestory.diary.dto.ChatResponseDto result) {
+        if (closed.get()) {
+            return;
+        }
+        sendEvent(emitter, "done", Map.of(
+                "response", result.getContent(),
+                "emotion", result.getEmotion()
+        ));
+        emitter.complete();
+    }
+
+    /**
+     * 히스토리 + RAG 기억 + PII 마스킹된 사용자 메시지로 LLM 요청 메시지 구성
+     */
+    private List<Map<String, Object>> buildChatMessages(Long userId, String userMessage, float[] queryVector) {
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 2. RAG: 벡터 유사도 기반 관련 일기 기억 검색
+        // 1~2. 히스토리 로드 + RAG 기억 검색 + PII 마스킹 (병렬 수집)
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        List<String> relatedMemories = memoryService.findRelatedMemories(userIdString, userMessage);
+        ChatTurnContext context = gatherTurnContext(userId, userMessage, queryVector);
+        List<ChatMessage> limitedHistory = context.getHistory();
+        List<String> relatedMemories = context.getRelatedMemories();
 
         // 관련 기억 컨텍스트 생성 (속도 최적화 버전)
         StringBuilder memoryContext = new StringBuilder();
@@ -106,23 +294,124 @@ public class ChatService {
             messages.add(Map.of("role", msg.getRole(), "content", msg.getContent()));
         }
 
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 4. PII 마스킹: 사용자 메시지에서 개인정보 제거 (LLM 전송 전)
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        String maskedUserMessage = piiMaskingService.maskContent(userMessage);
+        // 현재 사용자 메시지 추가 (PII 마스킹된 버전)
+        messages.add(Map.of("role", "user", "content", context.getMaskedUserMessage()));
 
-        // 현재 사용자 메시지 추가
-        messages.add(Map.of("role", "user", "content", maskedUserMessage));
+        return messages;
+    }
 
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 5. 강화된 OpenAI API 호출 (재시도 로직 포함)
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        String aiResponse = generateAiResponseWithRetry(messages, 2);
+    /**
+     * ✨ LLM 호출 전 컨텍스트 병렬 수집 (가상 스레드 Fan-out)
+     *
+     * 서로 독립적인 세 작업을 동시에 실행하고, 전체에 하나의 마감 시간(ai.context.timeout-ms)을 적용
+     * 1. 과거 대화 히스토리 로드 (최근 N개)
+     * 2. RAG: 관련 기억 검색 (벡터 저장소 + 어휘 색인)
+     *    질문 임베딩은 턴 시작 시 한 번 계산한 queryVector를 넘겨 재사용 → 이 작업 안에서 다시 임베딩하지 않음
+     * 3. PII 마스킹: 사용자 메시지에서 개인정보 제거 (LLM 전송 전)
+     *
+     * 마감 시간 안에 끝나지 않은 히스토리/기억은 빈 값으로 대체하고 취소,
+     * PII 마스킹은 생략할 수 없으므로 호출 스레드에서 직접 수행
+     */
+    private ChatTurnContext gatherTurnContext(Long userId, String userMessage, float[] queryVector) {
+        String userIdString = String.valueOf(userId);
+
+        CompletableFuture<List<ChatMessage>> historyFuture = CompletableFuture.supplyAsync(
+                () -> loadRecentHistory(userId), chatContextExecutor);
+        CompletableFuture<List<String>> memoriesFuture = CompletableFuture.supplyAsync(
+                () -> memoryService.findRelatedMemories(userIdString, userMessage, queryVector), chatContextExecutor);
+        CompletableFuture<String> maskedFuture = CompletableFuture.supplyAsync(
+                () -> piiMaskingService.maskContent(userMessage), chatContextExecutor);
+
+        try {
+            CompletableFuture.allOf(historyFuture, memoriesFuture, maskedFuture)
+                    .get(contextTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("⚠️ 컨텍스트 수집 시간 초과 (" + contextTimeoutMs + "ms) → 완료된 결과만 사용");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // 개별 작업 실패는 아래 resultOrDefault에서 기본값으로 처리
+        }
+
+        String maskedUserMessage = resultOrDefault(maskedFuture, null, "PII 마스킹");
+        if (maskedUserMessage == null) {
+            maskedUserMessage = piiMaskingService.maskContent(userMessage);
+        }
+
+        return ChatTurnContext.builder()
+                .userMessageVector(queryVector)
+                .history(resultOrDefault(historyFuture, List.of(), "대화 히스토리"))
+                .relatedMemories(resultOrDefault(memoriesFuture, List.of(), "관련 기억"))
+                .maskedUserMessage(maskedUserMessage)
+                .build();
+    }
+
+    /**
+     * 최근 대화 히스토리 (최근 N개, 시간순)
+     * - 세션 캐시 HIT: DB 조회 없음
+     * - 세션 캐시 MISS: (user_id, created_at) 인덱스로 최근 N개만 조회 후 캐시에 적재
+     */
+    private List<ChatMessage> loadRecentHistory(Long userId) {
+        return sessionCache.get(userId).orElseGet(() -> {
+            List<ChatMessage> recentMessages = new ArrayList<>(chatMessageRepository.findByUserIdOrderByCreatedAtDescIdDesc(
+                    userId, PageRequest.of(0, sessionCache.getMaxTurns())));
+            Collections.reverse(recentMessages); // 최신순 → 시간순
+            return sessionCache.load(userId, recentMessages);
+        });
+    }
+
+    /**
+     * 저장한 대화를 커밋 후에 세션 캐시에 반영
+     * - 커밋 전에 넣으면 롤백(예: PetStatus 낙관적 락 실패) 시 DB에 없는 대화가 LLM 문맥에 남음
+     * - 트랜잭션 밖(스트리밍 경로)에서는 저장이 이미 끝났으므로 바로 반영
+     */
+    private void appendToSessionAfterCommit(Long userId, ChatMessage... messages) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sessionCache.append(userId, messages);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sessionCache.append(userId, messages);
+            }
+        });
+    }
+
+    /**
+     * 완료된 작업은 결과를, 미완료/실패 작업은 취소 후 기본값 반환
+     */
+    private <T> T resultOrDefault(CompletableFuture<T> future, T defaultValue, String taskName) {
+        if (!future.isDone()) {
+            future.cancel(true);
+            System.out.println("⚠️ [" + taskName + "] 마감 시간 내 미완료 → 기본값 사용");
+            return defaultValue;
+        }
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            System.err.println("⚠️ [" + taskName + "] 수집 실패 → 기본값 사용: " + e.getMessage());
+            return defaultValue;
+        }
+    }
+
+    /**
+     * LLM 응답 이후 공통 처리: 품질 검수 → 대화 저장 → 벡터 학습 → 감정 파싱 → Pet 상호작용
+     * (일반 호출과 스트리밍 호출 모두 이 메서드로 한 번만 저장)
+     *
+     * @param userMessageVector 턴 시작 시 계산한 사용자 메시지 임베딩 (null이면 저장 시 새로 계산)
+     * @param reusedResponse 의미 캐시에서 재사용한 답변 여부 (true면 AI 응답 기억 저장과 Pet EXP 생략)
+     * @param streamed 토큰을 이미 클라이언트에 보낸 답변 여부 (true면 길이 축약 생략)
+     */
+    private com.codestory.diary.dto.ChatResponseDto completeTurn(Long userId, String userMessage,
+                                                                 float[] userMessageVector, String aiResponse,
+                                                                 boolean reusedResponse, boolean streamed) {
+        String userIdString = String.valueOf(userId);
 
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 5.5. 품질 검수: 답변이 너무 길거나 부적절한 경우 재생성
+        // 5.5. 품질 검수: 답변이 너무 길거나 부적절한 경우 재생성 (스트리밍한 답변은 축약 생략)
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        aiResponse = validateAndRefineResponse(aiResponse);
+        aiResponse = validateAndRefineResponse(aiResponse, !streamed);
 
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         // 6. 대화 저장: 사용자 메시지 (원본) + AI 응답
@@ -140,13 +429,17 @@ public class ChatService {
                 .content(aiResponse)
                 .build();
         chatMessageRepository.save(assistantMsg);
+        appendToSessionAfterCommit(userId, userMsg, assistantMsg);
 
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         // 7. 벡터 DB에 저장 (학습): Fire-and-Forget 비동기 호출
         //    사용자 응답 반환에 영향 없이 백그라운드로 학습
+        //    (캐시에서 재사용한 답변은 이미 기억에 있으므로 다시 저장하지 않음)
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        memoryService.saveMemoryAsync(userIdString, userMessage);
-        memoryService.saveMemoryAsync(userIdString, "AI 응답: " + aiResponse);
+        memoryService.saveMemoryAsync(userIdString, userMessage, userMessageVector); // 턴 시작 시 계산한 임베딩 재사용
+        if (!reusedResponse) {
+            memoryService.saveMemoryAsync(userIdString, MemoryService.ASSISTANT_MEMORY_PREFIX + aiResponse);
+        }
 
         System.out.println("✅ [ChatService] 응답 생성 완료: " + aiResponse);
 
@@ -196,9 +489,11 @@ public class ChatService {
         }
 
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 9. Pet 상호작용: 30% 확률로 EXP 부여
+        // 9. Pet 상호작용: 30% 확률로 EXP 부여 (캐시 재사용 답변은 제외)
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        petService.onChatInteraction(userId);
+        if (!reusedResponse) {
+            petService.onChatInteraction(userId);
+        }
 
         return com.codestory.diary.dto.ChatResponseDto.builder()
                 .role("assistant")
@@ -209,17 +504,94 @@ public class ChatService {
     }
 
     /**
-     * 특정 사용자의 전체 채팅 히스토리 조회
+     * ✨ 채팅 히스토리 커서 페이지 조회 (Keyset Pagination)
      *
      * @param userId 사용자 ID
-     * @return 채팅 메시지 리스트 (시간순)
+     * @param beforeCursor 이전 페이지의 nextCursor (null이면 가장 최근 페이지)
+     * @param limit 페이지 크기 (1 ~ MAX_HISTORY_PAGE_SIZE)
+     * @return 시간순 메시지 + 더 오래된 페이지 커서
      */
     @Transactional(readOnly = true)
-    public List<ChatMessage> getChatHistory(Long userId) {
-        List<ChatMessage> messages = chatMessageRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        // 시간 순서대로 정렬하여 반환
-        messages.sort((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()));
-        return messages;
+    public ChatHistoryPageDto getChatHistoryPage(Long userId, String beforeCursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        PageRequest page = PageRequest.of(0, pageSize + 1); // 1개 더 조회해서 다음 페이지 존재 여부 판단
+
+        List<ChatMessage> rows;
+        if (beforeCursor == null || beforeCursor.isBlank()) {
+            rows = chatMessageRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, page);
+        } else {
+            ChatMessageCursor cursor = ChatMessageCursor.decode(beforeCursor);
+            rows = chatMessageRepository.findPageBefore(userId, cursor.createdAt(), cursor.id(), page);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatMessage> pageRows = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        String nextCursor = hasMore ? ChatMessageCursor.of(pageRows.get(pageRows.size() - 1)).encode() : null;
+        Collections.reverse(pageRows); // 최신순 → 시간순
+
+        return ChatHistoryPageDto.builder()
+                .messages(pageRows.stream().map(this::toHistoryDto).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * ✨ 채팅 히스토리 전체 내보내기 (시간순, 상수 메모리)
+     * EXPORT_PAGE_SIZE 단위 Keyset 페이지를 순서대로 읽어 sink로 전달 (전체를 메모리에 올리지 않음)
+     *
+     * @param userId 사용자 ID
+     * @param sink 메시지 소비자 (NDJSON 한 줄씩 기록)
+     * @param onPageEnd 페이지마다 호출 (flush 용)
+     */
+    public void exportChatHistory(Long userId, Consumer<ChatResponseDto> sink, Runnable onPageEnd) {
+        PageRequest page = PageRequest.of(0, EXPORT_PAGE_SIZE);
+        List<ChatMessage> rows = chatMessageRepository.findByUserIdOrderByCreatedAtAscIdAsc(userId, page);
+
+        while (!rows.isEmpty()) {
+            rows.forEach(row -> sink.accept(toHistoryDto(row)));
+            onPageEnd.run();
+
+            if (rows.size() < EXPORT_PAGE_SIZE) {
+                break;
+            }
+            ChatMessage last = rows.get(rows.size() - 1);
+            rows = chatMessageRepository.findPageAfter(userId, last.getCreatedAt(), last.getId(), page);
+        }
+    }
+
+    private ChatResponseDto toHistoryDto(ChatMessage msg) {
+        return ChatResponseDto.builder()
+                .role(msg.getRole())
+                .content(msg.getContent())
+                .timestamp(msg.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * 히스토리 커서: (created_at, id) → Base64URL 문자열
+     */
+    private record ChatMessageCursor(LocalDateTime createdAt, Long id) {
+
+        static ChatMessageCursor of(ChatMessage message) {
+            return new ChatMessageCursor(message.getCreatedAt(), message.getId());
+        }
+
+        static ChatMessageCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('_');
+                return new ChatMessageCursor(LocalDateTime.parse(raw.substring(0, sep)),
+                        Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+            }
+        }
+
+        String encode() {
+            String raw = createdAt + "_" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -232,30 +604,13 @@ public class ChatService {
     private String generateAiResponseWithRetry(List<Map<String, Object>> messages, int maxRetries) {
         for (int attempt = 0; attempt <= maxRetries; attempt++) {
             try {
-                HttpHeaders headers = new HttpHeaders();
-                headers.set("Authorization", "Bearer " + apiKey);
-                headers.set("Content-Type", "application/json");
-
-                Map<String, Object> requestBody = new HashMap<>();
-                requestBody.put("model", model);
-                requestBody.put("messages", messages);
-                requestBody.put("max_tokens", maxTokens); // Feature Flag로 제어
-                requestBody.put("temperature", temperature); // Feature Flag로 제어
-
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-                ResponseEntity<Map> response = restTemplate.postForEntity(API_URL, entity, Map.class);
-
-                if (response.getBody() != null && response.getBody().containsKey("choices")) {
-                    List<Map<String, Object>> choices = (List<Map<String, Object>>) response.getBody().get("choices");
-                    if (!choices.isEmpty()) {
-                        Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-                        String content = (String) message.get("content");
-
-                        // 빈 응답이 아니면 성공
-                        if (content != null && !content.trim().isEmpty()) {
-                            return content.trim();
-                        }
-                    }
+                ChatCompletionResponse response = openAiApiClient.chatCompletion(
+                        buildCompletionRequest(messages));
+                String content = response != null ? response.firstContent() : null;
+
+                // 빈 응답이 아니면 성공
+                if (content != null && !content.trim().isEmpty()) {
+                    return content.trim();
                 }
 
                 // 재시도
@@ -267,18 +622,94 @@ public class ChatService {
             } catch (Exception e) {
                 e.printStackTrace();
                 if (attempt == maxRetries) {
-                    return "죄송해요, 지금은 답변을 생성할 수 없어요. 잠시 후 다시 시도해주세요.";
+                    return FALLBACK_ERROR_RESPONSE;
                 }
             }
         }
 
-        return "응답을 생성할 수 없어요. 다시 시도해주세요.";
+        return FALLBACK_EMPTY_RESPONSE;
+    }
+
+    /**
+     * 질문 임베딩 (실패 시 null → 캐시 조회 생략, 기억 검색은 자체적으로 재시도)
+     */
+    private float[] embedQuietly(String text) {
+        try {
+            return memoryService.embed(text);
+        } catch (Exception e) {
+            System.err.println("⚠️ 질문 임베딩 실패 (의미 캐시 생략): " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 의미 캐시 대상 여부: 앞 대화 없이도 뜻이 통하는 독립 질문만
+     * - "응", "고마워", "그래서?" 같은 짧은 후속 메시지는 서로 임베딩이 매우 가까워
+     *   다른 대화에서 만든 답변이 재사용될 수 있으므로 제외
+     */
+    boolean isStandaloneQuestion(String userMessage) {
+        if (userMessage == null) {
+            return false;
+        }
+        String trimmed = userMessage.strip();
+        if (trimmed.length() < semanticCacheMinLength) {
+            return false;
+        }
+        for (String prefix : CONTEXT_DEPENDENT_PREFIXES) {
+            if (trimmed.startsWith(prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 정상 생성된 응답만 의미 캐시에 저장 (실패 안내 문구는 저장하지 않음)
+     */
+    private void cacheResponse(Long userId, float[] queryVector, String aiResponse) {
+        if (aiResponse == null || aiResponse.isBlank()
+                || FALLBACK_ERROR_RESPONSE.equals(aiResponse) || FALLBACK_EMPTY_RESPONSE.equals(aiResponse)) {
+            return;
+        }
+        semanticCache.put(SemanticResponseCache.SCOPE_CHAT, userId, queryVector, aiResponse);
+    }
+
+    /**
+     * OpenAI Chat Completions 스트리밍 호출 (토큰 단위 콜백)
+     */
+    private void streamAiResponse(List<Map<String, Object>> messages, Consumer<String> onToken) {
+        openAiApiClient.streamChatCompletion(buildCompletionRequest(messages), onToken);
+    }
+
+    /**
+     * Chat Completions 요청 생성 (max_tokens/temperature는 Feature Flag로 제어)
+     */
+    private ChatCompletionRequest buildCompletionRequest(List<Map<String, Object>> messages) {
+        return ChatCompletionRequest.builder()
+                .model(model)
+                .messages(messages)
+                .maxTokens(maxTokens)
+                .temperature(temperature)
+                .build();
+    }
+
+    /**
+     * SSE 이벤트 전송 (JSON 데이터 → 토큰 앞 공백이 SSE 파서에서 잘리지 않도록)
+     */
+    private void sendEvent(SseEmitter emitter, String name, Map<String, Object> data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException("SSE 전송 실패 (클라이언트 연결 종료)", e);
+        }
     }
 
     /**
      * 응답 품질 검수 및 정제
+     *
+     * @param allowTruncation 120자 초과 시 축약 여부 (이미 스트리밍한 답변은 false)
      */
-    private String validateAndRefineResponse(String response) {
+    private String validateAndRefineResponse(String response, boolean allowTruncation) {
         // 1. 빈 응답 체크
         if (response == null || response.trim().isEmpty()) {
             return "잘 들었어요. 언제든 이야기해주세요.";
@@ -287,7 +718,7 @@ public class ChatService {
         String refined = response.trim();
 
         // 2. 너무 긴 응답 (120자 초과) 체크 및 축약 (속도 최적화)
-        if (refined.length() > 120) {
+        if (allowTruncation && refined.length() > 120) {
             // 첫 2문장만 추출 (마침표 기준)
             String[] sentences = refined.split("[.!?]");
             if (sentences.length > 1) {
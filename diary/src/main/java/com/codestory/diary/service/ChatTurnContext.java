@@ -0,0 +1,26 @@
+package com.codestory.diary.service;
+
+import java.util.List;
+
+import com.codestory.diary.entity.ChatMessage;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 채팅 1턴에 필요한 컨텍스트 묶음 (LLM 호출 전 병렬 수집 결과)
+ *
+ * - history:           최근 대화 히스토리 (시간순)
+ * - relatedMemories:   RAG 검색으로 찾은 관련 기억
+ * - maskedUserMessage: PII 마스킹된 사용자 메시지 (LLM 전송용)
+ * - userMessageVector: 사용자 메시지 임베딩 (턴당 1회 계산 → 의미 캐시 조회, 기억 검색, 기억 저장에 공유)
+ */
+@Getter
+@Builder
+public class ChatTurnContext {
+
+    private final List<ChatMessage> history;
+    private final List<String> relatedMemories;
+    private final String maskedUserMessage;
+    private final float[] userMessageVector;
+}
@@ -0,0 +1,95 @@
+package com.codestory.diary.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.codestory.diary.entity.ChatMessage;
+
+/**
+ * 사용자별 최근 대화 세션 캐시 (in-process)
+ *
+ * [목적]
+ * - 매 채팅 턴마다 전체 히스토리를 DB에서 읽지 않도록 최근 N개 메시지만 메모리에 유지
+ * - ChatService가 메시지를 저장할 때 캐시도 바로 갱신 (DB 재조회 불필요)
+ *
+ * [한도]
+ * - 사용자당 최근 ai.chat.history-size 개 메시지
+ * - 최대 ai.chat.session-cache.max-users 명 (초과 시 가장 오래 사용하지 않은 사용자부터 제거)
+ */
+@Component
+public class ConversationSessionCache {
+
+    private final int maxTurns;
+    private final Map<Long, Deque<ChatMessage>> sessions;
+
+    public ConversationSessionCache(
+            @Value("${ai.chat.history-size:5}") int maxTurns,
+            @Value("${ai.chat.session-cache.max-users:10000}") int maxUsers) {
+        this.maxTurns = maxTurns;
+        this.sessions = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Deque<ChatMessage>> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    /**
+     * 캐시된 최근 대화 (시간순). 캐시에 없으면 empty
+     */
+    public synchronized Optional<List<ChatMessage>> get(Long userId) {
+        Deque<ChatMessage> session = sessions.get(userId);
+        return session == null ? Optional.empty() : Optional.of(new ArrayList<>(session));
+    }
+
+    /**
+     * DB에서 읽어온 최근 대화로 세션 초기화 (시간순 리스트)
+     * 이미 다른 스레드가 채워 둔 세션이 있으면 덮어쓰지 않음
+     */
+    public synchronized List<ChatMessage> load(Long userId, List<ChatMessage> recentMessages) {
+        Deque<ChatMessage> session = sessions.computeIfAbsent(userId, id -> {
+            Deque<ChatMessage> loaded = new ArrayDeque<>(maxTurns);
+            for (ChatMessage message : recentMessages) {
+                appendBounded(loaded, message);
+            }
+            return loaded;
+        });
+        return new ArrayList<>(session);
+    }
+
+    /**
+     * 새로 저장된 메시지를 세션 끝에 추가 (세션이 없으면 다음 조회 시 DB에서 로드)
+     */
+    public synchronized void append(Long userId, ChatMessage... messages) {
+        Deque<ChatMessage> session = sessions.get(userId);
+        if (session == null) {
+            return;
+        }
+        for (ChatMessage message : messages) {
+            appendBounded(session, message);
+        }
+    }
+
+    public synchronized void evict(Long userId) {
+        sessions.remove(userId);
+    }
+
+    private void appendBounded(Deque<ChatMessage> session, ChatMessage message) {
+        session.addLast(message);
+        while (session.size() > maxTurns) {
+            session.removeFirst();
+        }
+    }
+}
@@ -21,7 +21,8 @@ import com.codestory.diary.entity.Comment;
 import com.codestory.diary.entity.Diary;
 import com.codestory.diary.entity.Likes;
 import com.codestory.diary.entity.Member;
-import com.codestory.diary.neo4j.GraphService;
+import com.codestory.diary.memory.LexicalMemoryIndex;
+import com.codestory.diary.neo4j.GraphIngestionQueue;
 import com.codestory.diary.repository.CommentRepository;
 import com.codestory.diary.repository.DiaryRepository;
 import com.codestory.diary.repository.LikesRepository;
@@ -39,9 +40,11 @@ public class DiaryService {
     private final LikesRepository likesRepository;
     private final AiService aiService;
     private final MemoryService memoryService;
-    private final GraphService graphService;
+    private final GraphIngestionQueue graphIngestionQueue; // 그래프 저장 전용 파이프라인 (사용자별 순서 보장)
     private final PiiMaskingService piiMaskingService;
     private final ChatService chatService; // ✨ 대화 히스토리 관리 및 LLM 검수 강화
+    private final SemanticResponseCache semanticCache;
+    private final LexicalMemoryIndex lexicalIndex; // 일기 본문도 BM25 어휘 검색 대상
     private final String UPLOAD_DIR = System.getProperty("user.dir") + "/uploads/";
 
     @Transactional
@@ -67,6 +70,9 @@ public class DiaryService {
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         String currentDiaryText = request.getContent();
 
+        // 새 일기 → 이전 답변은 더 이상 최신 상태가 아니므로 의미 캐시 무효화
+        semanticCache.invalidateUser(request.getUserId());
+
         // ChatService를 통해 대화 히스토리를 참고한 AI 응답 생성
         // (내부적으로 RAG, PII 마스킹, 대화 저장 모두 처리됨)
         com.codestory.diary.dto.ChatResponseDto aiReplyDto = chatService.chat(request.getUserId(), currentDiaryText);
@@ -91,6 +97,7 @@ public class DiaryService {
                 .build();
 
         Diary saved = diaryRepository.save(newDiary);
+        lexicalIndex.addDiary(saved);
 
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         // Neo4j 그래프 데이터베이스에 일기 저장 (감정 관계 그래프 생성)
@@ -99,8 +106,11 @@ public class DiaryService {
         try {
             // ✨ Fire-and-Forget 비동기 호출: 그래프 저장이 끝날 때까지 사용자 기다리지 않음
             String maskedContent = piiMaskingService.maskContent(currentDiaryText);
-            graphService.saveDiaryToGraphAsync(request.getUserId(), maskedContent);
-            System.out.println("🚀 Neo4j 그래프 저장 비동기 시작 (User ID: " + request.getUserId() + ", Diary ID: " + saved.getId() + ")");
+            if (graphIngestionQueue.submitOrIngest(request.getUserId(), maskedContent)) {
+                System.out.println("🚀 Neo4j 그래프 저장 비동기 시작 (User ID: " + request.getUserId() + ", Diary ID: " + saved.getId() + ")");
+            } else {
+                System.out.println("⚠️ 그래프 저장 대기열 가득 참 → 동기 저장 완료 (User ID: " + request.getUserId() + ", Diary ID: " + saved.getId() + ")");
+            }
         } catch (Exception e) {
             System.err.println("❌ Neo4j 저장 실패 (일기 작성은 정상 완료): " + e.getMessage());
             e.printStackTrace();
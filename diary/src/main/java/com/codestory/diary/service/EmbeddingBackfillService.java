@@ -0,0 +1,407 @@
+package com.codestory.diary.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Service;
+
+import com.codestory.diary.config.Neo4jVectorIndexes;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 전체 그래프 임베딩 백필 (재시작 가능 / 병렬 / 호출량 제한)
+ *
+ * [동작]
+ * 1. 현재 제공자 벡터 속성이 없는 노드를 라벨별(Event → Emotion → Action)로 (name, elementId) 순 keyset 페이지 조회
+ *    - {label}.name 범위 인덱스로 커서 위치부터 바로 탐색 → 페이지마다 전체 노드를 정렬하지 않음
+ *    (페이지 크기 = parallelism × chunk-size)
+ * 2. 페이지를 chunk-size 단위로 나눠 가상 스레드에서 동시에 처리 (임베딩 1회 + UNWIND 저장 1회)
+ *    - 모든 청크는 requests-per-minute 예산을 공유 → OpenAI 호출량 상한 유지
+ * 3. 페이지가 끝날 때마다 (:EmbeddingBackfill {property}) 노드에 커서(라벨, name, elementId) / 처리 수 기록
+ *    → 재시작 시 이어서 진행 (resume-on-startup)
+ * 4. 진행률 / 처리량 / 예상 남은 시간은 /actuator/embeddingbackfill 로 조회
+ *
+ * 실패한 청크는 건너뛰고 failed에 집계 → 완료 후 restart=true로 다시 실행하면 남은 노드만 처리
+ */
+@Slf4j
+@Service
+public class EmbeddingBackfillService {
+
+    static final List<String> LABELS = List.of("Event", "Emotion", "Action");
+
+    /**
+     * 라벨별 keyset 페이지 (%s = LABELS 중 하나)
+     * n.name >= $afterName 은 {label}_name 인덱스 범위 탐색 → 인덱스 순서로 읽으므로 name 정렬 비용 없음
+     */
+    private static final String FIND_PAGE_QUERY = """
+        MATCH (n:%s)
+        WHERE n.name >= $afterName
+          AND (n.name > $afterName OR elementId(n) > $afterNodeId)
+          AND n[$property] IS NULL
+        WITH n ORDER BY n.name, elementId(n)
+        LIMIT $pageSize
+        RETURN elementId(n) AS nodeId, n.name AS name, head([(u:User)-->(n) | u.userId]) AS userId
+    """;
+
+    private static final String COUNT_REMAINING_QUERY = """
+        MATCH (n)
+        WHERE (n:Event OR n:Emotion OR n:Action)
+          AND n.name IS NOT NULL
+          AND n[$property] IS NULL
+        RETURN count(n) AS remaining
+    """;
+
+    private static final String LOAD_CHECKPOINT_QUERY = """
+        MATCH (c:EmbeddingBackfill {property: $property})
+        RETURN c.lastLabel AS lastLabel, c.lastName AS lastName, c.lastNodeId AS lastNodeId,
+               c.processed AS processed, c.status AS status
+    """;
+
+    private static final String SAVE_CHECKPOINT_QUERY = """
+        MERGE (c:EmbeddingBackfill {property: $property})
+        SET c.lastLabel = $lastLabel, c.lastName = $lastName, c.lastNodeId = $lastNodeId,
+            c.processed = $processed, c.status = $status, c.updatedAt = datetime()
+    """;
+
+    public enum Status { IDLE, RUNNING, STOPPING, COMPLETED, FAILED }
+
+    private final Neo4jClient neo4jClient;
+    private final EmbeddingService embeddingService;
+    private final GraphVersionService graphVersionService;
+    private final Neo4jVectorIndexes vectorIndexes;
+    private final int parallelism;
+    private final int chunkSize;
+    private final RequestBudget budget;
+    private final boolean resumeOnStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean stopRequested = new AtomicBoolean(false);
+    private volatile boolean shuttingDown;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong processedThisRun = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final ExecutorService runner =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("Embedding-Backfill").daemon(true).factory());
+
+    private volatile Status status = Status.IDLE;
+    private volatile Cursor cursor = Cursor.START;
+    private volatile long remainingAtStart;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String lastError;
+
+    public EmbeddingBackfillService(
+            Neo4jClient neo4jClient,
+            EmbeddingService embeddingService,
+            GraphVersionService graphVersionService,
+            Neo4jVectorIndexes vectorIndexes,
+            @Value("${embedding.backfill.parallelism:8}") int parallelism,
+            @Value("${embedding.backfill.chunk-size:64}") int chunkSize,
+            @Value("${embedding.backfill.requests-per-minute:500}") int requestsPerMinute,
+            @Value("${embedding.backfill.resume-on-startup:true}") boolean resumeOnStartup) {
+        this.neo4jClient = neo4jClient;
+        this.embeddingService = embeddingService;
+        this.graphVersionService = graphVersionService;
+        this.vectorIndexes = vectorIndexes;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.budget = new RequestBudget(requestsPerMinute);
+        this.resumeOnStartup = resumeOnStartup;
+    }
+
+    /**
+     * 중단된 백필(체크포인트 status=RUNNING)이 있으면 이어서 실행
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeIfInterrupted() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        try {
+            loadCheckpoint()
+                    .filter(checkpoint -> Status.RUNNING.name().equals(checkpoint.get("status")))
+                    .ifPresent(checkpoint -> {
+                        log.info("🔁 [Backfill] 중단된 임베딩 백필 재개 ({})", Cursor.fromCheckpoint(checkpoint));
+                        start(false);
+                    });
+        } catch (Exception e) {
+            log.warn("⚠️ [Backfill] 체크포인트 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 백필 시작 (이미 실행 중이면 false)
+     *
+     * @param restart true: 체크포인트를 무시하고 처음부터 (이전 실행에서 실패한 노드 재처리)
+     */
+    public boolean start(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        // 상태는 호출 스레드에서 먼저 갱신 → 응답에 RUNNING이 보이고, 바로 이어진 stop()도 유지됨
+        stopRequested.set(false);
+        processedThisRun.set(0);
+        failed.set(0);
+        lastError = null;
+        finishedAt = null;
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+        runner.execute(() -> run(restart));
+        return true;
+    }
+
+    /**
+     * 현재 페이지까지 처리 후 중단 (체크포인트 유지 → start로 이어서 실행)
+     */
+    public void stop() {
+        if (running.get()) {
+            stopRequested.set(true);
+            status = Status.STOPPING;
+        }
+    }
+
+    private void run(boolean restart) {
+        String property = vectorIndexes.property();
+        try {
+            Optional<Map<String, Object>> checkpoint = restart ? Optional.empty() : loadCheckpoint();
+            cursor = checkpoint.map(Cursor::fromCheckpoint).orElse(Cursor.START);
+            processed.set(checkpoint.map(c -> c.get("processed") instanceof Number n ? n.longValue() : 0L).orElse(0L));
+            remainingAtStart = countRemaining(property);
+            log.info("🚚 [Backfill] 임베딩 백필 시작: property={}, 남은 노드 {}개, 시작 위치 {}",
+                    property, remainingAtStart, cursor);
+
+            while (!stopRequested.get()) {
+                List<Map<String, Object>> page = fetchPage(property, cursor);
+                if (!page.isEmpty()) {
+                    processPage(page);
+                    cursor = cursor.after(page.get(page.size() - 1));
+                } else {
+                    Optional<Cursor> nextLabel = cursor.nextLabel();
+                    if (nextLabel.isEmpty()) {
+                        status = Status.COMPLETED;
+                        break;
+                    }
+                    cursor = nextLabel.get();
+                }
+                saveCheckpoint(property, Status.RUNNING);
+            }
+
+            if (status != Status.COMPLETED) {
+                status = Status.IDLE;
+            }
+            // 애플리케이션 종료로 멈춘 경우 RUNNING으로 남겨 다음 기동 시 재개
+            saveCheckpoint(property, shuttingDown && status != Status.COMPLETED ? Status.RUNNING : status);
+            log.info("✅ [Backfill] 임베딩 백필 {}: 처리 {}개, 실패 {}개", status, processedThisRun.get(), failed.get());
+        } catch (Exception e) {
+            status = Status.FAILED;
+            lastError = e.getMessage();
+            log.error("❌ [Backfill] 임베딩 백필 실패 ({}): {}", cursor, e.getMessage(), e);
+        } finally {
+            finishedAt = Instant.now();
+            running.set(false);
+        }
+    }
+
+    private List<Map<String, Object>> fetchPage(String property, Cursor after) {
+        return new ArrayList<>(neo4jClient.query(FIND_PAGE_QUERY.formatted(after.label()))
+                .bind(property).to("property")
+                .bind(after.name()).to("afterName")
+                .bind(after.nodeId()).to("afterNodeId")
+                .bind(parallelism * chunkSize).to("pageSize")
+                .fetch()
+                .all());
+    }
+
+    /**
+     * 페이지를 청크로 나눠 동시에 처리 (청크마다 요청 예산 1개 사용)
+     */
+    private void processPage(List<Map<String, Object>> page) {
+        // close()가 모든 청크 완료까지 대기 → 페이지 단위로 체크포인트 기록 가능
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int from = 0; from < page.size(); from += chunkSize) {
+                List<Map<String, Object>> chunk = page.subList(from, Math.min(from + chunkSize, page.size()));
+                executor.execute(() -> processChunk(chunk));
+            }
+        }
+
+        // 페이지에 포함된 사용자의 GraphRAG 캐시 무효화
+        Set<Long> userIds = new HashSet<>();
+        for (Map<String, Object> row : page) {
+            if (row.get("userId") instanceof Number userId) {
+                userIds.add(userId.longValue());
+            }
+        }
+        userIds.forEach(graphVersionService::increment);
+    }
+
+    private void processChunk(List<Map<String, Object>> chunk) {
+        List<String> nodeIds = new ArrayList<>(chunk.size());
+        List<String> names = new ArrayList<>(chunk.size());
+        for (Map<String, Object> row : chunk) {
+            String name = (String) row.get("name");
+            if (name != null && !name.isBlank()) {
+                nodeIds.add((String) row.get("nodeId"));
+                names.add(name);
+            }
+        }
+        if (nodeIds.isEmpty()) {
+            return;
+        }
+        try {
+            budget.acquire();
+            int written = embeddingService.embedAndWrite(nodeIds, names);
+            processed.addAndGet(written);
+            processedThisRun.addAndGet(written);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failed.addAndGet(nodeIds.size());
+            lastError = e.getMessage();
+            log.warn("⚠️ [Backfill] 청크 처리 실패 ({}개 노드): {}", nodeIds.size(), e.getMessage());
+        }
+    }
+
+    private long countRemaining(String property) {
+        return neo4jClient.query(COUNT_REMAINING_QUERY)
+                .bind(property).to("property")
+                .fetchAs(Long.class)
+                .one()
+                .orElse(0L);
+    }
+
+    private Optional<Map<String, Object>> loadCheckpoint() {
+        return neo4jClient.query(LOAD_CHECKPOINT_QUERY)
+                .bind(vectorIndexes.property()).to("property")
+                .fetch()
+                .one();
+    }
+
+    private void saveCheckpoint(String property, Status checkpointStatus) {
+        neo4jClient.query(SAVE_CHECKPOINT_QUERY)
+                .bind(property).to("property")
+                .bind(cursor.label()).to("lastLabel")
+                .bind(cursor.name()).to("lastName")
+                .bind(cursor.nodeId()).to("lastNodeId")
+                .bind(processed.get()).to("processed")
+                .bind(checkpointStatus.name()).to("status")
+                .run();
+    }
+
+    /**
+     * 진행 상황 (처리량 = 이번 실행 기준 노드/초, ETA = 남은 노드 / 처리량)
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", status.name());
+        result.put("property", vectorIndexes.property());
+        result.put("processedTotal", processed.get());
+        result.put("processedThisRun", processedThisRun.get());
+        result.put("failed", failed.get());
+        result.put("cursor", cursor.toString());
+        result.put("startedAt", startedAt);
+        result.put("finishedAt", finishedAt);
+
+        long remaining = Math.max(0, remainingAtStart - processedThisRun.get() - failed.get());
+        result.put("remaining", remaining);
+        if (startedAt != null) {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(1, Duration.between(startedAt, end).toMillis()) / 1000.0;
+            double throughput = processedThisRun.get() / seconds;
+            result.put("nodesPerSecond", Math.round(throughput * 10) / 10.0);
+            if (status == Status.RUNNING && throughput > 0) {
+                result.put("etaSeconds", Math.round(remaining / throughput));
+            }
+        }
+        if (lastError != null) {
+            result.put("lastError", lastError);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        shuttingDown = true;
+        stopRequested.set(true);
+        runner.shutdown();
+        runner.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * keyset 커서: 현재 라벨 안에서 마지막으로 처리한 (name, elementId)
+     * 라벨이 끝나면 다음 라벨의 처음("", "")으로 이동
+     */
+    record Cursor(String label, String name, String nodeId) {
+
+        static final Cursor START = new Cursor(LABELS.get(0), "", "");
+
+        /**
+         * 체크포인트 → 커서 (알 수 없는 라벨/이전 형식이면 처음부터, 이미 벡터가 있는 노드는 조회에서 제외되므로 안전)
+         */
+        static Cursor fromCheckpoint(Map<String, Object> checkpoint) {
+            if (!(checkpoint.get("lastLabel") instanceof String label) || !LABELS.contains(label)) {
+                return START;
+            }
+            return new Cursor(label,
+                    checkpoint.get("lastName") instanceof String name ? name : "",
+                    checkpoint.get("lastNodeId") instanceof String nodeId ? nodeId : "");
+        }
+
+        Cursor after(Map<String, Object> lastRow) {
+            return new Cursor(label, (String) lastRow.get("name"), (String) lastRow.get("nodeId"));
+        }
+
+        Optional<Cursor> nextLabel() {
+            int next = LABELS.indexOf(label) + 1;
+            return next < LABELS.size() ? Optional.of(new Cursor(LABELS.get(next), "", "")) : Optional.empty();
+        }
+
+        @Override
+        public String toString() {
+            return label + "(name='" + name + "', nodeId='" + nodeId + "')";
+        }
+    }
+
+    /**
+     * 분당 요청 수 예산 (요청 간격을 균등하게 배분, 모든 청크 스레드가 공유)
+     */
+    static final class RequestBudget {
+
+        private final long intervalNanos;
+        private long nextFreeAt = System.nanoTime();
+
+        RequestBudget(int requestsPerMinute) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, requestsPerMinute);
+        }
+
+        void acquire() throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextFreeAt);
+                nextFreeAt = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
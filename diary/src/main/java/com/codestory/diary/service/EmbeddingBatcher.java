@@ -0,0 +1,215 @@
+package com.codestory.diary.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.codestory.diary.client.OpenAiApiClient;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 임베딩 요청 마이크로 배처
+ *
+ * [문제]
+ * - OpenAI Embeddings API는 입력 배열을 받지만, 호출부는 텍스트 1개당 HTTP 요청 1회
+ * - 일기 작성 피크 시 요청 수 증가 → Rate Limit 압박
+ *
+ * [동작]
+ * 1. 모든 스레드의 임베딩 요청을 큐에 적재
+ * 2. 배처 스레드가 첫 요청 도착 후 window-ms 동안(또는 max-size 도달 시까지) 모음
+ * 3. 한 번의 API 호출로 임베딩 → 각 호출자의 Future 완료
+ *
+ * HTTP 호출은 가상 스레드에서 실행하므로, 응답 대기 중에도 다음 배치를 계속 모음
+ *
+ * [안전장치]
+ * - 호출자는 최대 timeout-ms 까지만 대기 (배처가 멈춰도 무한 대기하지 않음)
+ * - 종료(stop) 전후에 들어온 요청은 호출 스레드에서 직접 처리, 종료 후 남은 요청은 실패 처리
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ai.embedding.provider", havingValue = "openai", matchIfMissing = true)
+public class EmbeddingBatcher implements EmbeddingProvider {
+
+    private final OpenAiApiClient openAiApiClient;
+    private final String model;
+    private final int dimension;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long windowMs;
+    private final long timeoutMs;
+
+    private final BlockingQueue<PendingEmbedding> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread collector;
+    private volatile boolean running;
+
+    public EmbeddingBatcher(
+            OpenAiApiClient openAiApiClient,
+            @Value("${ai.embedding.model:text-embedding-3-small}") String model,
+            @Value("${ai.embedding.dimension:1536}") int dimension,
+            @Value("${ai.embedding.batch.enabled:true}") boolean enabled,
+            @Value("${ai.embedding.batch.max-size:64}") int maxBatchSize,
+            @Value("${ai.embedding.batch.window-ms:10}") long windowMs,
+            @Value("${ai.embedding.batch.timeout-ms:35000}") long timeoutMs) {
+        this.openAiApiClient = openAiApiClient;
+        this.model = model;
+        this.dimension = dimension;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.windowMs = windowMs;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        collector = Thread.ofPlatform().name("Embedding-Batcher").daemon().start(this::collectLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (collector != null) {
+            collector.interrupt();
+        }
+        // 남은 요청은 마지막 배치로 처리
+        drainAndDispatch();
+        dispatcher.close();
+
+        // 그 사이에도 남은 요청은 실패 처리 (호출자 무한 대기 방지)
+        List<PendingEmbedding> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        IllegalStateException stopped = new IllegalStateException("임베딩 배처가 종료되었습니다");
+        leftover.forEach(pending -> pending.future().completeExceptionally(stopped));
+    }
+
+    @Override
+    public String modelName() {
+        return model;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+
+    /**
+     * 여러 텍스트 임베딩 (입력 순서 유지)
+     * 다른 스레드의 요청과 합쳐져 한 번의 API 호출로 처리될 수 있음
+     */
+    @Override
+    public List<float[]> embedAll(List<String> texts) {
+        if (!running) {
+            return openAiApiClient.embeddings(model, texts);
+        }
+
+        List<CompletableFuture<float[]>> futures = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            CompletableFuture<float[]> future = new CompletableFuture<>();
+            queue.add(new PendingEmbedding(text, future));
+            futures.add(future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS));
+        }
+        if (!running) {
+            // 확인과 적재 사이에 stop()이 끝난 경우 → 수집 스레드가 없으므로 직접 처리
+            drainAndDispatch();
+        }
+
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("임베딩 응답 대기 시간 초과 (" + timeoutMs + "ms)", e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void collectLoop() {
+        while (running) {
+            List<PendingEmbedding> batch = new ArrayList<>(maxBatchSize);
+            try {
+                PendingEmbedding first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remainingNanos <= 0) {
+                        break;
+                    }
+                    PendingEmbedding next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                dispatcher.execute(() -> dispatch(batch));
+            } catch (InterruptedException e) {
+                // 모으던 요청은 큐에 되돌려 stop()이 처리하도록
+                queue.addAll(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // 배치 실행 거절 등 → 해당 배치만 실패 처리하고 수집은 계속
+                log.warn("⚠️ [EmbeddingBatcher] 배치 전달 실패 ({}건): {}", batch.size(), e.getMessage());
+                batch.forEach(pending -> pending.future().completeExceptionally(e));
+            }
+        }
+    }
+
+    private void drainAndDispatch() {
+        List<PendingEmbedding> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += maxBatchSize) {
+            dispatch(remaining.subList(i, Math.min(i + maxBatchSize, remaining.size())));
+        }
+    }
+
+    private void dispatch(List<PendingEmbedding> batch) {
+        try {
+            List<String> inputs = batch.stream().map(PendingEmbedding::text).toList();
+            List<float[]> vectors = openAiApiClient.embeddings(model, inputs);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(vectors.get(i));
+            }
+            log.debug("🧮 [EmbeddingBatcher] {}건을 1회 호출로 임베딩", batch.size());
+        } catch (Exception e) {
+            log.warn("⚠️ [EmbeddingBatcher] 배치 임베딩 실패 ({}건): {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+        }
+    }
+
+    private record PendingEmbedding(String text, CompletableFuture<float[]> future) {
+    }
+}
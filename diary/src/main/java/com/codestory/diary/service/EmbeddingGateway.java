@@ -0,0 +1,194 @@
+package com.codestory.diary.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 임베딩 단일 진입점 (2단계 캐시)
+ *
+ * [캐시 구조]
+ * - L1: 프로세스 내 LRU (ai.embedding.cache.l1-max-entries)
+ * - L2: Redis, float32 little-endian 바이트 배열 (1536차원 = 6KB, ai.embedding.cache.l2-ttl-days)
+ * - Key: "emb:{model}:{sha256(text)}" → 같은 텍스트는 모델별로 한 번만 임베딩
+ *
+ * [사용처]
+ * - MemoryService: 기억 저장/검색
+ * - GraphRagService: 질문 벡터화
+ * - EmbeddingService: Neo4j 노드 이름 벡터화 ("우울함" 같은 공통 노드 이름은 사용자 간 공유)
+ *
+ * 캐시 미스는 EmbeddingProvider로 생성 (openai: EmbeddingBatcher로 다른 요청과 묶어서 호출, local: 내장 모델)
+ * Redis 장애 시에는 L1 + OpenAI 호출로 계속 동작
+ */
+@Slf4j
+@Service
+public class EmbeddingGateway {
+
+    private static final String KEY_PREFIX = "emb:";
+
+    private final EmbeddingProvider embeddingProvider;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final String model;
+    private final Duration l2Ttl;
+    private final Map<String, float[]> l1Cache;
+
+    public EmbeddingGateway(
+            EmbeddingProvider embeddingProvider,
+            @Qualifier("embeddingRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+            @Value("${ai.embedding.cache.l1-max-entries:5000}") int l1MaxEntries,
+            @Value("${ai.embedding.cache.l2-ttl-days:30}") long l2TtlDays) {
+        this.embeddingProvider = embeddingProvider;
+        this.redisTemplate = redisTemplate;
+        this.model = embeddingProvider.modelName();
+        this.l2Ttl = Duration.ofDays(l2TtlDays);
+        this.l1Cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > l1MaxEntries;
+            }
+        };
+    }
+
+    /**
+     * 현재 임베딩 차원 (openai: 1536, local: 384)
+     */
+    public int dimension() {
+        return embeddingProvider.dimension();
+    }
+
+    /**
+     * 내장 모델 사용 여부 (Neo4j 속성/인덱스, 기억 저장소 위치 구분)
+     */
+    public boolean isLocal() {
+        return embeddingProvider.isLocal();
+    }
+
+    /**
+     * 단일 텍스트 임베딩
+     */
+    public float[] embed(String text) {
+        return embedAll(List.of(text)).get(0);
+    }
+
+    /**
+     * 여러 텍스트 임베딩 (입력 순서 유지)
+     * L1 → L2 → OpenAI 순서로 조회하고, 캐시에 없는 텍스트만 한 번의 요청으로 임베딩
+     */
+    public List<float[]> embedAll(List<String> texts) {
+        List<String> keys = texts.stream().map(this::cacheKey).toList();
+        float[][] results = new float[texts.size()][];
+
+        // 1. L1 (프로세스 내)
+        List<Integer> l1Misses = new ArrayList<>();
+        synchronized (l1Cache) {
+            for (int i = 0; i < texts.size(); i++) {
+                results[i] = l1Cache.get(keys.get(i));
+                if (results[i] == null) {
+                    l1Misses.add(i);
+                }
+            }
+        }
+        if (l1Misses.isEmpty()) {
+            return List.of(results);
+        }
+
+        // 2. L2 (Redis)
+        List<Integer> l2Misses = new ArrayList<>();
+        List<byte[]> l2Values = readL2(l1Misses.stream().map(keys::get).toList());
+        for (int j = 0; j < l1Misses.size(); j++) {
+            int i = l1Misses.get(j);
+            byte[] bytes = l2Values != null ? l2Values.get(j) : null;
+            if (bytes != null) {
+                results[i] = decode(bytes);
+                putL1(keys.get(i), results[i]);
+            } else {
+                l2Misses.add(i);
+            }
+        }
+
+        // 3. OpenAI (캐시에 없는 텍스트만, 중복 제거 후 한 번에)
+        if (!l2Misses.isEmpty()) {
+            Map<String, List<Integer>> positionsByKey = new LinkedHashMap<>();
+            Map<String, String> textByKey = new LinkedHashMap<>();
+            for (int i : l2Misses) {
+                positionsByKey.computeIfAbsent(keys.get(i), k -> new ArrayList<>()).add(i);
+                textByKey.putIfAbsent(keys.get(i), texts.get(i));
+            }
+
+            List<String> missKeys = new ArrayList<>(textByKey.keySet());
+            List<float[]> vectors = embeddingProvider.embedAll(new ArrayList<>(textByKey.values()));
+
+            for (int j = 0; j < missKeys.size(); j++) {
+                String key = missKeys.get(j);
+                float[] vector = vectors.get(j);
+                for (int i : positionsByKey.get(key)) {
+                    results[i] = vector;
+                }
+                putL1(key, vector);
+                writeL2(key, vector);
+            }
+            log.debug("🧮 [EmbeddingGateway] 요청 {}건 중 {}건 신규 임베딩", texts.size(), missKeys.size());
+        }
+
+        return List.of(results);
+    }
+
+    private void putL1(String key, float[] vector) {
+        synchronized (l1Cache) {
+            l1Cache.put(key, vector);
+        }
+    }
+
+    private List<byte[]> readL2(List<String> keys) {
+        try {
+            return redisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            log.warn("⚠️ [EmbeddingGateway] Redis 조회 실패 (L1/OpenAI로 계속 진행): {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeL2(String key, float[] vector) {
+        try {
+            redisTemplate.opsForValue().set(key, encode(vector), l2Ttl);
+        } catch (Exception e) {
+            log.warn("⚠️ [EmbeddingGateway] Redis 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    private String cacheKey(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return KEY_PREFIX + model + ":" + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] decode(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
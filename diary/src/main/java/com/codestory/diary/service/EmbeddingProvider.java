@@ -0,0 +1,34 @@
+package com.codestory.diary.service;
+
+import java.util.List;
+
+/**
+ * 임베딩 생성기 (ai.embedding.provider 로 선택)
+ *
+ * - openai (기본): EmbeddingBatcher       - OpenAI text-embedding-3-small, 1536차원, 네트워크 호출
+ * - local:         LocalEmbeddingProvider - 내장 all-MiniLM-L6-v2 (ONNX), 384차원, 프로세스 내 CPU 연산
+ *
+ * 차원이 다르므로 Neo4j 속성/인덱스, 기억 저장소 위치를 제공자별로 분리 (Neo4jVectorIndexes 참고)
+ */
+public interface EmbeddingProvider {
+
+    /**
+     * 모델 이름 (캐시 키 구분용)
+     */
+    String modelName();
+
+    /**
+     * 벡터 차원
+     */
+    int dimension();
+
+    /**
+     * 프로세스 내 모델 여부
+     */
+    boolean isLocal();
+
+    /**
+     * 여러 텍스트 임베딩 (입력 순서 유지)
+     */
+    List<float[]> embedAll(List<String> texts);
+}
@@ -1,14 +1,16 @@
 package com.codestory.diary.service;
 
-import dev.langchain4j.data.embedding.Embedding;
-import dev.langchain4j.model.embedding.EmbeddingModel;
+import com.codestory.diary.config.Neo4jVectorIndexes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -23,22 +25,54 @@ import java.util.Map;
  * 1. 일기 저장 완료 → 사용자에게 즉시 응답
  * 2. 백그라운드에서 임베딩 생성 시작 (별도 스레드)
  * 3. 완료 또는 실패 로그 기록 (사용자에게 영향 없음)
+ *
+ * [네트워크 호출] 일기 1건당 약 2회
+ * - 임베딩: 대상 노드 이름을 중복 제거 후 embedAll 1회 (노드마다 호출하지 않음)
+ * - 저장:   UNWIND $rows 쿼리 1회 (노드마다 왕복하지 않음)
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmbeddingService {
 
+    private static final int BATCH_LIMIT = 50; // 한 번에 처리할 최대 노드 수
+
+    /**
+     * 현재 제공자의 벡터 속성이 없는 노드 (Event, Emotion, Action 타입)
+     */
+    private static final String FIND_NODES_QUERY = """
+        MATCH (u:User {userId: $userId})-[r]->(n)
+        WHERE (n:Event OR n:Emotion OR n:Action)
+          AND n.name IS NOT NULL
+          AND n[$property] IS NULL
+        RETURN DISTINCT elementId(n) AS nodeId, n.name AS name
+        LIMIT $limit
+    """;
+
+    /**
+     * 벡터 일괄 저장 (db.create.setNodeVectorProperty: float32 배열로 저장,
+     * 기본 List 저장(float64) 대비 절반 크기 - 벡터 인덱스는 float 배열만 지원하므로 int8/binary 불가)
+     */
+    private static final String WRITE_VECTORS_QUERY = """
+        UNWIND $rows AS row
+        MATCH (n)
+        WHERE elementId(n) = row.nodeId
+        CALL db.create.setNodeVectorProperty(n, $property, row.vector)
+    """;
+
     private final Neo4jClient neo4jClient;
-    private final EmbeddingModel embeddingModel;
+    private final EmbeddingGateway embeddingGateway;
+    private final Neo4jVectorIndexes vectorIndexes; // 제공자별 벡터 속성 (embedding / embedding_local)
+    private final GraphVersionService graphVersionService; // 새 그래프/벡터가 검색에 잡히는 시점에 GraphRAG 캐시 버전 증가
 
     /**
      * 🚀 [비동기] 임베딩이 없는 노드들에 자동으로 임베딩 생성 및 저장
      *
      * [작동 방식]
-     * 1. 유저와 연결된 모든 노드 중 embedding 속성이 없는 노드 찾기
-     * 2. 각 노드의 name 속성을 벡터로 변환 (OpenAI text-embedding-3-small)
-     * 3. 해당 노드에 embedding 속성 추가
+     * 1. 유저와 연결된 모든 노드 중 현재 제공자의 벡터 속성(embedding / embedding_local)이 없는 노드 찾기
+     * 2. 노드 이름을 중복 제거 후 한 번에 벡터로 변환 (OpenAI text-embedding-3-small 또는 내장 all-MiniLM-L6-v2)
+     * 3. 모든 노드에 벡터 속성을 한 번의 쿼리로 추가
+     * 4. GraphRAG 캐시 버전 1회 증가 (일기 1건당 한 번, 임베딩 실패 시에도 그래프는 바뀌었으므로 증가)
      *
      * [주의사항]
      * - @Async: 별도 스레드에서 실행 (호출자는 대기하지 않음)
@@ -54,70 +88,18 @@ public class EmbeddingService {
             log.info("🚀 [비동기] 임베딩 생성 시작 (User ID: {}, Thread: {})",
                 userId, Thread.currentThread().getName());
 
-            // Step 1: embedding 속성이 없는 노드들 찾기 (Event, Emotion, Action 타입)
-            String findNodesQuery = """
-                MATCH (u:User {userId: $userId})-[r]->(n)
-                WHERE (n:Event OR n:Emotion OR n:Action)
-                  AND n.name IS NOT NULL
-                  AND n.embedding IS NULL
-                RETURN id(n) AS nodeId, labels(n) AS labels, n.name AS name
-                LIMIT 50
-            """;
-
-            Collection<Map<String, Object>> nodes = neo4jClient.query(findNodesQuery)
-                    .bind(userId).to("userId")
-                    .fetch()
-                    .all();
-
-            if (nodes.isEmpty()) {
-                log.debug("  ℹ️ 임베딩이 필요한 노드가 없습니다 (User ID: {})", userId);
-                return;
-            }
-
-            log.info("  🔍 임베딩 생성 대상: {} 개 노드 (User ID: {})", nodes.size(), userId);
-
-            // Step 2: 각 노드에 대해 임베딩 생성 및 저장
-            int successCount = 0;
-            for (Map<String, Object> node : nodes) {
-                Long nodeId = (Long) node.get("nodeId");
-                String name = (String) node.get("name");
-
-                if (name == null || name.trim().isEmpty()) {
-                    continue;
-                }
-
-                try {
-                    // Step 2-1: 텍스트를 벡터로 변환
-                    Embedding embedding = embeddingModel.embed(name).content();
-                    List<Float> vector = embedding.vectorAsList();
-
-                    // Step 2-2: Neo4j에 벡터 저장
-                    String updateQuery = """
-                        MATCH (n)
-                        WHERE id(n) = $nodeId
-                        SET n.embedding = $vector
-                    """;
-
-                    neo4jClient.query(updateQuery)
-                            .bind(nodeId).to("nodeId")
-                            .bind(vector).to("vector")
-                            .run();
-
-                    successCount++;
-                    log.debug("    ✓ 임베딩 추가: {} (ID: {})", name, nodeId);
-
-                } catch (Exception e) {
-                    log.warn("    ⚠️ 임베딩 생성 실패: {} - {}", name, e.getMessage());
-                }
-            }
+            int embedded = embedPendingNodes(userId);
 
-            log.info("  ✅ [비동기] 임베딩 생성 완료: {}/{} 성공 (User ID: {}, Thread: {})",
-                successCount, nodes.size(), userId, Thread.currentThread().getName());
+            log.info("  ✅ [비동기] 임베딩 생성 완료: {}개 노드 (User ID: {}, Thread: {})",
+                embedded, userId, Thread.currentThread().getName());
 
         } catch (Exception e) {
             log.error("❌ [비동기] 임베딩 생성 프로세스 실패 (User ID: {}): {}",
                 userId, e.getMessage(), e);
             // 예외를 던지지 않음 (일기 저장은 이미 완료된 상태)
+        } finally {
+            // 새 노드가 벡터 검색에 잡히는 시점에 한 번만 무효화 (그래프 저장 직후 증가하면 임베딩 전 답변이 새 버전에 캐싱됨)
+            graphVersionService.increment(userId);
         }
     }
 
@@ -126,6 +108,7 @@ public class EmbeddingService {
      *
      * [사용 시나리오]
      * - Phase 2 업그레이드 후 기존 데이터를 벡터화할 때 사용
+     * - 임베딩 제공자 전환 후 새 제공자 속성 백필 (기존 속성/인덱스는 그대로 유지)
      * - 관리자 API 엔드포인트에서 호출하거나, 별도 스크립트로 실행
      *
      * [실행 방법]
@@ -138,9 +121,12 @@ public class EmbeddingService {
 
         try {
             // 동기 방식으로 실행 (관리 작업이므로)
-            generateEmbeddingsForNewNodesSynchronous(userId);
+            int embedded = embedPendingNodes(userId);
+            if (embedded > 0) {
+                graphVersionService.increment(userId);
+            }
 
-            log.info("✅ [마이그레이션] 완료 (User ID: {})", userId);
+            log.info("✅ [마이그레이션] 완료: {}개 노드 (User ID: {})", embedded, userId);
 
         } catch (Exception e) {
             log.error("❌ [마이그레이션] 실패 (User ID: {}): {}", userId, e.getMessage(), e);
@@ -149,63 +135,67 @@ public class EmbeddingService {
     }
 
     /**
-     * 동기 방식 임베딩 생성 (관리 작업용)
+     * 벡터가 없는 노드 최대 BATCH_LIMIT개 임베딩 (임베딩 호출 1회 + 저장 쿼리 1회)
+     *
+     * @return 벡터를 저장한 노드 수
      */
-    private void generateEmbeddingsForNewNodesSynchronous(Long userId) {
-        // 비동기 메서드와 동일한 로직, @Async 없이 실행
-        String findNodesQuery = """
-            MATCH (u:User {userId: $userId})-[r]->(n)
-            WHERE (n:Event OR n:Emotion OR n:Action)
-              AND n.name IS NOT NULL
-              AND n.embedding IS NULL
-            RETURN id(n) AS nodeId, labels(n) AS labels, n.name AS name
-            LIMIT 50
-        """;
-
-        Collection<Map<String, Object>> nodes = neo4jClient.query(findNodesQuery)
+    private int embedPendingNodes(Long userId) {
+        String property = vectorIndexes.property();
+
+        // Step 1: 대상 노드 찾기
+        Collection<Map<String, Object>> nodes = neo4jClient.query(FIND_NODES_QUERY)
                 .bind(userId).to("userId")
+                .bind(property).to("property")
+                .bind(BATCH_LIMIT).to("limit")
                 .fetch()
                 .all();
 
-        if (nodes.isEmpty()) {
-            log.info("  ℹ️ 임베딩이 필요한 노드가 없습니다");
-            return;
-        }
-
-        log.info("  🔍 임베딩 생성 대상: {} 개 노드", nodes.size());
-
-        int successCount = 0;
+        List<String> nodeIds = new ArrayList<>();
+        List<String> nodeNames = new ArrayList<>();
         for (Map<String, Object> node : nodes) {
-            Long nodeId = (Long) node.get("nodeId");
             String name = (String) node.get("name");
-
             if (name == null || name.trim().isEmpty()) {
                 continue;
             }
+            nodeIds.add((String) node.get("nodeId"));
+            nodeNames.add(name);
+        }
 
-            try {
-                Embedding embedding = embeddingModel.embed(name).content();
-                List<Float> vector = embedding.vectorAsList();
-
-                String updateQuery = """
-                    MATCH (n)
-                    WHERE id(n) = $nodeId
-                    SET n.embedding = $vector
-                """;
+        if (nodeIds.isEmpty()) {
+            log.debug("  ℹ️ 임베딩이 필요한 노드가 없습니다 (User ID: {})", userId);
+            return 0;
+        }
 
-                neo4jClient.query(updateQuery)
-                        .bind(nodeId).to("nodeId")
-                        .bind(vector).to("vector")
-                        .run();
+        log.info("  🔍 임베딩 생성 대상: {}개 노드 (User ID: {})", nodeIds.size(), userId);
 
-                successCount++;
-                log.debug("    ✓ 임베딩 추가: {} (ID: {})", name, nodeId);
+        // Step 2~3: 이름 중복 제거 후 임베딩 1회 + 저장 쿼리 1회
+        return embedAndWrite(nodeIds, nodeNames);
+    }
 
-            } catch (Exception e) {
-                log.warn("    ⚠️ 임베딩 생성 실패: {} - {}", name, e.getMessage());
-            }
+    /**
+     * 노드 이름 임베딩 후 현재 제공자 속성에 저장 (EmbeddingBackfillService와 공용)
+     * - 같은 이름은 한 번만 임베딩 ("우울함" 같은 감정 이름은 자주 반복)
+     *
+     * @param nodeIds elementId 목록
+     * @param names nodeIds와 같은 순서의 노드 이름
+     * @return 벡터를 저장한 노드 수
+     */
+    int embedAndWrite(List<String> nodeIds, List<String> names) {
+        List<String> distinctNames = new ArrayList<>(new LinkedHashSet<>(names));
+        List<float[]> vectors = embeddingGateway.embedAll(distinctNames);
+        Map<String, float[]> vectorByName = new HashMap<>();
+        for (int i = 0; i < distinctNames.size(); i++) {
+            vectorByName.put(distinctNames.get(i), vectors.get(i));
         }
 
-        log.info("  ✅ 임베딩 생성 완료: {}/{} 성공", successCount, nodes.size());
+        List<Map<String, Object>> rows = new ArrayList<>(nodeIds.size());
+        for (int i = 0; i < nodeIds.size(); i++) {
+            rows.add(Map.of("nodeId", nodeIds.get(i), "vector", vectorByName.get(names.get(i))));
+        }
+        neo4jClient.query(WRITE_VECTORS_QUERY)
+                .bind(rows).to("rows")
+                .bind(vectorIndexes.property()).to("property")
+                .run();
+        return rows.size();
     }
 }
@@ -0,0 +1,64 @@
+package com.codestory.diary.service;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * GraphRAG 응답 캐시 키 생성기 (@Cacheable keyGenerator = "graphRagKeyGenerator")
+ *
+ * Key: "{userId}::v{그래프 버전}::{sha256(정규화된 질문)}"
+ * - 정규화: NFKC + 소문자 + 공백/문장부호/기호 제거 → "요즘 기분 어때?" / "요즘 기분어때" 같은 키
+ * - SHA-256 전체 해시 → String.hashCode() 충돌로 다른 질문의 답변이 반환되는 문제 방지
+ * - 그래프 버전: 새 일기 저장 시 증가 → 이전 답변은 즉시 조회 대상에서 제외
+ * - 버전 조회 실패: @Cacheable condition에서 먼저 걸러짐, 그 사이 실패하면 일회용 키 → 항상 MISS
+ */
+@Component("graphRagKeyGenerator")
+@RequiredArgsConstructor
+public class GraphRagCacheKeyGenerator implements KeyGenerator {
+
+    private final GraphVersionService graphVersionService;
+
+    /**
+     * analyzeRootCause(Long userId, String question)
+     */
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Long userId = (Long) params[0];
+        String question = (String) params[1];
+        OptionalLong version = graphVersionService.current(userId);
+        if (version.isEmpty()) {
+            return userId + "::uncached::" + UUID.randomUUID();
+        }
+        return userId + "::v" + version.getAsLong() + "::" + sha256(normalize(question));
+    }
+
+    static String normalize(String question) {
+        if (question == null) {
+            return "";
+        }
+        return Normalizer.normalize(question, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[\\s\\p{P}\\p{S}]+", "");
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package com.codestory.diary.service;
 
+import com.codestory.diary.config.Neo4jVectorIndexes;
+import com.codestory.diary.neo4j.CauseStatService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Service;
 import dev.langchain4j.model.chat.ChatLanguageModel;
-import dev.langchain4j.model.embedding.EmbeddingModel;
-import dev.langchain4j.data.embedding.Embedding;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -19,8 +19,173 @@ public class GraphRagService {
 
     private final Neo4jClient neo4jClient;
     private final ChatLanguageModel chatLanguageModel;
-    private final EmbeddingModel embeddingModel; // ✨ Phase 2: 임베딩 모델 추가
+    private final EmbeddingGateway embeddingGateway; // ✨ Phase 2: 임베딩 (L1/L2 캐시 경유)
+    private final Neo4jVectorIndexes vectorIndexes; // 제공자별 벡터 인덱스 (event_vector_index / event_local_vector_index)
     private final PiiMaskingService piiMaskingService; // ✨ Phase 3: PII 마스킹 
+    private final CauseStatService causeStatService; // Kingpin 빈도 집계 (쓰기 시 유지)
+    private final SemanticResponseCache semanticCache; // 의미 기반 응답 캐시 (표현만 다른 반복 질문)
+
+    private static final int VECTOR_CANDIDATES = 50; // 벡터 검색 후보 수 (Kingpin 집계 범위)
+    private static final int CONTEXT_CANDIDATES = 15; // 컨텍스트 확장에 쓰는 상위 후보 수
+
+    private static final String SEARCH_MODE_SCOPED = "scoped";
+
+    // 캐시하지 않는 고정 응답: 장애가 복구되거나 데이터가 쌓이면 바로 다시 분석해야 함 (캐시 TTL 7일)
+    static final String ANALYSIS_FAILED_RESPONSE = """
+            {
+                "message": "기억을 분석하는 도중 문제가 발생했어요. 잠시 후 다시 시도해주세요."
+            }
+            """;
+    static final String NOT_ENOUGH_DATA_RESPONSE = """
+            {
+                "message": "아직 분석할 데이터가 부족해요. 일기를 더 작성해주시면 내면의 지도를 그려드릴게요!"
+            }
+            """;
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // GraphRAG 검색 쿼리 = 후보 생성 + 컨텍스트 투영 + Kingpin 투영 (한 행으로 반환)
+    // - 후보 생성: graph.vector-search.mode (scoped | index)
+    // - Kingpin:   graph.kingpin.precomputed
+    // 조합별로 고정 문자열 → 실행 계획 캐시 유지
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    /**
+     * 후보 생성 (scoped): 사용자 본인 Event만 정확한 코사인 유사도로 정렬
+     * - 비용이 전체 사용자 수가 아니라 본인 Event 수에 비례 → 사용자가 늘어도 상위 K가 정확
+     * - vector.similarity.cosine은 벡터 인덱스 점수와 같은 [0, 1] 척도
+     */
+    private static final String CANDIDATES_SCOPED = """
+        // 🎯 사용자 범위 벡터 검색: 본인 Event만 대상으로 정확한 유사도 계산
+        MATCH (u:User {userId: $userId})-[r]->(similarNode:Event)
+        WHERE similarNode[$property] IS NOT NULL
+        WITH u, similarNode, r, vector.similarity.cosine(similarNode[$property], $questionVector) AS vectorScore
+        ORDER BY vectorScore DESC
+        LIMIT $candidateCount
+        WITH u, collect({node: similarNode, score: vectorScore, rel: r}) AS candidates
+        WITH u, candidates, size(candidates) AS indexHits  // 전역 인덱스 미사용 → 재검색 없음
+    """;
+
+    /**
+     * 후보 생성 (index): 전역 벡터 인덱스에서 $searchK개 → 사용자 노드만 남김
+     * - 다른 사용자 노드가 섞이므로 후보가 부족하면 searchK를 늘려 재시도 (retrieve)
+     * - indexHits: 인덱스가 돌려준 전체 후보 수 (searchK보다 적으면 인덱스를 다 훑은 것 → 재시도 불필요)
+     */
+    private static final String CANDIDATES_INDEX = """
+        // 🎯 벡터 인덱스 검색 후 사용자 필터 (부족하면 호출 측에서 더 많이 가져와 재시도)
+        MATCH (u:User {userId: $userId})
+        CALL db.index.vector.queryNodes($indexName, $searchK, $questionVector)
+        YIELD node AS indexedNode, score AS indexedScore
+        WITH u, collect({node: indexedNode, score: indexedScore}) AS indexed
+
+        // 유저와 연결된 노드만 필터링 (본인 노드가 하나도 없어도 한 행 유지)
+        CALL {
+            WITH u, indexed
+            UNWIND indexed AS hit
+            MATCH (u)-[r]->(similarNode)
+            WHERE similarNode = hit.node
+            WITH similarNode, hit.score AS vectorScore, r
+            ORDER BY vectorScore DESC
+            LIMIT $candidateCount
+            RETURN collect({node: similarNode, score: vectorScore, rel: r}) AS candidates
+        }
+        WITH u, candidates, size(indexed) AS indexHits
+    """;
+
+    private static final String CONTEXT_PROJECTION = """
+        // ━━ 투영 1: 컨텍스트 (상위 후보 + 그래프 확장 + 시간 가중치) ━━
+        CALL {
+            WITH candidates
+            UNWIND candidates[0..$contextCandidates] AS candidate
+            WITH candidate.node AS similarNode, candidate.score AS vectorScore, candidate.rel AS r
+
+            // 🔗 그래프 확장: 해당 노드와 연결된 다른 노드들
+            OPTIONAL MATCH (similarNode)-[rel]-(connectedNode)
+
+            // ⏰ 시간 가중치 계산 (최근 기억일수록 높은 점수, timestamp 없으면 365일 전으로 간주)
+            WITH similarNode, vectorScore, r,
+                 COALESCE(
+                     CASE
+                         WHEN similarNode.timestamp IS NOT NULL
+                         THEN duration.inDays(similarNode.timestamp, datetime()).days
+                         ELSE 365
+                     END,
+                     365
+                 ) AS daysAgo,
+                 collect(DISTINCT {
+                     relType: type(rel),
+                     nodeName: connectedNode.name,
+                     nodeLabels: labels(connectedNode)
+                 }) AS connectedNodes
+
+            // 📊 최종 점수 = (벡터 점수 × 0.7) + (시간 감쇠 × 0.3)
+            // 시간 감쇠 공식: 1.0 / (1.0 + daysAgo * 0.05) → 오래될수록 0에 가까워짐
+            WITH similarNode, vectorScore, r, daysAgo, connectedNodes,
+                 (vectorScore * 0.7) + ((1.0 / (1.0 + daysAgo * 0.05)) * 0.3) AS finalScore
+            ORDER BY finalScore DESC
+            LIMIT 10
+            RETURN collect({
+                keyword: similarNode.name,
+                types: labels(similarNode),
+                vectorSimilarity: vectorScore,
+                daysAgo: daysAgo,
+                similarity: finalScore,
+                relationship: type(r),
+                connectedNodes: connectedNodes
+            }) AS context
+        }
+    """;
+
+    private static final String KINGPIN_AGGREGATE = """
+        // ━━ 투영 2: Kingpin (후보 전체에서 반복되는 핵심 원인, 질문마다 집계) ━━
+        CALL {
+            WITH u, candidates
+            UNWIND candidates AS candidate
+            WITH u, candidate.node AS similarNode
+
+            // 해당 노드들과 연결된 다른 노드들 찾기 (원인 추적)
+            OPTIONAL MATCH (similarNode)-[:CAUSED|INVOLVED]-(cause)
+            WHERE (cause:Event OR cause:Action OR cause:Emotion)
+              AND cause.name IS NOT NULL
+              AND NOT (cause)-[:INVOLVED]-(u)  // User 노드는 제외
+
+            // 빈도 집계
+            WITH cause.name AS causeName,
+                 labels(cause)[0] AS causeType,
+                 count(DISTINCT similarNode) AS frequency
+            WHERE causeName IS NOT NULL
+              AND frequency >= 2  // 최소 2회 이상 등장한 것만
+            ORDER BY frequency DESC
+            LIMIT 3
+            RETURN collect({causeName: causeName, causeType: causeType, frequency: frequency}) AS kingpins
+        }
+
+        RETURN context, kingpins, size(candidates) AS candidateHits, indexHits
+    """;
+
+    private static final String KINGPIN_PRECOMPUTED = """
+        // ━━ 투영 2: Kingpin (쓰기 시 유지되는 CauseStat 인덱스 조회, 집계 없음) ━━
+        CALL {
+            MATCH (stat:CauseStat {userId: $userId})
+            WHERE stat.frequency >= 2  // 최소 2회 이상 등장한 것만
+            WITH stat
+            ORDER BY stat.frequency DESC
+            LIMIT 3
+            RETURN collect({causeName: stat.name, causeType: stat.type, frequency: stat.frequency}) AS kingpins
+        }
+
+        RETURN context, kingpins, size(candidates) AS candidateHits, indexHits
+    """;
+
+    private static final String SCOPED_AGGREGATE = CANDIDATES_SCOPED + CONTEXT_PROJECTION + KINGPIN_AGGREGATE;
+    private static final String SCOPED_PRECOMPUTED = CANDIDATES_SCOPED + CONTEXT_PROJECTION + KINGPIN_PRECOMPUTED;
+    private static final String INDEX_AGGREGATE = CANDIDATES_INDEX + CONTEXT_PROJECTION + KINGPIN_AGGREGATE;
+    private static final String INDEX_PRECOMPUTED = CANDIDATES_INDEX + CONTEXT_PROJECTION + KINGPIN_PRECOMPUTED;
+
+    @org.springframework.beans.factory.annotation.Value("${graph.vector-search.mode:scoped}")
+    private String vectorSearchMode;
+
+    @org.springframework.beans.factory.annotation.Value("${graph.vector-search.max-search-k:1000}")
+    private int maxSearchK; // index 모드 재시도 시 전역 인덱스에서 가져올 최대 후보 수
 
     /**
      * 🧠 Phase 2: Hybrid Search (Vector + Graph) + Phase 3: Redis Caching
@@ -31,12 +196,17 @@ public class GraphRagService {
      * [Step 4] LLM에게 컨텍스트 전달 및 JSON 응답 생성
      * [Step 5] Redis 캐싱 (동일 질문 반복 시 즉시 응답)
      *
-     * @Cacheable: Redis 캐시에 저장 (TTL: 1시간)
-     * - Key: "graphRag::{userId}::{question.hashCode()}"
+     * @Cacheable: Redis 캐시에 저장 (TTL: cache.graph-rag.ttl-hours, 기본 7일)
+     * - Key: "graphRag::{userId}::v{그래프 버전}::{sha256(정규화된 질문)}" (GraphRagCacheKeyGenerator)
+     * - 새 일기 저장 시 그래프 버전이 올라가 이전 답변은 즉시 무효 → 글을 쓰지 않는 사용자만 긴 TTL 혜택
      * - 캐시 HIT: DB/LLM 호출 없이 즉시 반환 (응답 속도 ~10ms)
      * - 캐시 MISS: 정상 로직 실행 후 결과 캐싱 (응답 속도 ~800ms)
+     * - 그래프 버전 조회 실패 시 캐시를 건너뛰고 매번 분석 (오래된 버전의 답변 방지)
+     * - 오류/데이터 부족 응답은 캐시하지 않음 (일시 장애가 TTL 동안 고정되는 것 방지)
      */
-    @Cacheable(value = "graphRag", key = "#userId + '::' + #question.hashCode()")
+    @Cacheable(value = "graphRag", keyGenerator = "graphRagKeyGenerator",
+            condition = "@graphVersionService.isAvailable(#userId)",
+            unless = "!T(com.codestory.diary.service.GraphRagService).isCacheable(#result)")
     public String analyzeRootCause(Long userId, String question) {
         try {
             log.info("🔍 [Phase 2 Hybrid Search] 질문: {}", question);
@@ -50,64 +220,39 @@ public class GraphRagService {
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
             // Step 1: 질문을 벡터로 변환 (Embedding) - 원본 사용
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            Embedding questionEmbedding = embeddingModel.embed(question).content();
-            List<Float> questionVector = questionEmbedding.vectorAsList();
+            float[] questionVector = embeddingGateway.embed(question); // float[] 그대로 Neo4j 파라미터로 바인딩
 
-            log.info("  ✓ 벡터 변환 완료 (차원: {})", questionVector.size());
+            log.info("  ✓ 벡터 변환 완료 (차원: {})", questionVector.length);
 
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            // Step 2: Time-Weighted Vector Search (시간 가중치 적용) - 속도 최적화
+            // Step 1.5: 의미 기반 캐시 조회 (표현만 다른 반복 질문 → LLM/DB 호출 생략)
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            String vectorSearchQuery = """
-                // 🎯 벡터 유사도 검색: 질문과 의미적으로 가장 가까운 노드들 찾기 (상위 15개로 최적화 - 속도 개선)
-                CALL db.index.vector.queryNodes('event_vector_index', 15, $questionVector)
-                YIELD node AS similarNode, score AS vectorScore
-
-                // 🔗 그래프 확장: 해당 노드와 연결된 유저의 다른 노드들 가져오기
-                MATCH (u:User {userId: $userId})-[r]->(similarNode)
-                OPTIONAL MATCH (similarNode)-[rel]-(connectedNode)
-
-                // ⏰ 시간 가중치 계산 (최근 기억일수록 높은 점수)
-                // 노드에 timestamp 속성이 있는 경우 사용, 없으면 vectorScore만 사용
-                WITH similarNode, vectorScore, r,
-                     COALESCE(
-                         CASE
-                             WHEN similarNode.timestamp IS NOT NULL
-                             THEN duration.inDays(similarNode.timestamp, datetime()).days
-                             ELSE 365
-                         END,
-                         365
-                     ) AS daysAgo,
-                     collect(DISTINCT {
-                         relType: type(rel),
-                         nodeName: connectedNode.name,
-                         nodeLabels: labels(connectedNode)
-                     }) AS connectedNodes
-
-                // 📊 최종 점수 = (벡터 점수 × 0.7) + (시간 감쇠 × 0.3)
-                // 시간 감쇠 공식: 1.0 / (1.0 + daysAgo * 0.05) → 오래될수록 0에 가까워짐
-                WITH similarNode, vectorScore, r, daysAgo, connectedNodes,
-                     (vectorScore * 0.7) + ((1.0 / (1.0 + daysAgo * 0.05)) * 0.3) AS finalScore
-
-                RETURN
-                    similarNode.name AS keyword,
-                    labels(similarNode) AS types,
-                    vectorScore AS vectorSimilarity,
-                    daysAgo AS daysAgo,
-                    finalScore AS similarity,
-                    type(r) AS relationship,
-                    connectedNodes
-                ORDER BY finalScore DESC
-                LIMIT 10
-            """;
+            Optional<String> cachedAnswer = semanticCache.lookup(
+                    SemanticResponseCache.SCOPE_GRAPH_RAG, userId, questionVector);
+            if (cachedAnswer.isPresent()) {
+                log.info("  ⚡ 의미 캐시 HIT - 분석 생략");
+                return cachedAnswer.get();
+            }
 
-            Collection<Map<String, Object>> vectorResults = neo4jClient.query(vectorSearchQuery)
-                    .bind(questionVector).to("questionVector")
-                    .bind(userId).to("userId")
-                    .fetch()
-                    .all();
+            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            // Step 2: 사용자 범위 벡터 검색 + 두 가지 투영 (한 번의 쿼리 / 한 번의 왕복)
+            // - 후보: 본인 Event 중 유사도 상위 50개
+            // - 컨텍스트: 상위 15개 후보 → 시간 가중치 점수 상위 10개
+            // - Kingpin: CauseStat 조회 (graph.kingpin.precomputed=false 면 후보 50개 전체 → 핵심 원인 빈도 집계)
+            // 쿼리 문자열은 고정, 값은 모두 파라미터 → Neo4j 실행 계획 캐시 재사용
+            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            Optional<Map<String, Object>> retrieval = retrieve(userId, questionVector);
+
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> vectorResults = retrieval
+                    .map(row -> (List<Map<String, Object>>) row.get("context"))
+                    .orElse(List.of());
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> kingpinResults = retrieval
+                    .map(row -> (List<Map<String, Object>>) row.get("kingpins"))
+                    .orElse(List.of());
 
-            log.info("  ✓ 벡터 검색 완료 (결과 수: {})", vectorResults.size());
+            log.info("  ✓ 벡터 검색 완료 (결과 수: {}, 핵심 원인 수: {})", vectorResults.size(), kingpinResults.size());
 
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
             // Fallback: 벡터 검색 실패 시 기존 방식(그래프 탐색)으로 전환
@@ -117,42 +262,6 @@ public class GraphRagService {
                 return fallbackGraphSearch(userId, question);
             }
 
-            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            // Step 2.5: Kingpin(핵심 원인) 분석 - 통계 기반 패턴 추출
-            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            String kingpinQuery = """
-                // 🎯 벡터 검색으로 찾은 노드들을 기반으로 핵심 원인 추출
-                CALL db.index.vector.queryNodes('event_vector_index', 50, $questionVector)
-                YIELD node AS similarNode
-
-                // 유저와 연결된 노드만 필터링
-                MATCH (u:User {userId: $userId})-[r]->(similarNode)
-
-                // 해당 노드들과 연결된 다른 노드들 찾기 (원인 추적)
-                OPTIONAL MATCH (similarNode)-[:CAUSED|INVOLVED]-(cause)
-                WHERE (cause:Event OR cause:Action OR cause:Emotion)
-                  AND cause.name IS NOT NULL
-                  AND NOT (cause)-[:INVOLVED]-(u)  // User 노드는 제외
-
-                // 빈도 집계
-                WITH cause.name AS causeName,
-                     labels(cause)[0] AS causeType,
-                     count(DISTINCT similarNode) AS frequency
-                WHERE frequency >= 2  // 최소 2회 이상 등장한 것만
-
-                RETURN causeName, causeType, frequency
-                ORDER BY frequency DESC
-                LIMIT 3
-            """;
-
-            Collection<Map<String, Object>> kingpinResults = neo4jClient.query(kingpinQuery)
-                    .bind(questionVector).to("questionVector")
-                    .bind(userId).to("userId")
-                    .fetch()
-                    .all();
-
-            log.info("  ✓ Kingpin 분석 완료 (핵심 원인 수: {})", kingpinResults.size());
-
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
             // Step 3: 검색 결과를 자연어 컨텍스트로 변환 (자연스러운 시간 표현)
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -191,7 +300,7 @@ public class GraphRagService {
             }
 
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            // Step 3.5: Kingpin(핵심 원인) 정보를 컨텍스트에 추가
+            // Step 3.5: Kingpin(핵심 원인) 정보를 컨텍스트에 추가 (Step 2에서 함께 조회)
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
             if (!kingpinResults.isEmpty()) {
                 contextBuilder.append("\n🎯 [발견된 핵심 패턴 (통계 분석)]\n");
@@ -259,20 +368,27 @@ public class GraphRagService {
             // AI가 습관적으로 ```json ... ``` 을 붙이는 것을 방지
             String cleanedResponse = response.replace("```json", "").replace("```", "").trim();
 
+            semanticCache.put(SemanticResponseCache.SCOPE_GRAPH_RAG, userId, questionVector, cleanedResponse);
+
             log.info("  ✅ [Phase 2] 분석 완료!");
             return cleanedResponse;
 
         } catch (Exception e) {
             log.error("❌ [Phase 2] Hybrid Search 실패", e);
-            // 에러 발생 시에도 JSON 형식 유지
-            return """
-                {
-                    "message": "기억을 분석하는 도중 문제가 발생했어요. 잠시 후 다시 시도해주세요."
-                }
-                """;
+            // 에러 발생 시에도 JSON 형식 유지 (캐시하지 않음)
+            return ANALYSIS_FAILED_RESPONSE;
         }
     }
 
+    /**
+     * 캐시해도 되는 응답인지 (@Cacheable unless 조건)
+     */
+    public static boolean isCacheable(String response) {
+        return response != null
+                && !ANALYSIS_FAILED_RESPONSE.equals(response)
+                && !NOT_ENOUGH_DATA_RESPONSE.equals(response);
+    }
+
     /**
      * 🔄 Fallback: 벡터 검색 실패 시 기존 그래프 검색 방식 사용
      * (Phase 1 방식 - 단순 연결 노드 가져오기)
@@ -287,6 +403,7 @@ public class GraphRagService {
             String cypherQuery = """
                 MATCH (u:User {userId: $userId})
                 MATCH (u)-[r]->(n)
+                WHERE NOT n:CauseStat  // 집계 노드 제외
                 RETURN type(r) as relationship,
                        labels(n) as types,
                        n.name as keyword
@@ -299,11 +416,7 @@ public class GraphRagService {
                     .all();
 
             if (results.isEmpty()) {
-                return """
-                    {
-                        "message": "아직 분석할 데이터가 부족해요. 일기를 더 작성해주시면 내면의 지도를 그려드릴게요!"
-                    }
-                    """;
+                return NOT_ENOUGH_DATA_RESPONSE;
             }
 
             String graphContext = results.stream()
@@ -337,14 +450,52 @@ public class GraphRagService {
 
         } catch (Exception e) {
             log.error("❌ Fallback 검색도 실패", e);
-            return """
-                {
-                    "message": "기억을 분석하는 도중 문제가 발생했어요. 잠시 후 다시 시도해주세요."
-                }
-                """;
+            return ANALYSIS_FAILED_RESPONSE;
         }
     }
 
+    /**
+     * 검색 쿼리 실행
+     * - scoped: 한 번에 정확한 사용자 상위 K
+     * - index:  전역 인덱스 후보가 부족하면 searchK를 4배씩 늘려 재시도 (최대 graph.vector-search.max-search-k)
+     *           인덱스가 searchK보다 적게 돌려주면 더 가져올 노드가 없으므로 중단
+     */
+    private Optional<Map<String, Object>> retrieve(Long userId, float[] questionVector) {
+        boolean precomputed = causeStatService.isEnabled();
+        if (SEARCH_MODE_SCOPED.equals(vectorSearchMode)) {
+            return runRetrieval(precomputed ? SCOPED_PRECOMPUTED : SCOPED_AGGREGATE, userId, questionVector, 0);
+        }
+
+        String query = precomputed ? INDEX_PRECOMPUTED : INDEX_AGGREGATE;
+        int searchK = VECTOR_CANDIDATES * 4;
+        while (true) {
+            Optional<Map<String, Object>> retrieval = runRetrieval(query, userId, questionVector, searchK);
+            if (retrieval.isEmpty()) {
+                return retrieval; // 사용자 노드 없음
+            }
+            long hits = ((Number) retrieval.get().get("candidateHits")).longValue();
+            long indexHits = ((Number) retrieval.get().get("indexHits")).longValue();
+            if (hits >= VECTOR_CANDIDATES || indexHits < searchK || searchK >= maxSearchK) {
+                return retrieval;
+            }
+            log.debug("  ↻ 사용자 후보 부족 ({}개, searchK={}) → 재검색", hits, searchK);
+            searchK = Math.min(searchK * 4, maxSearchK);
+        }
+    }
+
+    private Optional<Map<String, Object>> runRetrieval(String query, Long userId, float[] questionVector, int searchK) {
+        return neo4jClient.query(query)
+                .bind(questionVector).to("questionVector")
+                .bind(vectorIndexes.indexName("Event")).to("indexName")
+                .bind(vectorIndexes.property()).to("property")
+                .bind(userId).to("userId")
+                .bind(searchK).to("searchK")
+                .bind(VECTOR_CANDIDATES).to("candidateCount")
+                .bind(CONTEXT_CANDIDATES).to("contextCandidates")
+                .fetch()
+                .one();
+    }
+
     /**
      * 🕐 일(days) 단위를 자연스러운 한국어 시간 표현으로 변환
      *
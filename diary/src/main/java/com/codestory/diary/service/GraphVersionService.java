@@ -0,0 +1,59 @@
+package com.codestory.diary.service;
+
+import java.util.OptionalLong;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사용자별 그래프 버전 (Redis 카운터 "graph:version:{userId}")
+ *
+ * - 그래프가 바뀔 때마다 증가 (일기 저장, 노드 임베딩 추가)
+ * - GraphRAG 캐시 키에 포함 → 버전이 바뀌면 이전 답변은 더 이상 조회되지 않고 TTL로 자연 소멸
+ * - 버전 조회 실패 시 빈 값 → GraphRAG 캐시를 건너뜀
+ *   (버전 0으로 대체하면 캐시 조회만 성공하는 순간 v0 시절의 오래된 답변이 반환될 수 있음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GraphVersionService {
+
+    private static final String KEY_PREFIX = "graph:version:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 현재 그래프 버전 (기록 없으면 0, 조회 실패 시 빈 값)
+     */
+    public OptionalLong current(Long userId) {
+        try {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+            return OptionalLong.of(value != null ? Long.parseLong(value) : 0L);
+        } catch (Exception e) {
+            log.warn("⚠️ [GraphVersion] 버전 조회 실패 - 캐시 건너뜀 (User ID: {}): {}", userId, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * 버전을 읽을 수 있을 때만 GraphRAG 캐시 사용 (@Cacheable condition)
+     */
+    public boolean isAvailable(Long userId) {
+        return current(userId).isPresent();
+    }
+
+    /**
+     * 그래프 변경 후 호출 → 이 사용자의 GraphRAG 캐시 전체 무효화 효과
+     */
+    public void increment(Long userId) {
+        try {
+            Long version = redisTemplate.opsForValue().increment(KEY_PREFIX + userId);
+            log.debug("🔢 [GraphVersion] User ID: {} → v{}", userId, version);
+        } catch (Exception e) {
+            log.warn("⚠️ [GraphVersion] 버전 증가 실패 (User ID: {}): {}", userId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.codestory.diary.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.allminilml6v2.AllMiniLmL6V2EmbeddingModel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 내장 all-MiniLM-L6-v2 (ONNX) 임베딩 - 네트워크/호출 비용 없이 오프라인 동작
+ *
+ * - 384차원 (OpenAI 1536차원과 호환되지 않음 → 별도 인덱스 사용)
+ * - CPU 연산은 전용 스레드 풀(localEmbeddingExecutor)에서만 실행 → 요청 스레드/다른 풀에 영향 없음
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ai.embedding.provider", havingValue = "local")
+public class LocalEmbeddingProvider implements EmbeddingProvider {
+
+    private static final String MODEL_NAME = "all-minilm-l6-v2";
+    private static final int DIMENSION = 384;
+
+    private final EmbeddingModel model = new AllMiniLmL6V2EmbeddingModel();
+    private final Executor executor;
+
+    public LocalEmbeddingProvider(@Qualifier("localEmbeddingExecutor") Executor executor) {
+        this.executor = executor;
+        log.info("🧩 [LocalEmbeddingProvider] 내장 임베딩 모델 사용: {} ({}차원)", MODEL_NAME, DIMENSION);
+    }
+
+    @Override
+    public String modelName() {
+        return MODEL_NAME;
+    }
+
+    @Override
+    public int dimension() {
+        return DIMENSION;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public List<float[]> embedAll(List<String> texts) {
+        List<CompletableFuture<float[]>> futures = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            futures.add(CompletableFuture.supplyAsync(() -> model.embed(text).content().vector(), executor));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.codestory.diary.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.codestory.diary.memory.LexicalMemoryIndex;
+import com.codestory.diary.memory.MemoryRecord;
+import com.codestory.diary.memory.MemoryStore;
+import com.codestory.diary.memory.Vectors;
+import com.codestory.diary.repository.MemberRepository;
+
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 기억 압축 작업 (벡터 저장소 크기 / 검색 지연 시간을 사용자별로 제한)
+ *
+ * [문제]
+ * - saveMemoryAsync가 모든 사용자 메시지와 "AI 응답: ..." 을 영구 저장
+ * - 거의 같은 기억이 쌓여 유용한 기억의 검색 순위를 밀어냄
+ *
+ * [동작] 사용자별로
+ * 1. 보존 기간(assistant-retention-days)이 지난 AI 응답 기억 삭제
+ * 2. 나머지를 사용자 기억 / AI 응답 기억으로 나눈 뒤, 각각 코사인 유사도 similarity-threshold 이상끼리 묶음
+ *    (가장 오래된 기억 기준 탐욕 클러스터링, 두 종류를 섞지 않음)
+ * 3. 2개 이상인 묶음 → 요약 기억 1개로 병합
+ *    - ID: "{userId}_summary_{sha256(원문 목록)}" → 같은 내용의 묶음은 다시 실행해도 같은 ID (중복 생성 없음)
+ *    - 벡터: 원본 벡터의 중심(centroid) → 추가 임베딩 호출 없음
+ *    - 원문: LLM 요약 (실패 또는 비활성화 시 가장 최근 원문)
+ *    - AI 응답 묶음의 요약도 "AI 응답: " 접두사 유지 → 보존 기간 규칙이 계속 적용됨
+ * 4. MemoryStore.replace: 요약 저장 후 원본 일괄 삭제
+ *
+ * 실행: memory.compaction.enabled=true 시 cron 주기, 또는 POST /api/admin/memory/compact
+ *       (둘 다 maintenanceExecutor에서 실행 → 스케줄러 스레드를 붙잡지 않음)
+ */
+@Slf4j
+@Service
+public class MemoryCompactionService {
+
+    private static final String SUMMARY_MARKER = "_summary_";
+
+    private final MemoryStore memoryStore;
+    private final LexicalMemoryIndex lexicalIndex;
+    private final ChatLanguageModel chatLanguageModel;
+    private final MemberRepository memberRepository;
+    private final Executor maintenanceExecutor;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final Duration assistantRetention;
+    private final int maxMemoriesPerRun;
+    private final boolean llmSummary;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public MemoryCompactionService(
+            MemoryStore memoryStore,
+            LexicalMemoryIndex lexicalIndex,
+            ChatLanguageModel chatLanguageModel,
+            MemberRepository memberRepository,
+            @Qualifier("maintenanceExecutor") Executor maintenanceExecutor,
+            @Value("${memory.compaction.enabled:false}") boolean enabled,
+            @Value("${memory.compaction.similarity-threshold:0.92}") double similarityThreshold,
+            @Value("${memory.compaction.assistant-retention-days:30}") long assistantRetentionDays,
+            @Value("${memory.compaction.max-memories-per-run:2000}") int maxMemoriesPerRun,
+            @Value("${memory.compaction.llm-summary:true}") boolean llmSummary) {
+        this.memoryStore = memoryStore;
+        this.lexicalIndex = lexicalIndex;
+        this.chatLanguageModel = chatLanguageModel;
+        this.memberRepository = memberRepository;
+        this.maintenanceExecutor = maintenanceExecutor;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.assistantRetention = Duration.ofDays(assistantRetentionDays);
+        this.maxMemoriesPerRun = maxMemoriesPerRun;
+        this.llmSummary = llmSummary;
+    }
+
+    public record CompactionResult(String userId, int scanned, int summaries, int deleted) {
+    }
+
+    /**
+     * 주기 압축 예약 (스케줄러 스레드는 작업만 넘기고 반환)
+     */
+    @Scheduled(cron = "${memory.compaction.cron:0 30 4 * * *}")
+    public void scheduledCompaction() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            maintenanceExecutor.execute(this::compactAll);
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ [Memory Compaction] 예약 실패 (다음 주기에 재시도): {}", e.getMessage());
+        }
+    }
+
+    @Async("maintenanceExecutor")
+    public void compactAllAsync() {
+        compactAll();
+    }
+
+    /**
+     * 전체 사용자 압축 (동시에 하나만 실행)
+     */
+    public void compactAll() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("⏭️ [Memory Compaction] 이미 실행 중 - 생략");
+            return;
+        }
+        try {
+            int summaries = 0;
+            int deleted = 0;
+            for (Long userId : memberRepository.findAllIds()) {
+                try {
+                    CompactionResult result = compactUser(String.valueOf(userId));
+                    summaries += result.summaries();
+                    deleted += result.deleted();
+                } catch (Exception e) {
+                    log.warn("⚠️ [Memory Compaction] userId={} 실패: {}", userId, e.getMessage());
+                }
+            }
+            log.info("✅ [Memory Compaction] 완료 - 요약 {}건 생성, 원본 {}건 삭제", summaries, deleted);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 사용자 1명 압축
+     */
+    public CompactionResult compactUser(String userId) {
+        List<MemoryRecord> memories = new ArrayList<>(memoryStore.listAll(userId));
+        memories.sort(Comparator.comparingLong(MemoryRecord::timestamp));
+        if (memories.size() > maxMemoriesPerRun) {
+            memories = memories.subList(0, maxMemoriesPerRun); // 오래된 기억부터 처리, 나머지는 다음 실행
+        }
+
+        // 1. 보존 기간이 지난 AI 응답 기억은 삭제 대상, 나머지는 종류별로 나눔
+        long assistantCutoff = Instant.now().minus(assistantRetention).toEpochMilli();
+        Set<String> deletions = new LinkedHashSet<>();
+        List<MemoryRecord> userCandidates = new ArrayList<>();
+        List<MemoryRecord> assistantCandidates = new ArrayList<>();
+        for (MemoryRecord memory : memories) {
+            if (!isAssistantMemory(memory)) {
+                userCandidates.add(memory);
+            } else if (memory.timestamp() < assistantCutoff) {
+                deletions.add(memory.id());
+            } else {
+                assistantCandidates.add(memory);
+            }
+        }
+
+        // 2~3. 유사 기억 묶음 → 요약 기억 (사용자 기억 / AI 응답 기억 각각)
+        List<MemoryRecord> additions = new ArrayList<>();
+        List<List<MemoryRecord>> clusters = new ArrayList<>(cluster(userCandidates));
+        clusters.addAll(cluster(assistantCandidates));
+        for (List<MemoryRecord> cluster : clusters) {
+            MemoryRecord summary = summarize(userId, cluster);
+            additions.add(summary);
+            cluster.stream().map(MemoryRecord::id).filter(id -> !id.equals(summary.id())).forEach(deletions::add);
+        }
+
+        // 4. 요약 저장 → 원본 삭제
+        if (!additions.isEmpty() || !deletions.isEmpty()) {
+            memoryStore.replace(userId, additions, new ArrayList<>(deletions));
+            lexicalIndex.invalidate(userId); // 어휘 색인은 백그라운드에서 재구성
+            log.info("🗜️ [Memory Compaction] userId={} 기억 {}건 → 요약 {}건 생성, {}건 삭제",
+                    userId, memories.size(), additions.size(), deletions.size());
+        }
+        return new CompactionResult(userId, memories.size(), additions.size(), deletions.size());
+    }
+
+    /**
+     * 탐욕 클러스터링: 가장 오래된 미배정 기억을 기준으로 임계값 이상 유사한 기억을 묶음 (2개 이상만 반환)
+     */
+    private List<List<MemoryRecord>> cluster(List<MemoryRecord> memories) {
+        float[][] normalized = new float[memories.size()][];
+        for (int i = 0; i < memories.size(); i++) {
+            normalized[i] = Vectors.normalize(memories.get(i).vector());
+        }
+
+        boolean[] assigned = new boolean[memories.size()];
+        List<List<MemoryRecord>> clusters = new ArrayList<>();
+        for (int i = 0; i < memories.size(); i++) {
+            if (assigned[i]) {
+                continue;
+            }
+            assigned[i] = true;
+            List<MemoryRecord> cluster = new ArrayList<>();
+            cluster.add(memories.get(i));
+            for (int j = i + 1; j < memories.size(); j++) {
+                if (!assigned[j] && Vectors.dot(normalized[i], normalized[j]) >= similarityThreshold) {
+                    assigned[j] = true;
+                    cluster.add(memories.get(j));
+                }
+            }
+            if (cluster.size() > 1) {
+                clusters.add(cluster);
+            }
+        }
+        return clusters;
+    }
+
+    private MemoryRecord summarize(String userId, List<MemoryRecord> cluster) {
+        String memberTexts = cluster.stream().map(MemoryRecord::text).sorted().collect(Collectors.joining("\n"));
+        String id = userId + SUMMARY_MARKER + sha256(memberTexts).substring(0, 16);
+
+        int dimension = cluster.get(0).vector().length;
+        float[] centroid = new float[dimension];
+        for (MemoryRecord memory : cluster) {
+            float[] vector = Vectors.normalize(memory.vector());
+            for (int i = 0; i < dimension; i++) {
+                centroid[i] += vector[i];
+            }
+        }
+
+        long latest = cluster.stream().mapToLong(MemoryRecord::timestamp).max().orElse(0L);
+        return new MemoryRecord(id, userId, summaryText(cluster), latest, Vectors.normalize(centroid));
+    }
+
+    /**
+     * AI 응답 묶음이면 요약에도 접두사를 붙여 보존 기간 규칙이 계속 적용되도록 함
+     */
+    private String summaryText(List<MemoryRecord> cluster) {
+        String summary = generateSummary(cluster);
+        if (isAssistantMemory(cluster.get(0)) && !summary.startsWith(MemoryService.ASSISTANT_MEMORY_PREFIX)) {
+            return MemoryService.ASSISTANT_MEMORY_PREFIX + summary;
+        }
+        return summary;
+    }
+
+    private String generateSummary(List<MemoryRecord> cluster) {
+        String latestText = cluster.get(cluster.size() - 1).text();
+        if (!llmSummary) {
+            return latestText;
+        }
+        try {
+            StringBuilder prompt = new StringBuilder("""
+                다음은 한 사용자의 서로 비슷한 기억들입니다.
+                중복을 제거하고 핵심 사실과 감정만 담아 한두 문장의 한국어로 요약하세요. 요약문만 출력하세요.
+
+                """);
+            cluster.forEach(memory -> prompt.append("- ").append(memory.text()).append('\n'));
+            String summary = chatLanguageModel.generate(prompt.toString());
+            return summary == null || summary.isBlank() ? latestText : summary.trim();
+        } catch (Exception e) {
+            log.warn("⚠️ [Memory Compaction] 요약 생성 실패 - 최근 원문 사용: {}", e.getMessage());
+            return latestText;
+        }
+    }
+
+    private static boolean isAssistantMemory(MemoryRecord memory) {
+        return memory.text().startsWith(MemoryService.ASSISTANT_MEMORY_PREFIX);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
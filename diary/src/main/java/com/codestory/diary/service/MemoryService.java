@@ -1,29 +1,25 @@
 package com.codestory.diary.service;
 
-import com.codestory.diary.config.VectorConfig;
+import com.codestory.diary.memory.LexicalMemoryIndex;
+import com.codestory.diary.memory.MemoryMatch;
+import com.codestory.diary.memory.MemoryRecord;
+import com.codestory.diary.memory.MemoryStore;
+import com.codestory.diary.memory.RankFusion;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import org.springframework.scheduling.annotation.Async;
 
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MemoryService {
 
-    private final VectorConfig vectorConfig;
-    private final RestTemplate restTemplate = new RestTemplate();
-
-    @org.springframework.beans.factory.annotation.Value("${openai.api.key}")
-    private String openaiApiKey;
-
-    @org.springframework.beans.factory.annotation.Value("${pinecone.host}")
-    private String pineconeHost;
+    private final EmbeddingGateway embeddingGateway;
+    private final MemoryStore memoryStore;
+    private final LexicalMemoryIndex lexicalIndex; // BM25 어휘 색인 (벡터 검색과 RRF 결합)
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // Phase 2.1: RAG 필터링 Feature Flags
@@ -34,92 +30,44 @@ public class MemoryService {
     @org.springframework.beans.factory.annotation.Value("${ai.rag.similarity-threshold:0.7}")
     private double similarityThreshold;
 
-    private static final String EMBEDDING_API_URL = "https://api.openai.com/v1/embeddings";
-    private static final String EMBEDDING_MODEL = "text-embedding-3-small";
     private static final int TOP_K = 5; // 검색할 유사 메모리 개수
+    private static final int HYBRID_CANDIDATES = 20; // 하이브리드 검색 시 벡터/어휘 검색 각각의 후보 수
+    public static final String ASSISTANT_MEMORY_PREFIX = "AI 응답: "; // AI 응답 기억 구분용 (압축 시 보존 기간 적용)
 
     /**
-     * 텍스트를 OpenAI Embedding API를 통해 벡터로 변환
+     * 텍스트 임베딩 (채팅 턴에서 한 번 계산해 캐시 조회/기억 검색/기억 저장에 재사용)
      */
-    private List<Float> getEmbedding(String text) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + openaiApiKey);
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", EMBEDDING_MODEL);
-            requestBody.put("input", text);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            ResponseEntity<Map> response = restTemplate.postForEntity(EMBEDDING_API_URL, entity, Map.class);
-
-            if (response.getBody() != null && response.getBody().containsKey("data")) {
-                List<Map<String, Object>> data = (List<Map<String, Object>>) response.getBody().get("data");
-                if (!data.isEmpty()) {
-                    List<Double> embedding = (List<Double>) data.get(0).get("embedding");
-                    return embedding.stream()
-                            .map(Double::floatValue)
-                            .collect(Collectors.toList());
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to get embedding: " + e.getMessage());
-        }
-        throw new RuntimeException("Failed to get embedding from OpenAI");
+    public float[] embed(String text) {
+        return embeddingGateway.embed(text);
     }
 
     /**
-     * Pinecone API Base URL 반환
+     * 메모리를 저장소(MemoryStore: Pinecone 또는 로컬 HNSW)에 저장
+     * @param userId 사용자 ID
+     * @param text 저장할 텍스트 (일기 내용)
      */
-    private String getPineconeApiUrl() {
-        return pineconeHost;
+    public void saveMemory(String userId, String text) {
+        saveMemory(userId, text, null);
     }
 
     /**
-     * 메모리를 Pinecone에 저장
-     * @param userId 사용자 ID
-     * @param text 저장할 텍스트 (일기 내용)
+     * 메모리 저장 (이미 계산된 임베딩 재사용)
+     * @param precomputedEmbedding 텍스트 임베딩 (null이면 새로 계산)
      */
-    public void saveMemory(String userId, String text) {
+    public void saveMemory(String userId, String text, float[] precomputedEmbedding) {
         try {
-            // 1. 텍스트를 벡터로 변환
-            List<Float> embedding = getEmbedding(text);
+            // 1. 텍스트를 벡터로 변환 (이미 계산된 경우 재사용)
+            float[] embedding = precomputedEmbedding != null ? precomputedEmbedding : embeddingGateway.embed(text);
 
             // 2. 고유 ID 생성 (userId + timestamp)
-            String vectorId = userId + "_" + Instant.now().toEpochMilli();
-
-            // 3. Pinecone Upsert Request Body 생성
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("userId", userId);
-            metadata.put("originalText", text);
-            metadata.put("timestamp", Instant.now().toString());
-
-            Map<String, Object> vector = new HashMap<>();
-            vector.put("id", vectorId);
-            vector.put("values", embedding);
-            vector.put("metadata", metadata);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("vectors", Collections.singletonList(vector));
-            requestBody.put("namespace", ""); // 기본 네임스페이스
-
-            // 4. Pinecone API 호출
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Api-Key", vectorConfig.getPineconeApiKey());
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            String upsertUrl = getPineconeApiUrl() + "/vectors/upsert";
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<Map> response = restTemplate.postForEntity(upsertUrl, entity, Map.class);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                System.out.println("Memory saved successfully: " + vectorId);
-            } else {
-                throw new RuntimeException("Failed to save to Pinecone: " + response.getStatusCode());
-            }
+            long timestamp = Instant.now().toEpochMilli();
+            String vectorId = userId + "_" + timestamp;
+
+            // 3. 저장소에 기록
+            MemoryRecord record = new MemoryRecord(vectorId, userId, text, timestamp, embedding);
+            memoryStore.save(record);
+            lexicalIndex.add(record);
+            System.out.println("Memory saved: " + vectorId);
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Failed to save memory: " + e.getMessage());
@@ -132,10 +80,18 @@ public class MemoryService {
      */
     @Async("chatAsyncExecutor")
     public void saveMemoryAsync(String userId, String text) {
+        saveMemoryAsync(userId, text, null);
+    }
+
+    /**
+     * ✨ [비동기] Fire-and-Forget 벡터 저장 (이미 계산된 임베딩 재사용 → 임베딩 API 호출 생략)
+     */
+    @Async("chatAsyncExecutor")
+    public void saveMemoryAsync(String userId, String text, float[] precomputedEmbedding) {
         try {
-            saveMemory(userId, text);
+            saveMemory(userId, text, precomputedEmbedding);
         } catch (Exception e) {
-            System.err.println("⚠️ [Async] Pinecone 저장 실패 (userId: " + userId + "): " + e.getMessage());
+            System.err.println("⚠️ [Async] 기억 저장 실패 (userId: " + userId + "): " + e.getMessage());
         }
     }
 
@@ -146,60 +102,51 @@ public class MemoryService {
      * @return 유사한 메모리 텍스트 리스트
      */
     public List<String> findRelatedMemories(String userId, String queryText) {
+        return findRelatedMemories(userId, queryText, null);
+    }
+
+    /**
+     * 유사한 메모리를 검색 (이미 계산된 쿼리 임베딩 재사용)
+     *
+     * 어휘 색인 활성화 시 하이브리드 검색: 벡터 상위 20개 + BM25 상위 20개 → RRF(k=60)로 합쳐 상위 TOP_K
+     * (고유명사처럼 벡터로는 놓치는 기억을 TOP_K를 늘리지 않고 포함)
+     * @param userId 사용자 ID
+     * @param queryText 검색할 텍스트
+     * @param precomputedEmbedding 쿼리 임베딩 (null이면 새로 계산)
+     * @return 유사한 메모리 텍스트 리스트
+     */
+    public List<String> findRelatedMemories(String userId, String queryText, float[] precomputedEmbedding) {
         try {
-            // 1. 쿼리 텍스트를 벡터로 변환
-            List<Float> queryEmbedding = getEmbedding(queryText);
-
-            // 2. Pinecone Query Request Body 생성
-            Map<String, Object> filter = new HashMap<>();
-            Map<String, Object> userIdFilter = new HashMap<>();
-            userIdFilter.put("$eq", userId);
-            filter.put("userId", userIdFilter);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("vector", queryEmbedding);
-            requestBody.put("topK", TOP_K);
-            requestBody.put("includeMetadata", true);
-            requestBody.put("includeValues", false);
-            requestBody.put("filter", filter);
-            requestBody.put("namespace", "");
-
-            // 3. Pinecone API 호출
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Api-Key", vectorConfig.getPineconeApiKey());
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            String queryUrl = getPineconeApiUrl() + "/query";
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<Map> response = restTemplate.postForEntity(queryUrl, entity, Map.class);
-
-            // 4. 결과에서 originalText 추출
-            List<String> relatedMemories = new ArrayList<>();
-            if (response.getBody() != null && response.getBody().containsKey("matches")) {
-                List<Map<String, Object>> matches = (List<Map<String, Object>>) response.getBody().get("matches");
-                for (Map<String, Object> match : matches) {
-                    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                    // ✨ Phase 2.1: 유사도 필터링 (Feature Flag로 제어)
-                    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                    if (enableSimilarityFilter && match.containsKey("score")) {
-                        Double score = ((Number) match.get("score")).doubleValue();
-                        if (score < similarityThreshold) {
-                            System.out.println("⚠️ [RAG Filter] 낮은 유사도로 제외: score=" + score);
-                            continue; // 임계값 이하 제외
-                        }
-                    }
-
-                    if (match.containsKey("metadata")) {
-                        Map<String, Object> metadata = (Map<String, Object>) match.get("metadata");
-                        if (metadata.containsKey("originalText")) {
-                            String originalText = (String) metadata.get("originalText");
-                            relatedMemories.add(originalText);
-                        }
-                    }
+            // 1. 쿼리 텍스트를 벡터로 변환 (이미 계산된 경우 재사용)
+            float[] queryEmbedding = precomputedEmbedding != null ? precomputedEmbedding : embeddingGateway.embed(queryText);
+
+            // 2. 저장소 검색 (사용자 본인 기억만)
+            boolean hybrid = lexicalIndex.isEnabled();
+            List<MemoryMatch> matches = memoryStore.search(userId, queryEmbedding, hybrid ? HYBRID_CANDIDATES : TOP_K);
+
+            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            // ✨ Phase 2.1: 유사도 필터링 (Feature Flag로 제어, 벡터 결과에만 적용)
+            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            List<MemoryMatch> vectorMatches = new ArrayList<>();
+            for (MemoryMatch match : matches) {
+                if (enableSimilarityFilter && match.score() < similarityThreshold) {
+                    System.out.println("⚠️ [RAG Filter] 낮은 유사도로 제외: score=" + match.score());
+                    continue; // 임계값 이하 제외
                 }
+                vectorMatches.add(match);
+            }
+
+            // 3. 어휘(BM25) 결과와 순위 결합
+            if (hybrid) {
+                List<MemoryMatch> lexicalMatches = lexicalIndex.search(userId, queryText, HYBRID_CANDIDATES);
+                vectorMatches = RankFusion.reciprocalRank(
+                        List.of(vectorMatches, lexicalMatches), RankFusion.DEFAULT_K, TOP_K);
             }
 
+            // 4. 결과에서 원문 추출 (일기 본문과 같은 내용의 대화 기억은 한 번만)
+            List<String> relatedMemories = new ArrayList<>(new LinkedHashSet<>(
+                    vectorMatches.stream().map(MemoryMatch::text).toList()));
+
             System.out.println("Found " + relatedMemories.size() + " related memories for user: " + userId
                 + (enableSimilarityFilter ? " (filtered by similarity >= " + similarityThreshold + ")" : ""));
             return relatedMemories;
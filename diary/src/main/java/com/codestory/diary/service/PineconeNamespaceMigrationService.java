@@ -0,0 +1,147 @@
+package com.codestory.diary.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.codestory.diary.client.PineconeApiClient;
+import com.codestory.diary.client.dto.PineconeFetchResponse;
+import com.codestory.diary.client.dto.PineconeListResponse;
+import com.codestory.diary.client.dto.PineconeVector;
+import com.codestory.diary.memory.PineconeNamespaces;
+import com.codestory.diary.repository.MemberRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 기본 네임스페이스("") → 사용자별 네임스페이스 1회성 이전 작업
+ *
+ * [사용자 1명 처리 흐름] (벡터 ID = "{userId}_{timestamp}")
+ * 1. list:   기본 네임스페이스에서 "{userId}_" 접두사 ID 100개 조회
+ * 2. fetch:  값 + 메타데이터 조회
+ * 3. upsert: 대상 네임스페이스에 즉시 저장 (Write-Behind 버퍼 미사용 - 삭제 전 저장 보장)
+ * 4. delete: 복사가 확인된 ID만 기본 네임스페이스에서 삭제
+ * 5. 남은 ID가 없을 때까지 반복 (삭제 후 처음부터 다시 list → 페이지 토큰 무효화 문제 없음)
+ *
+ * 중간에 실패해도 다시 실행하면 남은 벡터부터 이어서 처리 (upsert는 같은 ID 덮어쓰기)
+ *
+ * 실행: POST /api/admin/pinecone/migrate-namespaces (전체) 또는 ?userId=1 (단일 사용자)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PineconeNamespaceMigrationService {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final PineconeApiClient pineconeApiClient;
+    private final PineconeNamespaces namespaces;
+    private final MemberRepository memberRepository;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger migratedUsers = new AtomicInteger();
+    private final AtomicLong migratedVectors = new AtomicLong();
+    private volatile int totalUsers;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String lastError;
+
+    /**
+     * 전체 사용자 이전 (백그라운드)
+     * @return 이미 실행 중이면 false
+     */
+    public boolean startMigrateAll() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        migratedUsers.set(0);
+        migratedVectors.set(0);
+        lastError = null;
+        startedAt = Instant.now();
+        finishedAt = null;
+        return true;
+    }
+
+    @Async
+    public void migrateAllAsync() {
+        try {
+            List<Long> userIds = memberRepository.findAllIds();
+            totalUsers = userIds.size();
+            log.info("🚚 [Namespace Migration] 시작 - 대상 사용자 {}명", totalUsers);
+
+            for (Long userId : userIds) {
+                try {
+                    migrateUser(userId);
+                } catch (Exception e) {
+                    lastError = "userId=" + userId + ": " + e.getMessage();
+                    log.warn("⚠️ [Namespace Migration] userId={} 실패 (재실행 시 이어서 처리): {}", userId, e.getMessage());
+                }
+                migratedUsers.incrementAndGet();
+            }
+            log.info("✅ [Namespace Migration] 완료 - 사용자 {}명, 벡터 {}건", migratedUsers.get(), migratedVectors.get());
+        } finally {
+            finishedAt = Instant.now();
+            running.set(false);
+        }
+    }
+
+    /**
+     * 사용자 1명 이전
+     * @return 이전한 벡터 수
+     */
+    public int migrateUser(Long userId) {
+        String userIdString = String.valueOf(userId);
+        String prefix = userIdString + "_";
+        String target = namespaces.forUser(userIdString);
+        int migrated = 0;
+
+        while (true) {
+            PineconeListResponse page = pineconeApiClient.listIds(
+                    PineconeNamespaces.LEGACY_NAMESPACE, prefix, null, PAGE_SIZE);
+            if (page == null || page.getVectors() == null || page.getVectors().isEmpty()) {
+                break;
+            }
+
+            List<String> ids = page.getVectors().stream().map(PineconeListResponse.Item::getId).toList();
+            PineconeFetchResponse fetched = pineconeApiClient.fetch(PineconeNamespaces.LEGACY_NAMESPACE, ids);
+            if (fetched == null || fetched.getVectors() == null || fetched.getVectors().isEmpty()) {
+                log.warn("⚠️ [Namespace Migration] userId={} 목록 {}건을 조회하지 못해 중단", userId, ids.size());
+                break;
+            }
+
+            List<PineconeVector> vectors = new ArrayList<>(fetched.getVectors().values());
+            pineconeApiClient.upsert(target, vectors);
+            pineconeApiClient.delete(PineconeNamespaces.LEGACY_NAMESPACE,
+                    vectors.stream().map(PineconeVector::getId).toList());
+
+            migrated += vectors.size();
+            migratedVectors.addAndGet(vectors.size());
+        }
+
+        if (migrated > 0) {
+            log.info("  ✓ userId={} → '{}' 벡터 {}건 이전", userId, target, migrated);
+        }
+        return migrated;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("totalUsers", totalUsers);
+        status.put("migratedUsers", migratedUsers.get());
+        status.put("migratedVectors", migratedVectors.get());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("lastError", lastError);
+        return status;
+    }
+}
@@ -0,0 +1,269 @@
+package com.codestory.diary.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.codestory.diary.client.PineconeApiClient;
+import com.codestory.diary.client.dto.PineconeVector;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pinecone Write-Behind 버퍼
+ *
+ * [문제]
+ * - 채팅 1턴마다 saveMemoryAsync 2회 → /vectors/upsert 2회 (벡터 1개씩)
+ *
+ * [동작]
+ * 1. 벡터를 네임스페이스별 큐에 적재 후 즉시 반환
+ * 2. 네임스페이스 큐가 batch-size에 도달하면 즉시 flush
+ * 3. 그 외에는 flush-interval-ms 주기로 flush (SchedulingConfig)
+ * 4. 종료 시(@PreDestroy) 남은 벡터 모두 flush (재시도 가능 오류는 짧게 대기하며 최대 3회)
+ *    → 그래도 남은 벡터는 dropped{reason=shutdown}으로 집계하고 로그로 남김
+ *
+ * [지표]
+ * - pinecone.write_buffer.depth: 대기 중인 벡터 수
+ * - pinecone.write_buffer.flush: 배치 upsert 지연 시간
+ * - pinecone.write_buffer.dropped{reason}: 버린 벡터 수 (client_error / retries_exhausted / overflow / shutdown)
+ *
+ * [실패 처리]
+ * - 재시도 가능(5xx, 429, 네트워크 오류): 다시 큐에 넣어 다음 flush에서 재시도 (벡터당 최대 max-retries회)
+ *   같은 ID upsert는 덮어쓰기이므로 중복 저장 없음
+ * - 재시도 불가(그 외 4xx, 예: 차원 불일치): 배치를 1건씩 다시 보내 문제 벡터만 골라 버림
+ *   → 잘못된 벡터 하나가 네임스페이스 전체를 막지 않음
+ * - max-queued 초과 시에는 유실을 로그로 남기고 버림
+ */
+@Slf4j
+@Component
+public class PineconeWriteBuffer {
+
+    private static final int SHUTDOWN_FLUSH_ROUNDS = 3;
+    private static final long SHUTDOWN_BACKOFF_MS = 100; // 라운드마다 2배
+
+    private final PineconeApiClient pineconeApiClient;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxQueued;
+    private final int maxRetries;
+
+    private final Map<String, Queue<Pending>> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Timer flushTimer;
+    private final Counter droppedClientError;
+    private final Counter droppedRetriesExhausted;
+    private final Counter droppedOverflow;
+    private final Counter droppedShutdown;
+
+    /**
+     * 대기 중인 벡터 + 지금까지 실패한 횟수
+     */
+    private record Pending(PineconeVector vector, int attempts) {
+    }
+
+    public PineconeWriteBuffer(
+            PineconeApiClient pineconeApiClient,
+            MeterRegistry meterRegistry,
+            @Value("${pinecone.write-buffer.enabled:true}") boolean enabled,
+            @Value("${pinecone.write-buffer.batch-size:50}") int batchSize,
+            @Value("${pinecone.write-buffer.max-queued:10000}") int maxQueued,
+            @Value("${pinecone.write-buffer.max-retries:5}") int maxRetries) {
+        this.pineconeApiClient = pineconeApiClient;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxQueued = maxQueued;
+        this.maxRetries = maxRetries;
+
+        Gauge.builder("pinecone.write_buffer.depth", depth, AtomicInteger::get)
+                .description("Vectors waiting to be upserted to Pinecone")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("pinecone.write_buffer.flush")
+                .description("Latency of batched Pinecone upserts")
+                .register(meterRegistry);
+        this.droppedClientError = droppedCounter(meterRegistry, "client_error");
+        this.droppedRetriesExhausted = droppedCounter(meterRegistry, "retries_exhausted");
+        this.droppedOverflow = droppedCounter(meterRegistry, "overflow");
+        this.droppedShutdown = droppedCounter(meterRegistry, "shutdown");
+    }
+
+    /**
+     * 벡터 저장 요청 (버퍼 비활성화 시 즉시 upsert)
+     */
+    public void enqueue(String namespace, PineconeVector vector) {
+        if (!enabled) {
+            pineconeApiClient.upsert(namespace, List.of(vector));
+            return;
+        }
+
+        if (depth.get() >= maxQueued) {
+            log.warn("⚠️ [PineconeWriteBuffer] 큐 포화 ({}건) - 벡터 유실: {}", depth.get(), vector.getId());
+            droppedOverflow.increment();
+            return;
+        }
+
+        Queue<Pending> queue = queues.computeIfAbsent(namespace, ns -> new ConcurrentLinkedQueue<>());
+        queue.add(new Pending(vector, 0));
+        depth.incrementAndGet();
+
+        if (queue.size() >= batchSize) {
+            flushNamespace(namespace, queue);
+        }
+    }
+
+    /**
+     * 주기적 flush (부분 배치 포함)
+     */
+    @Scheduled(fixedDelayString = "${pinecone.write-buffer.flush-interval-ms:1000}")
+    public void flushAll() {
+        queues.forEach(this::flushNamespace);
+    }
+
+    /**
+     * 종료 전 flush: 재시도 가능 오류로 다시 쌓인 벡터는 짧게 대기 후 재시도, 끝내 남은 벡터는 유실로 집계
+     */
+    @PreDestroy
+    void shutdown() {
+        log.info("🧹 [PineconeWriteBuffer] 종료 전 flush ({}건)", depth.get());
+        long backoffMs = SHUTDOWN_BACKOFF_MS;
+        for (int round = 1; round <= SHUTDOWN_FLUSH_ROUNDS && depth.get() > 0; round++) {
+            if (round > 1) {
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs *= 2;
+            }
+            flushAll();
+        }
+
+        int lost = 0;
+        for (Queue<Pending> queue : queues.values()) {
+            while (queue.poll() != null) {
+                depth.decrementAndGet();
+                lost++;
+            }
+        }
+        if (lost > 0) {
+            log.error("❌ [PineconeWriteBuffer] 종료 시 저장하지 못한 벡터 {}건 유실", lost);
+            droppedShutdown.increment(lost);
+        }
+    }
+
+    private void flushNamespace(String namespace, Queue<Pending> queue) {
+        while (!queue.isEmpty()) {
+            List<Pending> batch = new ArrayList<>(batchSize);
+            Pending pending;
+            while (batch.size() < batchSize && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            depth.addAndGet(-batch.size());
+
+            List<PineconeVector> vectors = batch.stream().map(Pending::vector).toList();
+            try {
+                flushTimer.record(() -> pineconeApiClient.upsert(namespace, vectors));
+                log.debug("📤 [PineconeWriteBuffer] namespace='{}' {}건 upsert", namespace, batch.size());
+            } catch (Exception e) {
+                if (isRetryable(e)) {
+                    log.warn("⚠️ [PineconeWriteBuffer] upsert 실패 ({}건, 다음 flush에서 재시도): {}",
+                            batch.size(), e.getMessage());
+                    requeue(namespace, batch);
+                    return;
+                }
+                if (batch.size() == 1) {
+                    dropRejected(batch.get(0), e);
+                    continue;
+                }
+                log.warn("⚠️ [PineconeWriteBuffer] upsert 거부 ({}건, 1건씩 재전송해 문제 벡터만 제외): {}",
+                        batch.size(), e.getMessage());
+                upsertIndividually(namespace, batch);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 재시도 불가 오류가 난 배치를 1건씩 다시 보내 거부된 벡터만 버림
+     */
+    private void upsertIndividually(String namespace, List<Pending> batch) {
+        List<Pending> retry = new ArrayList<>();
+        for (Pending pending : batch) {
+            try {
+                pineconeApiClient.upsert(namespace, List.of(pending.vector()));
+            } catch (Exception e) {
+                if (isRetryable(e)) {
+                    retry.add(pending);
+                } else {
+                    dropRejected(pending, e);
+                }
+            }
+        }
+        if (!retry.isEmpty()) {
+            requeue(namespace, retry);
+        }
+    }
+
+    private void dropRejected(Pending pending, Exception e) {
+        log.error("❌ [PineconeWriteBuffer] 벡터 {} 저장 거부 - 버림: {}", pending.vector().getId(), e.getMessage());
+        droppedClientError.increment();
+    }
+
+    private void requeue(String namespace, List<Pending> batch) {
+        List<Pending> retry = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            if (pending.attempts() + 1 >= maxRetries) {
+                log.error("❌ [PineconeWriteBuffer] 벡터 {} 재시도 {}회 초과 - 버림", pending.vector().getId(), maxRetries);
+                droppedRetriesExhausted.increment();
+            } else {
+                retry.add(new Pending(pending.vector(), pending.attempts() + 1));
+            }
+        }
+        if (retry.isEmpty()) {
+            return;
+        }
+        if (depth.get() + retry.size() > maxQueued) {
+            log.warn("⚠️ [PineconeWriteBuffer] 재시도 큐 포화 - {}건 유실", retry.size());
+            droppedOverflow.increment(retry.size());
+            return;
+        }
+        queues.computeIfAbsent(namespace, ns -> new ConcurrentLinkedQueue<>()).addAll(retry);
+        depth.addAndGet(retry.size());
+    }
+
+    /**
+     * 5xx / 429 / 네트워크 오류만 재시도 (그 외 4xx는 같은 요청을 다시 보내도 실패)
+     */
+    static boolean isRetryable(Exception e) {
+        if (e instanceof HttpClientErrorException clientError) {
+            return clientError.getStatusCode().value() == 429;
+        }
+        return e instanceof HttpServerErrorException || e instanceof ResourceAccessException;
+    }
+
+    private static Counter droppedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("pinecone.write_buffer.dropped")
+                .description("Vectors dropped by the Pinecone write buffer")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
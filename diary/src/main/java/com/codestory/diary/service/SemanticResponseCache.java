@@ -0,0 +1,235 @@
+package com.codestory.diary.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사용자별 의미 기반(Semantic) 응답 캐시
+ *
+ * [목적]
+ * - "요즘 내 기분이 어때?" / "요즘 내 기분 어떤 것 같아?" 처럼 표현만 다른 반복 질문에
+ *   LLM 호출 없이 이전 답변을 재사용
+ *
+ * [동작 방식]
+ * 1. 질문 임베딩과 캐시된 질문 임베딩의 코사인 유사도 계산
+ * 2. ai.semantic-cache.similarity-threshold 이상이면 HIT → 저장된 답변 반환
+ * 3. 사용자가 새 일기를 쓰면 invalidateUser()로 해당 사용자 캐시 전체 삭제
+ *
+ * [한도]
+ * - 사용자/범위당 최근 ai.semantic-cache.max-entries-per-user 개
+ * - 최대 ai.semantic-cache.max-users 명 (초과 시 가장 오래 사용하지 않은 사용자부터 제거)
+ * - 조회 시 만료 항목을 지우고, 남은 항목이 없으면 사용자 자체를 제거
+ *
+ * [범위(scope)]
+ * - "chat":     ChatService 대화 응답 (앞 대화 없이 뜻이 통하는 독립 질문만, ChatService.isStandaloneQuestion)
+ * - "graphRag": GraphRagService 근본 원인 분석 응답
+ *
+ * [지표]
+ * - ai.semantic_cache.requests{scope, result=hit|miss} (Actuator /actuator/metrics)
+ */
+@Slf4j
+@Component
+public class SemanticResponseCache {
+
+    public static final String SCOPE_CHAT = "chat";
+    public static final String SCOPE_GRAPH_RAG = "graphRag";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final int maxEntriesPerUser;
+    private final Duration ttl;
+
+    private final Map<Long, UserEntries> entriesByUser; // 접근 순서 LRU, entriesByUser 자체로 동기화
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public SemanticResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${ai.semantic-cache.enabled:true}") boolean enabled,
+            @Value("${ai.semantic-cache.similarity-threshold:0.95}") double similarityThreshold,
+            @Value("${ai.semantic-cache.max-entries-per-user:50}") int maxEntriesPerUser,
+            @Value("${ai.semantic-cache.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${ai.semantic-cache.max-users:10000}") int maxUsers) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.maxEntriesPerUser = maxEntriesPerUser;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.entriesByUser = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserEntries> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * 유사한 이전 질문의 답변 조회
+     *
+     * @param scope 캐시 범위 (SCOPE_CHAT / SCOPE_GRAPH_RAG)
+     * @param userId 사용자 ID
+     * @param questionVector 질문 임베딩 (null이면 조회하지 않음)
+     * @return 임계값 이상으로 가장 유사한 질문의 답변
+     */
+    public Optional<String> lookup(String scope, Long userId, float[] questionVector) {
+        if (!enabled || questionVector == null) {
+            return Optional.empty();
+        }
+
+        float[] query = normalize(questionVector);
+        Instant expiredBefore = Instant.now().minus(ttl);
+        Entry best = null;
+        double bestScore = similarityThreshold;
+
+        UserEntries user = userEntries(userId, false);
+        if (user != null) {
+            synchronized (user) {
+                Deque<Entry> entries = user.byScope.get(scope);
+                if (entries != null) {
+                    entries.removeIf(entry -> entry.createdAt().isBefore(expiredBefore));
+                    for (Entry entry : entries) {
+                        double score = dot(query, entry.unitVector());
+                        if (score >= bestScore) {
+                            best = entry;
+                            bestScore = score;
+                        }
+                    }
+                    if (entries.isEmpty()) {
+                        user.byScope.remove(scope);
+                    }
+                }
+                if (user.byScope.isEmpty()) {
+                    detach(userId, user);
+                }
+            }
+        }
+
+        if (best == null) {
+            counter(scope, "miss").increment();
+            return Optional.empty();
+        }
+
+        counter(scope, "hit").increment();
+        log.debug("🎯 [SemanticCache] HIT (scope: {}, userId: {}, similarity: {})", scope, userId, bestScore);
+        return Optional.of(best.answer());
+    }
+
+    /**
+     * 질문 임베딩 + 답변 저장 (사용자/범위별 최대 max-entries-per-user 개, 오래된 것부터 제거)
+     */
+    public void put(String scope, Long userId, float[] questionVector, String answer) {
+        if (!enabled || questionVector == null || answer == null) {
+            return;
+        }
+
+        Entry entry = new Entry(normalize(questionVector), answer, Instant.now());
+        while (true) {
+            UserEntries user = userEntries(userId, true);
+            synchronized (user) {
+                if (user.detached) {
+                    continue; // 조회 중 비어서 제거된 사용자 → 새로 등록해서 다시 시도
+                }
+                Deque<Entry> entries = user.byScope.computeIfAbsent(scope, s -> new ArrayDeque<>());
+                entries.addLast(entry);
+                while (entries.size() > maxEntriesPerUser) {
+                    entries.removeFirst();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 사용자의 모든 범위 캐시 삭제 (새 일기 작성 시 호출)
+     */
+    public void invalidateUser(Long userId) {
+        UserEntries removed;
+        synchronized (entriesByUser) {
+            removed = entriesByUser.remove(userId);
+        }
+        if (removed != null) {
+            log.debug("🧹 [SemanticCache] 사용자 캐시 무효화 (userId: {})", userId);
+        }
+    }
+
+    /**
+     * 캐시에 있는 사용자 수 (테스트용)
+     */
+    int userCount() {
+        synchronized (entriesByUser) {
+            return entriesByUser.size();
+        }
+    }
+
+    private UserEntries userEntries(Long userId, boolean create) {
+        synchronized (entriesByUser) {
+            return create ? entriesByUser.computeIfAbsent(userId, id -> new UserEntries()) : entriesByUser.get(userId);
+        }
+    }
+
+    /**
+     * 비어 있는 사용자 제거 (호출 측이 user 잠금을 잡은 상태 → 같은 사용자에 대한 put은 detached를 보고 재등록)
+     */
+    private void detach(Long userId, UserEntries user) {
+        user.detached = true;
+        synchronized (entriesByUser) {
+            entriesByUser.remove(userId, user);
+        }
+    }
+
+    private Counter counter(String scope, String result) {
+        return counters.computeIfAbsent(scope + ":" + result, key -> Counter.builder("ai.semantic_cache.requests")
+                .description("Semantic response cache lookups")
+                .tag("scope", scope)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        float[] unit = new float[vector.length];
+        if (norm == 0) {
+            return unit;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            unit[i] = (float) (vector[i] / norm);
+        }
+        return unit;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return -1;
+        }
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private record Entry(float[] unitVector, String answer, Instant createdAt) {
+    }
+
+    /**
+     * 한 사용자의 범위별 항목 (이 객체로 동기화)
+     */
+    private static final class UserEntries {
+        private final Map<String, Deque<Entry>> byScope = new HashMap<>();
+        private boolean detached;
+    }
+}
@@ -0,0 +1,142 @@
+package com.codestory.diary.client;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * OpenAiApiClient 임베딩 응답 파서 단위 테스트
+ * - 준비된 응답 본문으로 index 순서 복원, 모르는 필드 무시, 1536차원 초과/미만, 누락/범위 밖 항목 검증
+ */
+class OpenAiApiClientTest {
+
+    private static final String EMBEDDINGS_URL = "https://api.openai.com/v1/embeddings";
+
+    private MockRestServiceServer server;
+    private OpenAiApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        client = new OpenAiApiClient(restTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(client, "apiKey", "test-key");
+    }
+
+    @Test
+    @DisplayName("index 순서가 뒤바뀐 응답도 입력 순서대로 반환하고, 모르는 필드는 건너뜀")
+    void restoresInputOrderAndSkipsUnknownFields() {
+        // Given
+        respond("""
+                {
+                  "object": "list",
+                  "data": [
+                    {"object": "embedding", "index": 1, "embedding": [0.4, 0.5, 0.6], "extra": {"nested": [1, 2]}},
+                    {"embedding": [0.1, 0.2, 0.3], "index": 0, "object": "embedding"}
+                  ],
+                  "model": "text-embedding-3-small",
+                  "usage": {"prompt_tokens": 8, "total_tokens": 8}
+                }
+                """);
+
+        // When
+        List<float[]> vectors = client.embeddings("text-embedding-3-small", List.of("첫 번째", "두 번째"));
+
+        // Then
+        assertThat(vectors).hasSize(2);
+        assertThat(vectors.get(0)).containsExactly(0.1f, 0.2f, 0.3f);
+        assertThat(vectors.get(1)).containsExactly(0.4f, 0.5f, 0.6f);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("1536차원보다 긴 임베딩은 버퍼를 늘려 전부 읽음")
+    void growsPastExpectedDimension() {
+        // Given
+        int dimension = 3072;
+        String values = IntStream.range(0, dimension).mapToObj(i -> String.valueOf(i * 0.5f))
+                .collect(Collectors.joining(","));
+        respond("{\"data\": [{\"index\": 0, \"embedding\": [" + values + "]}]}");
+
+        // When
+        float[] vector = client.embeddings("text-embedding-3-large", List.of("긴 벡터")).get(0);
+
+        // Then
+        assertThat(vector).hasSize(dimension);
+        assertThat(vector[0]).isEqualTo(0f);
+        assertThat(vector[dimension - 1]).isEqualTo((dimension - 1) * 0.5f);
+    }
+
+    @Test
+    @DisplayName("1536차원과 정확히 같은 임베딩은 그대로 반환")
+    void exactExpectedDimension() {
+        // Given
+        String values = IntStream.range(0, 1536).mapToObj(i -> "0.5").collect(Collectors.joining(","));
+        respond("{\"data\": [{\"index\": 0, \"embedding\": [" + values + "]}]}");
+
+        // When & Then
+        assertThat(client.embeddings("text-embedding-3-small", List.of("벡터")).get(0)).hasSize(1536);
+    }
+
+    @Test
+    @DisplayName("입력 수보다 적게 돌아오면 빈 자리를 두지 않고 예외")
+    void missingItem() {
+        // Given
+        respond("{\"data\": [{\"index\": 0, \"embedding\": [0.1]}]}");
+
+        // When & Then
+        assertThatThrownBy(() -> client.embeddings("text-embedding-3-small", List.of("첫 번째", "두 번째")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("missing vector");
+    }
+
+    @Test
+    @DisplayName("입력 범위 밖 index나 embedding 없는 항목은 예외")
+    void invalidItem() {
+        // Given
+        respond("{\"data\": [{\"index\": 2, \"embedding\": [0.1]}]}");
+        respond("{\"data\": [{\"index\": 0, \"object\": \"embedding\"}]}");
+
+        // When & Then
+        assertThatThrownBy(() -> client.embeddings("text-embedding-3-small", List.of("하나")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("index=2");
+        assertThatThrownBy(() -> client.embeddings("text-embedding-3-small", List.of("하나")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("index=0");
+    }
+
+    @Test
+    @DisplayName("객체가 아닌 응답 본문은 예외")
+    void unexpectedBody() {
+        // Given
+        respond("[]");
+
+        // When & Then
+        assertThatThrownBy(() -> client.embeddings("text-embedding-3-small", List.of("하나")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void respond(String body) {
+        server.expect(requestTo(EMBEDDINGS_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,61 @@
+package com.codestory.diary.memory;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bm25Index / RankFusion 단위 테스트
+ * - 조사가 붙은 고유명사 검색, 증분 삭제, RRF 순위 결합 검증
+ */
+class Bm25IndexTest {
+
+    @Test
+    @DisplayName("조사가 달라도 문자 bigram으로 고유명사가 포함된 기억을 찾는다")
+    void findsProperNounWithDifferentParticle() {
+        // Given
+        Bm25Index index = new Bm25Index();
+        index.add("1", "오늘 팀장님께 혼나서 속상했다");
+        index.add("2", "친구와 을지로 맛집에서 저녁을 먹었다");
+        index.add("3", "날씨가 좋아서 한강을 산책했다");
+
+        // When
+        List<MemoryMatch> result = index.search("팀장님이 또 뭐라고 했어", 3);
+
+        // Then
+        assertThat(result).extracting(MemoryMatch::id).first().isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("삭제한 기억은 더 이상 검색되지 않는다")
+    void removedDocumentIsNotFound() {
+        // Given
+        Bm25Index index = new Bm25Index();
+        index.add("1", "팀장님과 점심을 먹었다");
+        index.add("2", "운동을 했다");
+
+        // When
+        index.remove("1");
+
+        // Then
+        assertThat(index.search("팀장님", 5)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("RRF: 양쪽 결과에 모두 있는 기억이 가장 앞에 온다")
+    void reciprocalRankPrefersItemsInBothRankings() {
+        // Given
+        List<MemoryMatch> vector = List.of(new MemoryMatch("a", "A", 0.9), new MemoryMatch("b", "B", 0.8));
+        List<MemoryMatch> lexical = List.of(new MemoryMatch("b", "B", 5.0), new MemoryMatch("c", "C", 3.0));
+
+        // When
+        List<MemoryMatch> fused = RankFusion.reciprocalRank(List.of(vector, lexical), RankFusion.DEFAULT_K, 2);
+
+        // Then
+        assertThat(fused).extracting(MemoryMatch::id).containsExactly("b", "a");
+    }
+}
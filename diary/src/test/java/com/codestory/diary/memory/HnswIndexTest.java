@@ -0,0 +1,106 @@
+package com.codestory.diary.memory;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * HnswIndex 단위 테스트
+ * - 자기 자신 검색, 전수 검색(brute force) 대비 재현율, 양자화 유사도 오차 검증
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSION = 64;
+
+    @Test
+    @DisplayName("저장된 벡터로 검색하면 자기 자신이 1순위 (유사도 1.0)")
+    void findsItselfFirst() {
+        // Given
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 42L);
+        float[][] data = randomVectors(random, 200);
+        for (float[] vector : data) {
+            index.add(vector);
+        }
+
+        // When
+        List<HnswIndex.Scored> result = index.search(data[123], 1, 64);
+
+        // Then
+        assertThat(result.get(0).node()).isEqualTo(123);
+        assertThat(result.get(0).score()).isCloseTo(1.0f, within(1e-4f));
+    }
+
+    @Test
+    @DisplayName("상위 10개 검색 재현율이 전수 검색 대비 90% 이상")
+    void recallAgainstBruteForce() {
+        // Given
+        Random random = new Random(11);
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 42L);
+        float[][] data = randomVectors(random, 1000);
+        for (float[] vector : data) {
+            index.add(vector);
+        }
+
+        // When
+        int hits = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVectors(random, 1)[0];
+            int[] expected = bruteForceTop(data, query, 10);
+            List<Integer> actual = index.search(query, 10, 64).stream().map(HnswIndex.Scored::node).toList();
+            hits += (int) Arrays.stream(expected).filter(actual::contains).count();
+        }
+
+        // Then
+        assertThat(hits / (double) (queries * 10)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    @DisplayName("int8 양자화 유사도는 float32 코사인 유사도와 오차 0.02 이내")
+    void int8SimilarityCloseToExact() {
+        // Given
+        Random random = new Random(13);
+        float[][] data = randomVectors(random, 20);
+        VectorStorage storage = VectorStorage.create("int8", DIMENSION);
+        for (float[] vector : data) {
+            storage.add(Vectors.normalize(vector));
+        }
+        float[] query = Vectors.normalize(randomVectors(random, 1)[0]);
+
+        // When & Then
+        for (int node = 0; node < data.length; node++) {
+            float exact = Vectors.dot(query, Vectors.normalize(data[node]));
+            assertThat(storage.similarity(query, node)).isCloseTo(exact, within(0.02f));
+        }
+        assertThat(storage.bytesUsed()).isLessThan((long) data.length * DIMENSION * Float.BYTES / 2);
+    }
+
+    private static float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][DIMENSION];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < DIMENSION; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+
+    private static int[] bruteForceTop(float[][] data, float[] query, int k) {
+        float[] normalizedQuery = Vectors.normalize(query);
+        return IntStream.range(0, data.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> -Vectors.dot(Vectors.normalize(data[i]), normalizedQuery)))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
@@ -0,0 +1,93 @@
+package com.codestory.diary.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.codestory.diary.entity.Diary;
+import com.codestory.diary.repository.DiaryRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * LexicalMemoryIndex 단위 테스트
+ * - 색인 구성은 요청 경로 밖에서, 구성 중 추가분 보존, 일기 본문 색인 검증
+ */
+class LexicalMemoryIndexTest {
+
+    private MemoryStore memoryStore;
+    private DiaryRepository diaryRepository;
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private LexicalMemoryIndex lexicalIndex;
+
+    @BeforeEach
+    void setUp() {
+        memoryStore = mock(MemoryStore.class);
+        diaryRepository = mock(DiaryRepository.class);
+        when(diaryRepository.findAllByUserIdOrderByDateDesc(anyLong())).thenReturn(List.of());
+        lexicalIndex = new LexicalMemoryIndex(memoryStore, diaryRepository, scheduled::add, true, 10);
+    }
+
+    @Test
+    @DisplayName("색인 구성 전 첫 검색은 저장소를 조회하지 않고 빈 결과를 돌려준다")
+    void firstSearchReturnsEmptyUntilBuilt() {
+        // Given
+        when(memoryStore.listSearchable("1")).thenReturn(List.of(record("1_1", "팀장님께 혼났다")));
+
+        // When
+        List<MemoryMatch> beforeBuild = lexicalIndex.search("1", "팀장님", 5);
+        runScheduled();
+        List<MemoryMatch> afterBuild = lexicalIndex.search("1", "팀장님", 5);
+
+        // Then
+        assertThat(beforeBuild).isEmpty();
+        assertThat(afterBuild).extracting(MemoryMatch::id).containsExactly("1_1");
+    }
+
+    @Test
+    @DisplayName("구성 중 추가된 기억은 저장소 목록에 없어도 색인에 반영된다")
+    void addDuringBuildIsKept() {
+        // Given: 저장소 목록에는 아직 버퍼 속 기억이 보이지 않음
+        when(memoryStore.listSearchable("1")).thenReturn(List.of());
+        lexicalIndex.search("1", "을지로", 5);
+
+        // When
+        lexicalIndex.add(record("1_2", "을지로 맛집에 갔다"));
+        runScheduled();
+
+        // Then
+        assertThat(lexicalIndex.search("1", "을지로", 5)).extracting(MemoryMatch::id).containsExactly("1_2");
+    }
+
+    @Test
+    @DisplayName("일기 본문도 diary- 접두사 ID로 색인된다")
+    void diariesAreIndexed() {
+        // Given
+        Diary diary = Diary.builder().id(7L).userId(1L).content("한강에서 자전거를 탔다").build();
+        when(memoryStore.listSearchable("1")).thenReturn(List.of());
+        when(diaryRepository.findAllByUserIdOrderByDateDesc(1L)).thenReturn(List.of(diary));
+
+        // When
+        lexicalIndex.search("1", "한강", 5);
+        runScheduled();
+
+        // Then
+        assertThat(lexicalIndex.search("1", "한강", 5)).extracting(MemoryMatch::id).containsExactly("diary-7");
+    }
+
+    private void runScheduled() {
+        List<Runnable> tasks = new ArrayList<>(scheduled);
+        scheduled.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static MemoryRecord record(String id, String text) {
+        return new MemoryRecord(id, "1", text, 0L, new float[] {1f});
+    }
+}
@@ -0,0 +1,166 @@
+package com.codestory.diary.neo4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.testcontainers.containers.Neo4jContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.codestory.diary.config.Neo4jVectorIndexInitializer;
+import com.codestory.diary.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * CauseStatService Neo4j 쿼리 테스트 (Testcontainers, Docker 없으면 생략)
+ * - 증분/재집계 후 실제 frequency 값, 재집계의 보정/정리, (userId, name) 유일 제약 검증
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CauseStatServiceNeo4jTest {
+
+    @Container
+    private static final Neo4jContainer<?> NEO4J = new Neo4jContainer<>("neo4j:5").withoutAuthentication();
+
+    private static Driver driver;
+    private static Neo4jClient neo4jClient;
+
+    private CauseStatService service;
+
+    @BeforeAll
+    static void connect() {
+        driver = GraphDatabase.driver(NEO4J.getBoltUrl(), AuthTokens.none());
+        neo4jClient = Neo4jClient.create(driver);
+        new Neo4jVectorIndexInitializer(neo4jClient).run(); // 운영과 같은 인덱스/제약
+    }
+
+    @AfterAll
+    static void close() {
+        driver.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        neo4jClient.query("MATCH (n) DETACH DELETE n").run();
+        service = new CauseStatService(neo4jClient, mock(MemberRepository.class), Runnable::run, true);
+    }
+
+    @Test
+    @DisplayName("증분 집계는 새로 저장된 Event만 세어 원인별 빈도에 더함")
+    void incrementCountsOnlyNewEvents() {
+        // Given
+        diary(1L, "혼남", "야근");
+        service.recordNewEvents(1L);
+
+        // When: 새 일기 후 증분 2회 (두 번째는 새 Event 없음)
+        diary(1L, "두통", "야근", "커피");
+        service.recordNewEvents(1L);
+        service.recordNewEvents(1L);
+
+        // Then
+        assertThat(frequencies(1L)).containsExactlyInAnyOrderEntriesOf(Map.of("야근", 2L, "커피", 1L));
+    }
+
+    @Test
+    @DisplayName("다른 사용자의 Event는 세지 않음")
+    void isolatedByUser() {
+        // Given
+        diary(1L, "혼남", "야근");
+        diary(2L, "혼남", "야근");
+
+        // When
+        service.recordNewEvents(1L);
+
+        // Then
+        assertThat(frequencies(1L)).containsExactlyEntriesOf(Map.of("야근", 1L));
+        assertThat(frequencies(2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("재집계는 어긋난 빈도를 실제 값으로 덮어쓰고, 더 이상 없는 원인의 CauseStat은 삭제")
+    void reconcileFixesDriftAndRemovesStale() {
+        // Given: 집계 후 빈도가 어긋나고 Event 하나가 삭제됨
+        diary(1L, "혼남", "야근");
+        diary(1L, "지각", "늦잠");
+        service.recordNewEvents(1L);
+        neo4jClient.query("MATCH (s:CauseStat {userId: 1, name: '야근'}) SET s.frequency = 99").run();
+        neo4jClient.query("MATCH (e:Event {userId: 1, name: '지각'}) DETACH DELETE e").run();
+
+        // When
+        service.reconcileUser(1L);
+
+        // Then
+        assertThat(frequencies(1L)).containsExactlyEntriesOf(Map.of("야근", 1L));
+    }
+
+    @Test
+    @DisplayName("재집계 후 증분이 이어져도 원인당 CauseStat은 1개")
+    void reconcileThenIncrementKeepsOneStat() {
+        // Given
+        diary(1L, "혼남", "야근");
+        service.reconcileUser(1L);
+
+        // When
+        diary(1L, "두통", "야근");
+        service.recordNewEvents(1L);
+        service.reconcileUser(1L);
+
+        // Then
+        Long stats = neo4jClient.query("MATCH (s:CauseStat {userId: 1, name: '야근'}) RETURN count(s) AS stats")
+                .fetchAs(Long.class)
+                .one()
+                .orElseThrow();
+        assertThat(stats).isEqualTo(1L);
+        assertThat(frequencies(1L)).containsExactlyEntriesOf(Map.of("야근", 2L));
+    }
+
+    @Test
+    @DisplayName("같은 (userId, name)의 CauseStat은 제약으로 중복 생성 불가")
+    void uniquenessConstraint() {
+        // Given
+        neo4jClient.query("CREATE (:CauseStat {userId: 1, name: '야근', frequency: 1})").run();
+
+        // When & Then
+        assertThatThrownBy(() -> neo4jClient.query("CREATE (:CauseStat {userId: 1, name: '야근', frequency: 1})").run())
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    /**
+     * 일기 1개: (User)-[:EXPERIENCED]->(Event) <-[:CAUSED]- (Action ...)
+     */
+    private void diary(Long userId, String event, String... causes) {
+        neo4jClient.query("""
+                MERGE (u:User {userId: $userId})
+                CREATE (u)-[:EXPERIENCED]->(e:Event {userId: $userId, name: $event})
+                WITH e
+                UNWIND $causes AS causeName
+                MERGE (a:Action {userId: $userId, name: causeName})
+                CREATE (a)-[:CAUSED]->(e)
+                """)
+                .bind(userId).to("userId")
+                .bind(event).to("event")
+                .bind(List.of(causes)).to("causes")
+                .run();
+    }
+
+    private Map<String, Long> frequencies(Long userId) {
+        return neo4jClient.query("MATCH (s:CauseStat {userId: $userId}) RETURN s.name AS name, s.frequency AS frequency")
+                .bind(userId).to("userId")
+                .fetch()
+                .all()
+                .stream()
+                .collect(Collectors.toMap(row -> (String) row.get("name"), row -> (Long) row.get("frequency")));
+    }
+}
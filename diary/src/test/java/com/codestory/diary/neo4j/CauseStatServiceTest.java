@@ -0,0 +1,152 @@
+package com.codestory.diary.neo4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import com.codestory.diary.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CauseStatService 단위 테스트
+ * - 쓰기 시 증분 집계 vs 주기 재집계 쿼리 구분, 스케줄러 스레드에서 작업 분리, 중복 실행 방지 검증
+ */
+class CauseStatServiceTest {
+
+    private static final String INCREMENT_MARKER = "s.causeCounted IS NULL";
+    private static final String RECONCILE_MARKER = "DETACH DELETE old";
+
+    private Neo4jClient neo4jClient;
+    private MemberRepository memberRepository;
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // query(...).bind(userId).to("userId").run() 체인
+        Neo4jClient.UnboundRunnableSpec spec = mock(Neo4jClient.UnboundRunnableSpec.class);
+        Neo4jClient.OngoingBindSpec<Object, Neo4jClient.RunnableSpec> binding = mock(Neo4jClient.OngoingBindSpec.class);
+        when(spec.bind(any())).thenReturn(binding);
+        when(binding.to(anyString())).thenReturn(spec);
+
+        neo4jClient = mock(Neo4jClient.class);
+        when(neo4jClient.query(anyString())).thenReturn(spec);
+        memberRepository = mock(MemberRepository.class);
+    }
+
+    @Test
+    @DisplayName("일기 저장 후에는 아직 집계되지 않은 Event만 세는 증분 쿼리 실행")
+    void recordNewEventsRunsIncrement() {
+        // When
+        service(true).recordNewEvents(1L);
+
+        // Then
+        verify(neo4jClient).query(contains(INCREMENT_MARKER));
+        verify(neo4jClient, never()).query(contains(RECONCILE_MARKER));
+    }
+
+    @Test
+    @DisplayName("증분 집계 실패는 일기 저장으로 전파하지 않음")
+    void incrementFailureIsSwallowed() {
+        // Given
+        when(neo4jClient.query(anyString())).thenThrow(new IllegalStateException("Neo4j unavailable"));
+
+        // When & Then
+        assertThatCode(() -> service(true).recordNewEvents(1L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("주기 재집계는 스케줄러 스레드에서 실행하지 않고 maintenanceExecutor로 넘김")
+    void scheduleReconcileHandsOff() {
+        // Given
+        when(memberRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        CauseStatService service = service(true);
+
+        // When
+        service.scheduleReconcile();
+
+        // Then
+        verify(neo4jClient, never()).query(anyString());
+        assertThat(scheduled).hasSize(1);
+
+        scheduled.get(0).run();
+        verify(neo4jClient, times(2)).query(contains(RECONCILE_MARKER));
+    }
+
+    @Test
+    @DisplayName("한 사용자의 재집계 실패가 나머지 사용자를 막지 않음")
+    void reconcileContinuesAfterFailure() {
+        // Given
+        when(memberRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(neo4jClient.query(anyString())).thenThrow(new IllegalStateException("deadlock"));
+
+        // When & Then
+        assertThatCode(() -> service(true).reconcileAll()).doesNotThrowAnyException();
+        verify(neo4jClient, times(3)).query(contains(RECONCILE_MARKER));
+    }
+
+    @Test
+    @DisplayName("재집계가 진행 중이면 새 재집계는 바로 반환")
+    void reconcileAllRunsOnce() {
+        // Given: 재집계 도중 다시 호출
+        CauseStatService service = service(true);
+        when(memberRepository.findAllIds()).thenAnswer(invocation -> {
+            service.reconcileAll();
+            return List.of(1L);
+        });
+
+        // When
+        service.reconcileAll();
+
+        // Then
+        verify(memberRepository, times(1)).findAllIds();
+    }
+
+    @Test
+    @DisplayName("예약이 거절돼도 스케줄러로 예외를 던지지 않음")
+    void rejectedScheduleIsLogged() {
+        // Given
+        CauseStatService service = new CauseStatService(neo4jClient, memberRepository, task -> {
+            throw new RejectedExecutionException("queue full");
+        }, true);
+
+        // When & Then
+        assertThatCode(service::scheduleReconcile).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("graph.kingpin.precomputed=false 면 증분/재집계 모두 하지 않음")
+    void disabledDoesNothing() {
+        // Given
+        CauseStatService service = service(false);
+
+        // When
+        service.recordNewEvents(1L);
+        service.scheduleReconcile();
+        service.reconcileAll();
+
+        // Then
+        verify(neo4jClient, never()).query(anyString());
+        verify(memberRepository, never()).findAllIds();
+        assertThat(scheduled).isEmpty();
+    }
+
+    private CauseStatService service(boolean enabled) {
+        return new CauseStatService(neo4jClient, memberRepository, scheduled::add, enabled);
+    }
+}
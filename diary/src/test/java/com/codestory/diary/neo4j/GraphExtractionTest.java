@@ -0,0 +1,56 @@
+package com.codestory.diary.neo4j;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.codestory.diary.neo4j.GraphExtraction.Entity;
+import com.codestory.diary.neo4j.GraphExtraction.Relation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GraphExtraction.sanitized 단위 테스트
+ * - LLM 응답 중 스키마 밖 라벨/관계가 저장 단계로 넘어가지 않는지 검증
+ */
+class GraphExtractionTest {
+
+    @Test
+    @DisplayName("허용되지 않은 라벨의 엔티티와 그 엔티티를 가리키는 관계는 제거된다")
+    void dropsUnknownLabelsAndDanglingRelations() {
+        // Given
+        GraphExtraction extraction = new GraphExtraction(
+                List.of(new Entity("e1", "Event", "혼남", null),
+                        new Entity("x1", "Admin", "권한 상승", null)),
+                List.of(new Relation("user", "INVOLVED", "e1"),
+                        new Relation("x1", "CAUSED", "e1")));
+
+        // When
+        GraphExtraction sanitized = extraction.sanitized();
+
+        // Then
+        assertThat(sanitized.entities()).extracting(Entity::key).containsExactly("e1");
+        assertThat(sanitized.relations()).containsExactly(new Relation("user", "INVOLVED", "e1"));
+    }
+
+    @Test
+    @DisplayName("허용되지 않은 관계 타입과 null 항목은 제거된다")
+    void dropsUnknownRelationTypes() {
+        // Given
+        GraphExtraction extraction = new GraphExtraction(
+                List.of(new Entity("e1", "Event", "혼남", null),
+                        new Entity("em1", "Emotion", "우울함", 8)),
+                Arrays.asList(new Relation("e1", "CAUSED", "em1"),
+                        new Relation("e1", "DETACH_DELETE", "em1"),
+                        null));
+
+        // When
+        GraphExtraction sanitized = extraction.sanitized();
+
+        // Then
+        assertThat(sanitized.relations()).containsExactly(new Relation("e1", "CAUSED", "em1"));
+        assertThat(sanitized.entities().get(1).intensity()).isEqualTo(8);
+    }
+}
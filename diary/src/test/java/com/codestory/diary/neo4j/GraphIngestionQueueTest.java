@@ -0,0 +1,176 @@
+package com.codestory.diary.neo4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * GraphIngestionQueue 단위 테스트
+ * - 사용자별 도착 순서 처리, max-coalesce 단위 합치기, max-pending 거부, 거부 시 호출 스레드 저장 검증
+ * - 첫 일기 저장을 latch로 붙잡아 두고 그동안 뒤따르는 일기를 쌓음
+ */
+class GraphIngestionQueueTest {
+
+    private static final String BLOCKING_DIARY = "첫 번째 일기";
+
+    private GraphService graphService;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<String> saved = new CopyOnWriteArrayList<>();
+    private final List<String> savedThreads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirst = new CountDownLatch(1);
+    private GraphIngestionQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        graphService = mock(GraphService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        doAnswer(invocation -> {
+            String content = invocation.getArgument(1);
+            if (content.equals(BLOCKING_DIARY)) {
+                firstStarted.countDown();
+                releaseFirst.await(5, TimeUnit.SECONDS);
+            }
+            saved.add(content);
+            savedThreads.add(Thread.currentThread().getName());
+            return null;
+        }).when(graphService).saveDiaryToGraph(anyLong(), anyString());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        releaseFirst.countDown();
+        queue.shutdown();
+    }
+
+    @Test
+    @DisplayName("처리 중에 쌓인 같은 사용자 일기는 도착 순서대로 max-coalesce개씩 합쳐 저장")
+    void coalescesInArrivalOrder() throws InterruptedException {
+        // Given
+        queue = new GraphIngestionQueue(graphService, meterRegistry, 1, 100, 2);
+        queue.submit(1L, BLOCKING_DIARY);
+        assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When: 첫 일기 저장 중에 3개 추가
+        queue.submit(1L, "두 번째");
+        queue.submit(1L, "세 번째");
+        queue.submit(1L, "네 번째");
+        releaseFirst.countDown();
+        queue.shutdown();
+
+        // Then
+        assertThat(saved).containsExactly(BLOCKING_DIARY, "두 번째\n\n세 번째", "네 번째");
+        assertThat(meterRegistry.get("graph.ingestion.coalesced").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("graph.ingestion.pending").gauge().value()).isZero();
+        assertThat(meterRegistry.get("graph.ingestion.active_users").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 사용자의 일기는 앞 사용자의 처리가 끝나기를 기다리지 않음")
+    void otherUsersAreNotBlocked() throws InterruptedException {
+        // Given
+        queue = new GraphIngestionQueue(graphService, meterRegistry, 2, 100, 5);
+        queue.submit(1L, BLOCKING_DIARY);
+        assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        queue.submit(2L, "다른 사용자 일기");
+
+        // Then: 사용자 1이 붙잡혀 있는 동안 사용자 2 저장 완료
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (saved.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(saved).containsExactly("다른 사용자 일기");
+    }
+
+    @Test
+    @DisplayName("대기 일기가 max-pending에 도달하면 submit은 거부")
+    void rejectsWhenFull() throws InterruptedException {
+        // Given: 첫 일기는 처리 중(대기 수에서 빠짐), 한 건이 대기
+        queue = new GraphIngestionQueue(graphService, meterRegistry, 1, 1, 5);
+        queue.submit(1L, BLOCKING_DIARY);
+        assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queue.submit(1L, "대기 중")).isTrue();
+
+        // When
+        boolean accepted = queue.submit(1L, "넘친 일기");
+
+        // Then
+        assertThat(accepted).isFalse();
+        assertThat(meterRegistry.get("graph.ingestion.rejected").counter().count()).isEqualTo(1.0);
+
+        releaseFirst.countDown();
+        queue.shutdown();
+        assertThat(saved).containsExactly(BLOCKING_DIARY, "대기 중");
+    }
+
+    @Test
+    @DisplayName("submitOrIngest는 거부된 일기를 버리지 않고 호출 스레드에서 바로 저장")
+    void submitOrIngestFallsBackInline() throws InterruptedException {
+        // Given
+        queue = new GraphIngestionQueue(graphService, meterRegistry, 1, 1, 5);
+        queue.submit(1L, BLOCKING_DIARY);
+        assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        queue.submit(1L, "대기 중");
+
+        // When
+        boolean queued = queue.submitOrIngest(1L, "넘친 일기");
+
+        // Then
+        assertThat(queued).isFalse();
+        assertThat(saved).containsExactly("넘친 일기");
+        assertThat(savedThreads).containsExactly(Thread.currentThread().getName());
+        assertThat(meterRegistry.get("graph.ingestion.inline").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("호출 스레드 저장이 실패하면 예외를 호출 측으로 전달")
+    void inlineFailurePropagates() throws InterruptedException {
+        // Given
+        doThrow(new IllegalStateException("LLM timeout")).when(graphService).saveDiaryToGraph(1L, "넘친 일기");
+        queue = new GraphIngestionQueue(graphService, meterRegistry, 1, 1, 5);
+        queue.submit(1L, BLOCKING_DIARY);
+        assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        queue.submit(1L, "대기 중");
+
+        // When & Then
+        assertThatThrownBy(() -> queue.submitOrIngest(1L, "넘친 일기"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("배치 저장이 실패해도 같은 사용자의 다음 일기는 계속 처리")
+    void failedBatchDoesNotStopUser() throws InterruptedException {
+        // Given
+        queue = new GraphIngestionQueue(graphService, meterRegistry, 1, 100, 1);
+        doThrow(new IllegalStateException("Neo4j unavailable")).when(graphService).saveDiaryToGraph(1L, "실패할 일기");
+        queue.submit(1L, BLOCKING_DIARY);
+        assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        queue.submit(1L, "실패할 일기");
+        queue.submit(1L, "다음 일기");
+        releaseFirst.countDown();
+        queue.shutdown();
+
+        // Then
+        assertThat(saved).containsExactly(BLOCKING_DIARY, "다음 일기");
+    }
+}
@@ -0,0 +1,85 @@
+package com.codestory.diary.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.codestory.diary.dto.ChatHistoryPageDto;
+import com.codestory.diary.dto.ChatResponseDto;
+import com.codestory.diary.entity.ChatMessage;
+import com.codestory.diary.repository.ChatMessageRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ChatService 히스토리 커서 페이지 단위 테스트
+ * - 커서 인코딩/디코딩 왕복, 같은 시각 메시지의 id 기준 경계, 잘못된 커서 처리 검증
+ */
+class ChatHistoryPageTest {
+
+    private static final LocalDateTime SAME_TIME = LocalDateTime.of(2026, 3, 1, 21, 30, 15, 123_000_000);
+
+    private ChatMessageRepository repository;
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ChatMessageRepository.class);
+        chatService = new ChatService(repository, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("다음 페이지 커서는 마지막 메시지의 (시각, id)로 그대로 복원된다")
+    void cursorRoundTrip() {
+        // Given: 같은 시각에 저장된 user/assistant 메시지 (id 역순으로 조회됨)
+        when(repository.findByUserIdOrderByCreatedAtDescIdDesc(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(message(11L, "assistant", SAME_TIME), message(10L, "user", SAME_TIME)));
+
+        // When
+        ChatHistoryPageDto first = chatService.getChatHistoryPage(1L, null, 1);
+        chatService.getChatHistoryPage(1L, first.getNextCursor(), 1);
+
+        // Then: 경계는 시각이 아니라 (시각, id) → 같은 시각의 id 10 메시지가 다음 페이지에 포함됨
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getMessages()).extracting(ChatResponseDto::getRole).containsExactly("assistant");
+        verify(repository).findPageBefore(eq(1L), eq(SAME_TIME), eq(11L), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("페이지 안의 메시지는 시간순으로, 마지막 페이지는 커서 없이 반환된다")
+    void lastPageHasNoCursor() {
+        // Given
+        LocalDateTime earlier = SAME_TIME.minusMinutes(1);
+        when(repository.findByUserIdOrderByCreatedAtDescIdDesc(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(message(11L, "assistant", SAME_TIME), message(10L, "user", earlier)));
+
+        // When
+        ChatHistoryPageDto page = chatService.getChatHistoryPage(1L, null, 30);
+
+        // Then
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getMessages()).extracting(ChatResponseDto::getRole).containsExactly("user", "assistant");
+    }
+
+    @Test
+    @DisplayName("해석할 수 없는 커서는 IllegalArgumentException")
+    void invalidCursorIsRejected() {
+        assertThatThrownBy(() -> chatService.getChatHistoryPage(1L, "not-a-cursor", 30))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ChatMessage message(Long id, String role, LocalDateTime createdAt) {
+        return ChatMessage.builder().id(id).userId(1L).role(role).content(role + " 메시지").createdAt(createdAt).build();
+    }
+}
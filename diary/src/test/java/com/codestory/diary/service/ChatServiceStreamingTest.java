@@ -0,0 +1,66 @@
+package com.codestory.diary.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ChatService.streamableLength 단위 테스트
+ * - 스트리밍 중 클라이언트에 보내도 되는 길이: 감정 태그 제외, 태그 앞부분으로 끝나면 보류, 일반 '['는 전송 검증
+ */
+class ChatServiceStreamingTest {
+
+    @Test
+    @DisplayName("빈 문자열은 보낼 것이 없음")
+    void emptyText() {
+        assertThat(ChatService.streamableLength("")).isZero();
+    }
+
+    @Test
+    @DisplayName("태그가 없으면 전부 전송")
+    void plainText() {
+        assertThat(ChatService.streamableLength("오늘 힘들었어요")).isEqualTo("오늘 힘들었어요".length());
+    }
+
+    @Test
+    @DisplayName("끝이 태그의 앞부분(\"[EMO\")이면 그 앞까지만 전송하고 나머지는 보류")
+    void holdsSplitTagTail() {
+        // Given
+        String text = "오늘 힘들었어요 [EMO";
+
+        // When & Then
+        assertThat(ChatService.streamableLength(text)).isEqualTo("오늘 힘들었어요 ".length());
+        assertThat(ChatService.streamableLength("음... [")).isEqualTo("음... ".length());
+        assertThat(ChatService.streamableLength("[EMOTION")).isZero();
+    }
+
+    @Test
+    @DisplayName("완성된 태그가 있으면 태그 시작 전까지만 전송 (태그 뒤 내용 포함 제외)")
+    void stopsAtFullTag() {
+        assertThat(ChatService.streamableLength("힘들었겠어요.\n[EMOTION:SAD]")).isEqualTo("힘들었겠어요.\n".length());
+        assertThat(ChatService.streamableLength("[EMOTION:SAD] 뒤")).isZero();
+    }
+
+    @Test
+    @DisplayName("태그가 아닌 '['는 일반 텍스트로 전송")
+    void nonTagBracket() {
+        assertThat(ChatService.streamableLength("[참고] 오늘")).isEqualTo("[참고] 오늘".length());
+        assertThat(ChatService.streamableLength("[EX")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("StringBuilder로 받은 누적 텍스트도 같은 결과")
+    void acceptsStringBuilder() {
+        // Given: 토큰이 "[EMO" / "TION:HAPPY]"로 나뉘어 도착
+        StringBuilder received = new StringBuilder("좋았겠어요! [EMO");
+        int first = ChatService.streamableLength(received);
+
+        // When
+        received.append("TION:HAPPY]");
+
+        // Then
+        assertThat(first).isEqualTo("좋았겠어요! ".length());
+        assertThat(ChatService.streamableLength(received)).isEqualTo(first);
+    }
+}
@@ -0,0 +1,111 @@
+package com.codestory.diary.service;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.codestory.diary.entity.ChatMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ConversationSessionCache 단위 테스트
+ * - 사용자당 최근 N개 유지, 최대 사용자 수 초과 시 LRU 제거, 세션이 없을 때 append 무시 검증
+ */
+class ConversationSessionCacheTest {
+
+    @Test
+    @DisplayName("DB에서 읽은 대화가 history-size보다 많으면 최근 N개만 유지")
+    void loadKeepsMostRecent() {
+        // Given
+        ConversationSessionCache cache = new ConversationSessionCache(3, 10);
+
+        // When
+        List<ChatMessage> session = cache.load(1L, List.of(message("1"), message("2"), message("3"), message("4")));
+
+        // Then
+        assertThat(contents(session)).containsExactly("2", "3", "4");
+    }
+
+    @Test
+    @DisplayName("append 후에도 최근 N개만 남고 오래된 메시지부터 밀려남")
+    void appendIsBounded() {
+        // Given
+        ConversationSessionCache cache = new ConversationSessionCache(3, 10);
+        cache.load(1L, List.of(message("1"), message("2")));
+
+        // When
+        cache.append(1L, message("3"), message("4"));
+
+        // Then
+        assertThat(contents(cache.get(1L).orElseThrow())).containsExactly("2", "3", "4");
+    }
+
+    @Test
+    @DisplayName("세션이 없으면 append는 무시 (다음 조회 때 DB에서 로드)")
+    void appendWithoutSessionIsIgnored() {
+        // Given
+        ConversationSessionCache cache = new ConversationSessionCache(3, 10);
+
+        // When
+        cache.append(1L, message("1"));
+
+        // Then
+        assertThat(cache.get(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("이미 채워진 세션은 load로 덮어쓰지 않음")
+    void loadDoesNotOverwrite() {
+        // Given
+        ConversationSessionCache cache = new ConversationSessionCache(3, 10);
+        cache.load(1L, List.of(message("캐시")));
+
+        // When
+        List<ChatMessage> session = cache.load(1L, List.of(message("DB")));
+
+        // Then
+        assertThat(contents(session)).containsExactly("캐시");
+    }
+
+    @Test
+    @DisplayName("max-users를 넘으면 가장 오래 사용하지 않은 사용자의 세션부터 제거")
+    void evictsLeastRecentlyUsedUser() {
+        // Given
+        ConversationSessionCache cache = new ConversationSessionCache(3, 2);
+        cache.load(1L, List.of(message("a")));
+        cache.load(2L, List.of(message("b")));
+        cache.get(1L); // 사용자 1을 최근 사용으로 갱신
+
+        // When
+        cache.load(3L, List.of(message("c")));
+
+        // Then
+        assertThat(cache.get(1L)).isPresent();
+        assertThat(cache.get(2L)).isEmpty();
+        assertThat(cache.get(3L)).isPresent();
+    }
+
+    @Test
+    @DisplayName("get이 돌려준 목록을 바꿔도 캐시된 세션은 그대로")
+    void getReturnsCopy() {
+        // Given
+        ConversationSessionCache cache = new ConversationSessionCache(3, 10);
+        cache.load(1L, List.of(message("1")));
+
+        // When
+        cache.get(1L).orElseThrow().clear();
+
+        // Then
+        assertThat(contents(cache.get(1L).orElseThrow())).containsExactly("1");
+    }
+
+    private static ChatMessage message(String content) {
+        return ChatMessage.builder().userId(1L).role("user").content(content).build();
+    }
+
+    private static List<String> contents(List<ChatMessage> messages) {
+        return messages.stream().map(ChatMessage::getContent).toList();
+    }
+}
@@ -0,0 +1,106 @@
+package com.codestory.diary.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.codestory.diary.service.EmbeddingBackfillService.Cursor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EmbeddingBackfillService 단위 테스트
+ * - keyset 커서의 체크포인트 복원, 페이지 간 이동, 라벨 순회(Event → Emotion → Action) 검증
+ */
+class EmbeddingBackfillServiceTest {
+
+    @Test
+    @DisplayName("체크포인트의 마지막 위치에서 이어서 시작")
+    void resumesFromCheckpoint() {
+        // Given
+        Map<String, Object> checkpoint = Map.of(
+                "status", "RUNNING", "lastLabel", "Emotion", "lastName", "불안", "lastNodeId", "4:abc:17");
+
+        // When
+        Cursor cursor = Cursor.fromCheckpoint(checkpoint);
+
+        // Then
+        assertThat(cursor).isEqualTo(new Cursor("Emotion", "불안", "4:abc:17"));
+    }
+
+    @Test
+    @DisplayName("비어 있거나 이전 형식/알 수 없는 라벨의 체크포인트는 처음부터")
+    void unknownCheckpointStartsOver() {
+        assertThat(Cursor.fromCheckpoint(Map.of())).isEqualTo(Cursor.START);
+        assertThat(Cursor.fromCheckpoint(Map.of("status", "RUNNING", "processed", 120L))).isEqualTo(Cursor.START);
+        assertThat(Cursor.fromCheckpoint(Map.of("lastLabel", "Person", "lastName", "엄마"))).isEqualTo(Cursor.START);
+    }
+
+    @Test
+    @DisplayName("라벨만 있고 위치 값이 없으면 그 라벨의 처음부터")
+    void missingPositionStartsLabelOver() {
+        // Given
+        Map<String, Object> checkpoint = new HashMap<>();
+        checkpoint.put("lastLabel", "Action");
+        checkpoint.put("lastName", null);
+
+        // When & Then
+        assertThat(Cursor.fromCheckpoint(checkpoint)).isEqualTo(new Cursor("Action", "", ""));
+    }
+
+    @Test
+    @DisplayName("페이지 처리 후 커서는 같은 라벨의 마지막 (name, nodeId)로 이동")
+    void advancesWithinLabel() {
+        // When
+        Cursor cursor = Cursor.START.after(Map.of("name", "야근", "nodeId", "4:abc:3", "text", "야근"));
+
+        // Then
+        assertThat(cursor).isEqualTo(new Cursor("Event", "야근", "4:abc:3"));
+    }
+
+    @Test
+    @DisplayName("같은 name은 nodeId로 순서를 정하므로 커서가 둘 다 기억")
+    void keepsTieBreaker() {
+        // Given: 같은 이름의 노드가 페이지 경계에 걸침
+        Cursor first = Cursor.START.after(Map.of("name", "산책", "nodeId", "4:abc:10"));
+
+        // When
+        Cursor second = first.after(Map.of("name", "산책", "nodeId", "4:abc:11"));
+
+        // Then
+        assertThat(first).isNotEqualTo(second);
+        assertThat(second.name()).isEqualTo("산책");
+        assertThat(second.nodeId()).isEqualTo("4:abc:11");
+    }
+
+    @Test
+    @DisplayName("라벨이 끝나면 다음 라벨의 처음으로, 마지막 라벨 뒤에는 없음")
+    void walksLabelsInOrder() {
+        // When
+        Optional<Cursor> emotion = Cursor.START.after(Map.of("name", "출근", "nodeId", "4:abc:1")).nextLabel();
+        Optional<Cursor> action = emotion.orElseThrow().nextLabel();
+        Optional<Cursor> end = action.orElseThrow().nextLabel();
+
+        // Then
+        assertThat(emotion).contains(new Cursor("Emotion", "", ""));
+        assertThat(action).contains(new Cursor("Action", "", ""));
+        assertThat(end).isEmpty();
+    }
+
+    @Test
+    @DisplayName("저장한 커서 값으로 복원하면 같은 커서 (체크포인트 왕복)")
+    void checkpointRoundTrip() {
+        // Given
+        Cursor cursor = new Cursor("Emotion", "슬픔", "4:abc:42");
+
+        // When
+        Cursor restored = Cursor.fromCheckpoint(Map.of(
+                "lastLabel", cursor.label(), "lastName", cursor.name(), "lastNodeId", cursor.nodeId()));
+
+        // Then
+        assertThat(restored).isEqualTo(cursor);
+    }
+}
@@ -0,0 +1,129 @@
+package com.codestory.diary.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.codestory.diary.client.OpenAiApiClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * EmbeddingBatcher 단위 테스트
+ * - 입력 순서 유지, 한 번의 호출로 묶기, 실패 전파, 응답 대기 시간 초과, 종료 후 직접 호출 검증
+ */
+class EmbeddingBatcherTest {
+
+    private static final String MODEL = "text-embedding-3-small";
+
+    private OpenAiApiClient client;
+    private EmbeddingBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(OpenAiApiClient.class);
+        when(client.embeddings(eq(MODEL), anyList())).thenAnswer(invocation -> vectorsFor(invocation.getArgument(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("한 호출의 여러 텍스트는 한 번의 API 호출로 묶이고 입력 순서대로 반환된다")
+    void batchesAndKeepsOrder() {
+        // Given
+        batcher = start(true, 50, 5_000);
+
+        // When
+        List<float[]> vectors = batcher.embedAll(List.of("가", "나다", "라마바"));
+
+        // Then
+        assertThat(vectors).extracting(vector -> vector[0]).containsExactly(1f, 2f, 3f);
+        verify(client, times(1)).embeddings(MODEL, List.of("가", "나다", "라마바"));
+    }
+
+    @Test
+    @DisplayName("API 호출 실패는 같은 배치의 호출자에게 그대로 전달된다")
+    void failurePropagatesToCaller() {
+        // Given
+        when(client.embeddings(eq(MODEL), anyList())).thenThrow(new IllegalStateException("429 Too Many Requests"));
+        batcher = start(true, 10, 5_000);
+
+        // When & Then
+        assertThatThrownBy(() -> batcher.embedAll(List.of("오늘")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("429");
+    }
+
+    @Test
+    @DisplayName("응답이 timeout-ms 안에 오지 않으면 대기하지 않고 실패한다")
+    void callerTimesOut() {
+        // Given
+        when(client.embeddings(eq(MODEL), anyList())).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return vectorsFor(invocation.getArgument(1));
+        });
+        batcher = start(true, 10, 50);
+
+        // When & Then
+        assertThatThrownBy(() -> batcher.embedAll(List.of("느린 요청")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("시간 초과");
+    }
+
+    @Test
+    @DisplayName("종료 후 요청은 배처를 거치지 않고 호출 스레드에서 직접 임베딩한다")
+    void afterStopCallsDirectly() {
+        // Given
+        batcher = start(true, 10, 5_000);
+        batcher.stop();
+
+        // When
+        List<float[]> vectors = batcher.embedAll(List.of("종료 후"));
+
+        // Then
+        assertThat(vectors).hasSize(1);
+        verify(client).embeddings(MODEL, List.of("종료 후"));
+    }
+
+    @Test
+    @DisplayName("배칭을 끄면 요청마다 바로 호출한다")
+    void disabledCallsDirectly() {
+        // Given
+        batcher = start(false, 10, 5_000);
+
+        // When
+        batcher.embedAll(List.of("하나"));
+        batcher.embedAll(List.of("둘"));
+
+        // Then
+        verify(client, times(2)).embeddings(eq(MODEL), anyList());
+    }
+
+    private EmbeddingBatcher start(boolean enabled, long windowMs, long timeoutMs) {
+        EmbeddingBatcher started = new EmbeddingBatcher(client, MODEL, 1536, enabled, 64, windowMs, timeoutMs);
+        started.start();
+        return started;
+    }
+
+    private static List<float[]> vectorsFor(List<String> texts) {
+        List<float[]> vectors = new ArrayList<>();
+        texts.forEach(text -> vectors.add(new float[] {text.length()}));
+        return vectors;
+    }
+}
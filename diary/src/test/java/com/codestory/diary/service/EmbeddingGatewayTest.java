@@ -0,0 +1,122 @@
+package com.codestory.diary.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * EmbeddingGateway 단위 테스트
+ * - L1 → L2 → 제공자 순서 조회, 중복 텍스트 1회 임베딩, Redis 장애 시 계속 동작 검증
+ */
+class EmbeddingGatewayTest {
+
+    private EmbeddingProvider provider;
+    private ValueOperations<String, byte[]> valueOperations;
+    private EmbeddingGateway gateway;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        provider = mock(EmbeddingProvider.class);
+        when(provider.modelName()).thenReturn("test-model");
+        when(provider.embedAll(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            List<float[]> vectors = new ArrayList<>();
+            texts.forEach(text -> vectors.add(new float[] {text.length(), 1f}));
+            return vectors;
+        });
+
+        RedisTemplate<String, byte[]> redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(0);
+            List<byte[]> misses = new ArrayList<>();
+            keys.forEach(key -> misses.add(null));
+            return misses;
+        });
+
+        gateway = new EmbeddingGateway(provider, redisTemplate, 100, 30);
+    }
+
+    @Test
+    @DisplayName("같은 요청 안의 중복 텍스트는 한 번만 임베딩하고 입력 순서대로 반환")
+    void deduplicatesWithinRequest() {
+        // When
+        List<float[]> vectors = gateway.embedAll(List.of("우울함", "피곤함", "우울함"));
+
+        // Then
+        verify(provider).embedAll(List.of("우울함", "피곤함"));
+        assertThat(vectors).hasSize(3);
+        assertThat(vectors.get(0)).isSameAs(vectors.get(2));
+    }
+
+    @Test
+    @DisplayName("한 번 임베딩한 텍스트는 L1에서 반환 (Redis/제공자 호출 없음)")
+    void secondCallHitsL1() {
+        // Given
+        gateway.embed("오늘 산책했다");
+
+        // When
+        float[] vector = gateway.embed("오늘 산책했다");
+
+        // Then
+        assertThat(vector).containsExactly(7f, 1f);
+        verify(provider, times(1)).embedAll(anyList());
+        verify(valueOperations, times(1)).multiGet(anyList());
+    }
+
+    @Test
+    @DisplayName("L2(Redis)에 있는 벡터는 제공자를 호출하지 않고 복원")
+    void l2HitSkipsProvider() {
+        // Given
+        when(valueOperations.multiGet(anyList())).thenReturn(List.of(encode(new float[] {0.25f, -1.5f})));
+
+        // When
+        float[] vector = gateway.embed("회사 일");
+
+        // Then
+        assertThat(vector).containsExactly(0.25f, -1.5f);
+        verify(provider, never()).embedAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Redis 장애 시에도 제공자 호출로 임베딩")
+    void redisFailureFallsBackToProvider() {
+        // Given
+        when(valueOperations.multiGet(anyList())).thenThrow(new IllegalStateException("connection refused"));
+        doThrow(new IllegalStateException("connection refused"))
+                .when(valueOperations).set(anyString(), any(byte[].class), any(Duration.class));
+
+        // When
+        float[] vector = gateway.embed("친구");
+
+        // Then
+        assertThat(vector).containsExactly(2f, 1f);
+    }
+
+    private static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,83 @@
+package com.codestory.diary.service;
+
+import java.util.OptionalLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * GraphRagCacheKeyGenerator 단위 테스트
+ * - 질문 정규화(공백/문장부호/대소문자/전각), 그래프 버전 반영, 버전 조회 실패 시 캐시 우회 검증
+ */
+class GraphRagCacheKeyGeneratorTest {
+
+    private GraphVersionService graphVersionService;
+    private GraphRagCacheKeyGenerator keyGenerator;
+
+    @BeforeEach
+    void setUp() {
+        graphVersionService = mock(GraphVersionService.class);
+        when(graphVersionService.current(1L)).thenReturn(OptionalLong.of(3L));
+        keyGenerator = new GraphRagCacheKeyGenerator(graphVersionService);
+    }
+
+    @Test
+    @DisplayName("공백/문장부호만 다른 질문은 같은 키")
+    void punctuationAndSpacingIgnored() {
+        assertThat(key(1L, "요즘 기분 어때?")).isEqualTo(key(1L, "요즘 기분어때"));
+        assertThat(key(1L, "  왜 이렇게 우울할까...!! ")).isEqualTo(key(1L, "왜이렇게우울할까"));
+    }
+
+    @Test
+    @DisplayName("대소문자/전각 문자는 NFKC + 소문자로 같은 키")
+    void caseAndWidthNormalized() {
+        assertThat(GraphRagCacheKeyGenerator.normalize("ＳＴＲＥＳＳ 원인")).isEqualTo("stress원인");
+        assertThat(key(1L, "Stress 원인")).isEqualTo(key(1L, "ＳＴＲＥＳＳ 원인"));
+    }
+
+    @Test
+    @DisplayName("내용이 다른 질문과 다른 사용자는 다른 키")
+    void differentQuestionOrUser() {
+        when(graphVersionService.current(2L)).thenReturn(OptionalLong.of(3L));
+
+        assertThat(key(1L, "요즘 기분 어때?")).isNotEqualTo(key(1L, "요즘 잠은 잘 자?"));
+        assertThat(key(1L, "요즘 기분 어때?")).isNotEqualTo(key(2L, "요즘 기분 어때?"));
+    }
+
+    @Test
+    @DisplayName("키에 그래프 버전 포함 → 버전이 오르면 이전 답변과 다른 키")
+    void versionIsPartOfKey() {
+        String before = key(1L, "요즘 기분 어때?");
+        when(graphVersionService.current(1L)).thenReturn(OptionalLong.of(4L));
+
+        assertThat(before).startsWith("1::v3::");
+        assertThat(key(1L, "요즘 기분 어때?")).startsWith("1::v4::").isNotEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("버전 조회 실패 시 v0으로 대체하지 않고 매번 다른 일회용 키")
+    void unreadableVersionNeverHits() {
+        when(graphVersionService.current(1L)).thenReturn(OptionalLong.empty());
+
+        String first = key(1L, "요즘 기분 어때?");
+        String second = key(1L, "요즘 기분 어때?");
+
+        assertThat(first).doesNotContain("::v");
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("null 질문은 빈 문자열로 정규화")
+    void nullQuestion() {
+        assertThat(GraphRagCacheKeyGenerator.normalize(null)).isEmpty();
+    }
+
+    private String key(Long userId, String question) {
+        return (String) keyGenerator.generate(null, null, userId, question);
+    }
+}
@@ -0,0 +1,162 @@
+package com.codestory.diary.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.codestory.diary.memory.LexicalMemoryIndex;
+import com.codestory.diary.memory.MemoryRecord;
+import com.codestory.diary.memory.MemoryStore;
+import com.codestory.diary.repository.MemberRepository;
+
+import dev.langchain4j.model.chat.ChatLanguageModel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * MemoryCompactionService 단위 테스트
+ * - 유사 기억 묶음 → 요약 1개, 사용자/AI 응답 기억 분리, 보존 기간 지난 AI 응답 삭제, 결정적 요약 ID 검증
+ */
+class MemoryCompactionServiceTest {
+
+    private static final String USER_ID = "1";
+    private static final String AI = MemoryService.ASSISTANT_MEMORY_PREFIX;
+
+    private MemoryStore memoryStore;
+    private LexicalMemoryIndex lexicalIndex;
+    private MemoryCompactionService compactionService;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        memoryStore = mock(MemoryStore.class);
+        lexicalIndex = mock(LexicalMemoryIndex.class);
+        compactionService = new MemoryCompactionService(memoryStore, lexicalIndex, mock(ChatLanguageModel.class),
+                mock(MemberRepository.class), Runnable::run, false, 0.92, 30, 2000, false);
+        now = Instant.now().toEpochMilli();
+    }
+
+    @Test
+    @DisplayName("유사한 기억은 최근 원문을 담은 요약 1개로 합치고 원본은 삭제, 다른 기억은 유지")
+    void mergesSimilarMemories() {
+        // Given
+        MemoryRecord first = memory("1_1", "팀장님께 혼났다", 1, new float[] {1f, 0f, 0f});
+        MemoryRecord second = memory("1_2", "오늘도 팀장님께 혼났다", 2, new float[] {0.99f, 0.05f, 0f});
+        MemoryRecord other = memory("1_3", "주말에 등산을 했다", 3, new float[] {0f, 0f, 1f});
+        when(memoryStore.listAll(USER_ID)).thenReturn(List.of(first, second, other));
+
+        // When
+        MemoryCompactionService.CompactionResult result = compactionService.compactUser(USER_ID);
+
+        // Then
+        List<MemoryRecord> additions = capturedAdditions();
+        assertThat(additions).hasSize(1);
+        assertThat(additions.get(0).id()).startsWith("1_summary_");
+        assertThat(additions.get(0).text()).isEqualTo("오늘도 팀장님께 혼났다");
+        assertThat(additions.get(0).timestamp()).isEqualTo(second.timestamp());
+        assertThat(capturedDeletions()).containsExactly("1_1", "1_2");
+        assertThat(result.summaries()).isEqualTo(1);
+        verify(lexicalIndex).invalidate(USER_ID);
+    }
+
+    @Test
+    @DisplayName("사용자 기억과 AI 응답 기억은 벡터가 같아도 섞지 않고, AI 응답 요약은 접두사를 유지")
+    void keepsUserAndAssistantMemoriesApart() {
+        // Given
+        float[] same = {1f, 0f};
+        when(memoryStore.listAll(USER_ID)).thenReturn(List.of(
+                memory("1_1", "회사 가기 싫다", 1, same),
+                memory("1_2", AI + "많이 지쳤군요", 2, same),
+                memory("1_3", AI + "오늘 많이 지쳤군요", 3, same)));
+
+        // When
+        compactionService.compactUser(USER_ID);
+
+        // Then
+        List<MemoryRecord> additions = capturedAdditions();
+        assertThat(additions).hasSize(1);
+        assertThat(additions.get(0).text()).startsWith(AI);
+        assertThat(capturedDeletions()).containsExactly("1_2", "1_3");
+    }
+
+    @Test
+    @DisplayName("보존 기간이 지난 AI 응답 기억은 삭제, 사용자 기억은 오래돼도 유지")
+    void deletesExpiredAssistantMemories() {
+        // Given
+        long expired = now - Duration.ofDays(31).toMillis();
+        when(memoryStore.listAll(USER_ID)).thenReturn(List.of(
+                new MemoryRecord("1_1", USER_ID, "처음 쓴 일기", expired, new float[] {1f, 0f}),
+                new MemoryRecord("1_2", USER_ID, AI + "반가워요", expired, new float[] {0f, 1f})));
+
+        // When
+        compactionService.compactUser(USER_ID);
+
+        // Then
+        assertThat(capturedAdditions()).isEmpty();
+        assertThat(capturedDeletions()).containsExactly("1_2");
+    }
+
+    @Test
+    @DisplayName("같은 묶음은 다시 실행해도 같은 요약 ID (순서와 무관)")
+    void summaryIdIsDeterministic() {
+        // Given
+        MemoryRecord a = memory("1_1", "비가 와서 우울했다", 1, new float[] {1f, 0f});
+        MemoryRecord b = memory("1_2", "비 오는 날은 우울하다", 2, new float[] {1f, 0.01f});
+        when(memoryStore.listAll(USER_ID)).thenReturn(List.of(a, b), List.of(b, a));
+
+        // When
+        compactionService.compactUser(USER_ID);
+        compactionService.compactUser(USER_ID);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MemoryRecord>> additions = ArgumentCaptor.forClass(List.class);
+        verify(memoryStore, times(2)).replace(anyString(), additions.capture(), anyList());
+        assertThat(additions.getAllValues().get(0).get(0).id()).isEqualTo(additions.getAllValues().get(1).get(0).id());
+    }
+
+    @Test
+    @DisplayName("합칠 기억도 지울 기억도 없으면 저장소를 건드리지 않음")
+    void noChangesSkipsReplace() {
+        // Given
+        when(memoryStore.listAll(USER_ID)).thenReturn(List.of(memory("1_1", "혼자 영화를 봤다", 1, new float[] {1f, 0f})));
+
+        // When
+        compactionService.compactUser(USER_ID);
+
+        // Then
+        verify(memoryStore, never()).replace(anyString(), anyList(), anyList());
+        verify(lexicalIndex, never()).invalidate(anyString());
+    }
+
+    private MemoryRecord memory(String id, String text, long order, float[] vector) {
+        // order가 클수록 최근 (모두 보존 기간 이내)
+        return new MemoryRecord(id, USER_ID, text, now - Duration.ofMinutes(10 - order).toMillis(), vector);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MemoryRecord> capturedAdditions() {
+        ArgumentCaptor<List<MemoryRecord>> additions = ArgumentCaptor.forClass(List.class);
+        verify(memoryStore).replace(anyString(), additions.capture(), anyList());
+        return additions.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> capturedDeletions() {
+        ArgumentCaptor<List<String>> deletions = ArgumentCaptor.forClass(List.class);
+        verify(memoryStore).replace(anyString(), anyList(), deletions.capture());
+        return deletions.getValue();
+    }
+}
@@ -0,0 +1,160 @@
+package com.codestory.diary.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.codestory.diary.client.PineconeApiClient;
+import com.codestory.diary.client.dto.PineconeFetchResponse;
+import com.codestory.diary.client.dto.PineconeListResponse;
+import com.codestory.diary.client.dto.PineconeVector;
+import com.codestory.diary.memory.PineconeNamespaces;
+import com.codestory.diary.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * PineconeNamespaceMigrationService 단위 테스트
+ * - 기본 네임스페이스("")의 벡터를 사용자 네임스페이스로 옮기고, 복사된 벡터만 삭제하는지 검증
+ * - Pinecone은 메모리 속 네임스페이스 맵으로 흉내 냄
+ */
+class PineconeNamespaceMigrationServiceTest {
+
+    private final Map<String, Map<String, PineconeVector>> store = new LinkedHashMap<>();
+    private PineconeApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(PineconeApiClient.class);
+        when(client.listIds(anyString(), anyString(), any(), anyInt())).thenAnswer(invocation -> {
+            String prefix = invocation.getArgument(1);
+            int limit = invocation.getArgument(3);
+            List<PineconeListResponse.Item> items = namespace(invocation.getArgument(0)).keySet().stream()
+                    .filter(id -> id.startsWith(prefix))
+                    .limit(limit)
+                    .map(PineconeNamespaceMigrationServiceTest::item)
+                    .toList();
+            PineconeListResponse response = new PineconeListResponse();
+            response.setVectors(items);
+            return response;
+        });
+        when(client.fetch(anyString(), anyList())).thenAnswer(invocation -> {
+            Map<String, PineconeVector> source = namespace(invocation.getArgument(0));
+            Map<String, PineconeVector> found = new LinkedHashMap<>();
+            for (String id : invocation.<List<String>>getArgument(1)) {
+                if (source.containsKey(id)) {
+                    found.put(id, source.get(id));
+                }
+            }
+            PineconeFetchResponse response = new PineconeFetchResponse();
+            response.setVectors(found);
+            return response;
+        });
+        doAnswer(invocation -> {
+            invocation.<List<PineconeVector>>getArgument(1)
+                    .forEach(vector -> namespace(invocation.getArgument(0)).put(vector.getId(), vector));
+            return null;
+        }).when(client).upsert(anyString(), anyList());
+        doAnswer(invocation -> {
+            invocation.<List<String>>getArgument(1).forEach(namespace(invocation.getArgument(0))::remove);
+            return null;
+        }).when(client).delete(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("여러 페이지 분량의 벡터를 모두 사용자 네임스페이스로 옮기고 기본 네임스페이스에서 삭제")
+    void migratesAllPages() {
+        // Given: 사용자 1의 벡터 250건 + 접두사가 비슷한 사용자 11의 벡터
+        for (int i = 0; i < 250; i++) {
+            legacy("1_" + i);
+        }
+        legacy("11_0");
+
+        // When
+        int migrated = service("per-user").migrateUser(1L);
+
+        // Then
+        assertThat(migrated).isEqualTo(250);
+        assertThat(namespace("user-1")).hasSize(250);
+        assertThat(namespace(PineconeNamespaces.LEGACY_NAMESPACE)).containsOnlyKeys("11_0");
+    }
+
+    @Test
+    @DisplayName("다시 실행하면 남은 벡터가 없으므로 아무것도 옮기지 않음")
+    void rerunIsNoOp() {
+        // Given
+        legacy("1_0");
+        PineconeNamespaceMigrationService service = service("per-user");
+        service.migrateUser(1L);
+
+        // When
+        int migrated = service.migrateUser(1L);
+
+        // Then
+        assertThat(migrated).isZero();
+        assertThat(namespace("user-1")).containsOnlyKeys("1_0");
+    }
+
+    @Test
+    @DisplayName("목록의 벡터를 조회하지 못하면 삭제하지 않고 중단")
+    void stopsWithoutDeletingWhenFetchIsEmpty() {
+        // Given
+        legacy("1_0");
+        when(client.fetch(anyString(), anyList())).thenReturn(new PineconeFetchResponse());
+
+        // When
+        int migrated = service("per-user").migrateUser(1L);
+
+        // Then
+        assertThat(migrated).isZero();
+        assertThat(namespace(PineconeNamespaces.LEGACY_NAMESPACE)).containsOnlyKeys("1_0");
+        verify(client, never()).delete(eq(PineconeNamespaces.LEGACY_NAMESPACE), anyList());
+    }
+
+    @Test
+    @DisplayName("bucket 모드에서는 사용자 해시 버킷 네임스페이스로 옮김")
+    void bucketModeTarget() {
+        // Given
+        legacy("1_0");
+        PineconeNamespaces namespaces = new PineconeNamespaces("bucket", 64);
+
+        // When
+        new PineconeNamespaceMigrationService(client, namespaces, mock(MemberRepository.class)).migrateUser(1L);
+
+        // Then
+        assertThat(namespace(namespaces.forUser("1"))).containsOnlyKeys("1_0");
+    }
+
+    private PineconeNamespaceMigrationService service(String mode) {
+        return new PineconeNamespaceMigrationService(client, new PineconeNamespaces(mode, 64), mock(MemberRepository.class));
+    }
+
+    private void legacy(String id) {
+        namespace(PineconeNamespaces.LEGACY_NAMESPACE)
+                .put(id, PineconeVector.builder().id(id).values(new float[] {1f}).build());
+    }
+
+    private Map<String, PineconeVector> namespace(String name) {
+        return store.computeIfAbsent(name, ns -> new LinkedHashMap<>());
+    }
+
+    private static PineconeListResponse.Item item(String id) {
+        PineconeListResponse.Item item = new PineconeListResponse.Item();
+        item.setId(id);
+        return item;
+    }
+}
@@ -0,0 +1,184 @@
+package com.codestory.diary.service;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.codestory.diary.client.PineconeApiClient;
+import com.codestory.diary.client.dto.PineconeVector;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * PineconeWriteBuffer 단위 테스트
+ * - batch-size 도달 시 즉시 flush, 재시도 가능 오류 재적재, 거부된 벡터만 제외, 재시도 상한, 종료 시 flush 검증
+ */
+class PineconeWriteBufferTest {
+
+    private static final String NAMESPACE = "user-1";
+
+    private PineconeApiClient client;
+    private SimpleMeterRegistry meterRegistry;
+    private PineconeWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(PineconeApiClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new PineconeWriteBuffer(client, meterRegistry, true, 3, 100, 2);
+    }
+
+    @Test
+    @DisplayName("batch-size에 도달하면 한 번의 upsert로 즉시 전송하고, 나머지는 주기 flush에서 전송")
+    void flushesFullBatchImmediately() {
+        // When
+        buffer.enqueue(NAMESPACE, vector("a"));
+        buffer.enqueue(NAMESPACE, vector("b"));
+        buffer.enqueue(NAMESPACE, vector("c"));
+        buffer.enqueue(NAMESPACE, vector("d"));
+
+        // Then
+        verify(client).upsert(eq(NAMESPACE), argThat(ids("a", "b", "c")));
+        verify(client, never()).upsert(eq(NAMESPACE), argThat(ids("d")));
+
+        buffer.flushAll();
+        verify(client).upsert(eq(NAMESPACE), argThat(ids("d")));
+        assertThat(depth()).isZero();
+    }
+
+    @Test
+    @DisplayName("5xx/네트워크 오류는 다시 큐에 넣어 다음 flush에서 재시도")
+    void requeuesRetryableFailure() {
+        // Given
+        doThrow(new ResourceAccessException("connect timed out")).when(client).upsert(eq(NAMESPACE), anyList());
+        buffer.enqueue(NAMESPACE, vector("a"));
+
+        // When
+        buffer.flushAll();
+
+        // Then
+        assertThat(depth()).isEqualTo(1);
+
+        reset(client);
+        buffer.flushAll();
+        verify(client).upsert(eq(NAMESPACE), argThat(ids("a")));
+        assertThat(depth()).isZero();
+    }
+
+    @Test
+    @DisplayName("재시도 불가 4xx는 1건씩 다시 보내 거부된 벡터만 버림")
+    void dropsOnlyRejectedVector() {
+        // Given: "bad" 벡터만 차원 불일치로 거부
+        doThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST, "dimension mismatch"))
+                .when(client).upsert(eq(NAMESPACE), argThat(list -> list.stream().anyMatch(v -> v.getId().equals("bad"))));
+        doNothing().when(client).upsert(eq(NAMESPACE), argThat(ids("ok")));
+        buffer.enqueue(NAMESPACE, vector("ok"));
+        buffer.enqueue(NAMESPACE, vector("bad"));
+
+        // When
+        buffer.flushAll();
+
+        // Then
+        verify(client).upsert(eq(NAMESPACE), argThat(ids("ok")));
+        assertThat(depth()).isZero();
+        assertThat(dropped("client_error")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("max-retries회 실패한 벡터는 더 이상 재시도하지 않음")
+    void dropsAfterMaxRetries() {
+        // Given
+        doThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)).when(client).upsert(eq(NAMESPACE), anyList());
+        buffer.enqueue(NAMESPACE, vector("a"));
+
+        // When
+        buffer.flushAll();
+        buffer.flushAll();
+        buffer.flushAll();
+
+        // Then
+        verify(client, times(2)).upsert(eq(NAMESPACE), anyList());
+        assertThat(depth()).isZero();
+        assertThat(dropped("retries_exhausted")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("종료 시 일시 오류는 짧게 대기 후 다시 보내 저장")
+    void shutdownRetriesTransientFailure() {
+        // Given: 첫 upsert만 실패
+        doThrow(new ResourceAccessException("connection reset"))
+                .doNothing()
+                .when(client).upsert(eq(NAMESPACE), anyList());
+        buffer.enqueue(NAMESPACE, vector("a"));
+
+        // When
+        buffer.shutdown();
+
+        // Then
+        verify(client, times(2)).upsert(eq(NAMESPACE), argThat(ids("a")));
+        assertThat(depth()).isZero();
+        assertThat(dropped("shutdown")).isZero();
+    }
+
+    @Test
+    @DisplayName("종료 시 끝내 저장하지 못한 벡터는 유실로 집계")
+    void shutdownCountsUnsentVectors() {
+        // Given: 재시도 상한이 종료 시 재시도 횟수보다 큼
+        PineconeWriteBuffer patientBuffer = new PineconeWriteBuffer(client, meterRegistry, true, 3, 100, 10);
+        doThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)).when(client).upsert(eq(NAMESPACE), anyList());
+        patientBuffer.enqueue(NAMESPACE, vector("a"));
+        patientBuffer.enqueue(NAMESPACE, vector("b"));
+
+        // When
+        patientBuffer.shutdown();
+
+        // Then
+        assertThat(dropped("shutdown")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("재시도 가능 여부: 429/5xx/네트워크 오류만 재시도")
+    void retryableClassification() {
+        assertThat(PineconeWriteBuffer.isRetryable(
+                new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS))).isTrue();
+        assertThat(PineconeWriteBuffer.isRetryable(new HttpServerErrorException(HttpStatus.BAD_GATEWAY))).isTrue();
+        assertThat(PineconeWriteBuffer.isRetryable(new ResourceAccessException("reset"))).isTrue();
+        assertThat(PineconeWriteBuffer.isRetryable(
+                new HttpClientErrorException(HttpStatus.BAD_REQUEST))).isFalse();
+    }
+
+    private double depth() {
+        return meterRegistry.get("pinecone.write_buffer.depth").gauge().value();
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.get("pinecone.write_buffer.dropped").tag("reason", reason).counter().count();
+    }
+
+    private static ArgumentMatcher<List<PineconeVector>> ids(String... ids) {
+        return list -> list != null && list.stream().map(PineconeVector::getId).toList().equals(List.of(ids));
+    }
+
+    private static PineconeVector vector(String id) {
+        return PineconeVector.builder().id(id).values(new float[] {1f, 0f}).build();
+    }
+}
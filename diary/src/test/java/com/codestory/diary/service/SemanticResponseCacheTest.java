@@ -0,0 +1,145 @@
+package com.codestory.diary.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SemanticResponseCache 단위 테스트
+ * - 코사인 유사도 임계값 기반 HIT/MISS, 사용자/범위 분리, 무효화, 지표, 사용자 수 상한 검증
+ */
+class SemanticResponseCacheTest {
+
+    private static final String SCOPE = SemanticResponseCache.SCOPE_CHAT;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SemanticResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SemanticResponseCache(meterRegistry, true, 0.95, 50, 60, 100);
+    }
+
+    @Test
+    @DisplayName("임계값 이상으로 유사한 질문은 저장된 답변 재사용")
+    void hitForParaphrasedQuestion() {
+        // Given
+        cache.put(SCOPE, 1L, new float[]{1f, 0f, 0f}, "요즘 많이 지쳐 보여요.");
+
+        // When: 거의 같은 방향의 벡터 (cos ≈ 0.998)
+        var result = cache.lookup(SCOPE, 1L, new float[]{1f, 0.05f, 0f});
+
+        // Then
+        assertThat(result).contains("요즘 많이 지쳐 보여요.");
+        assertThat(meterRegistry.counter("ai.semantic_cache.requests", "scope", SCOPE, "result", "hit").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("임계값 미만 유사도는 MISS")
+    void missForDifferentQuestion() {
+        // Given
+        cache.put(SCOPE, 1L, new float[]{1f, 0f, 0f}, "답변");
+
+        // When: cos = 0.707
+        var result = cache.lookup(SCOPE, 1L, new float[]{1f, 1f, 0f});
+
+        // Then
+        assertThat(result).isEmpty();
+        assertThat(meterRegistry.counter("ai.semantic_cache.requests", "scope", SCOPE, "result", "miss").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("다른 사용자/다른 범위의 답변은 공유하지 않음")
+    void isolatedByUserAndScope() {
+        // Given
+        cache.put(SCOPE, 1L, new float[]{0f, 1f}, "사용자 1의 답변");
+
+        // When & Then
+        assertThat(cache.lookup(SCOPE, 2L, new float[]{0f, 1f})).isEmpty();
+        assertThat(cache.lookup(SemanticResponseCache.SCOPE_GRAPH_RAG, 1L, new float[]{0f, 1f})).isEmpty();
+    }
+
+    @Test
+    @DisplayName("새 일기 작성 시 사용자 캐시 전체 무효화")
+    void invalidateUser() {
+        // Given
+        cache.put(SCOPE, 1L, new float[]{0f, 1f}, "답변");
+        cache.put(SemanticResponseCache.SCOPE_GRAPH_RAG, 1L, new float[]{0f, 1f}, "{\"message\": \"분석\"}");
+
+        // When
+        cache.invalidateUser(1L);
+
+        // Then
+        assertThat(cache.lookup(SCOPE, 1L, new float[]{0f, 1f})).isEmpty();
+        assertThat(cache.lookup(SemanticResponseCache.SCOPE_GRAPH_RAG, 1L, new float[]{0f, 1f})).isEmpty();
+    }
+
+    @Test
+    @DisplayName("사용자별 최대 개수를 넘으면 가장 오래된 답변부터 제거")
+    void evictsOldestEntries() {
+        // Given
+        SemanticResponseCache smallCache = new SemanticResponseCache(meterRegistry, true, 0.95, 1, 60, 100);
+        smallCache.put(SCOPE, 1L, new float[]{1f, 0f}, "오래된 답변");
+        smallCache.put(SCOPE, 1L, new float[]{0f, 1f}, "최근 답변");
+
+        // When & Then
+        assertThat(smallCache.lookup(SCOPE, 1L, new float[]{1f, 0f})).isEmpty();
+        assertThat(smallCache.lookup(SCOPE, 1L, new float[]{0f, 1f})).contains("최근 답변");
+    }
+
+    @Test
+    @DisplayName("max-users를 넘으면 가장 오래 사용하지 않은 사용자의 캐시부터 제거")
+    void evictsLeastRecentlyUsedUser() {
+        // Given
+        SemanticResponseCache smallCache = new SemanticResponseCache(meterRegistry, true, 0.95, 50, 60, 2);
+        smallCache.put(SCOPE, 1L, new float[]{1f, 0f}, "사용자 1의 답변");
+        smallCache.put(SCOPE, 2L, new float[]{1f, 0f}, "사용자 2의 답변");
+        smallCache.lookup(SCOPE, 1L, new float[]{1f, 0f}); // 사용자 1을 최근 사용으로 갱신
+
+        // When
+        smallCache.put(SCOPE, 3L, new float[]{1f, 0f}, "사용자 3의 답변");
+
+        // Then
+        assertThat(smallCache.userCount()).isEqualTo(2);
+        assertThat(smallCache.lookup(SCOPE, 1L, new float[]{1f, 0f})).contains("사용자 1의 답변");
+        assertThat(smallCache.lookup(SCOPE, 2L, new float[]{1f, 0f})).isEmpty();
+        assertThat(smallCache.lookup(SCOPE, 3L, new float[]{1f, 0f})).contains("사용자 3의 답변");
+    }
+
+    @Test
+    @DisplayName("조회 시 모든 항목이 만료된 사용자는 캐시에서 제거")
+    void dropsUserWhenAllEntriesExpired() throws InterruptedException {
+        // Given: TTL 0분 → 저장 시각이 조회 시각보다 앞서기만 하면 만료
+        SemanticResponseCache expiringCache = new SemanticResponseCache(meterRegistry, true, 0.95, 50, 0, 100);
+        expiringCache.put(SCOPE, 1L, new float[]{1f, 0f}, "답변");
+        Thread.sleep(5);
+
+        // When
+        var result = expiringCache.lookup(SCOPE, 1L, new float[]{1f, 0f});
+
+        // Then
+        assertThat(result).isEmpty();
+        assertThat(expiringCache.userCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 범위에 남은 항목이 있으면 사용자는 유지")
+    void keepsUserWithOtherScopeEntries() {
+        // Given
+        cache.put(SemanticResponseCache.SCOPE_GRAPH_RAG, 1L, new float[]{1f, 0f}, "{\"message\": \"분석\"}");
+
+        // When: 비어 있는 chat 범위 조회
+        cache.lookup(SCOPE, 1L, new float[]{1f, 0f});
+
+        // Then
+        assertThat(cache.userCount()).isEqualTo(1);
+        assertThat(cache.lookup(SemanticResponseCache.SCOPE_GRAPH_RAG, 1L, new float[]{1f, 0f})).isPresent();
+    }
+}